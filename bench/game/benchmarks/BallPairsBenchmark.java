@@ -0,0 +1,211 @@
+package game.benchmarks;
+
+import game.logic.physics.broad_phase.SpatialHash;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Compares finding the pairs of balls that touch by testing every pair (naive), by testing only the pairs a
+ * {@link SpatialHash} of the ball centers finds (hashed), and by testing only the pairs a hash that skips the pairs
+ * of balls that spawned together finds (grouped), as the number of balls grows. The hashed and grouped times include
+ * building the hash, which is done every step in the game, and the grouped time also includes finding the balls that
+ * no longer overlap any ball of their group, the way {@link game.gui.BallSystem} does.
+ *
+ * <p>The balls are laid out in two ways:
+ * <ul>
+ *     <li>uniform - spread at random at the same density whatever their number, so each ball touches about the same
+ *     number of others, and no ball is in a group.</li>
+ *     <li>clustered - two storms, each spawned at a single point and fanned out over 120 degrees for a second of
+ *     steps, the way every level starts. The balls of each storm are crowded together however many they are, which
+ *     makes the plain hash test about every pair of them, while the grouped hash only tests the pairs where the
+ *     storms cross.</li>
+ * </ul>
+ * Only the pairs of balls that are not in the same group are counted, and all three searches must find the exact
+ * same pairs.
+ *
+ * <p>Run with {@code ant bench -Dbench=BallPairsBenchmark}.
+ */
+public class BallPairsBenchmark {
+    private static final int[] BALL_COUNTS = {10, 100, 1000, 10000, 100000};
+    private static final double RADIUS = 5;
+    //The area of the screen for every ball - about 1 ball on every 40x40 pixels
+    private static final double AREA_PER_BALL = 1600;
+    //The storms of the clustered layout - their speed, how far apart they spawned, and how many steps ago
+    private static final double SPEED = 5;
+    private static final double SPAWN_DISTANCE = 200;
+    private static final int FAN_STEPS = 60;
+    private static final double FAN_ANGLE = 120;
+    private static final int NO_GROUP = -1;
+    //Each search is repeated for about this long in each measurement, so huge counts do not take too long
+    private static final long MEASURE_NANOS = 1_000_000_000L;
+    private static final int MAX_REPETITIONS = 1000;
+    private static final long SEED = 42;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args not used
+     */
+    public static void main(String[] args) {
+        System.out.printf("%10s %10s %10s %15s %15s %16s %10s%n", "layout", "balls", "touching", "naive us/step",
+                "hashed us/step", "grouped us/step", "speedup");
+        for (int count : BALL_COUNTS) {
+            run("uniform", count, false);
+        }
+        for (int count : BALL_COUNTS) {
+            run("clustered", count, true);
+        }
+    }
+
+    private static void run(String layout, int count, boolean clustered) {
+        double[] x = new double[count];
+        double[] y = new double[count];
+        int[] groups = new int[count];
+        if (clustered) {
+            cluster(x, y, groups, count);
+        } else {
+            spread(x, y, groups, count);
+        }
+        SpatialHash hash = new SpatialHash();
+        PairCounter naive = new PairCounter(x, y, groups);
+        PairCounter hashed = new PairCounter(x, y, groups);
+        PairCounter grouped = new PairCounter(x, y, groups);
+
+        //Every search must find the same pairs
+        naive(count, naive);
+        hashed(hash, x, y, count, hashed);
+        grouped(hash, x, y, groups, count, grouped);
+        if (naive.pairs != hashed.pairs || naive.checksum != hashed.checksum
+                || naive.pairs != grouped.pairs || naive.checksum != grouped.checksum) {
+            throw new IllegalStateException("Mismatch with " + count + " " + layout + " balls: " + naive.pairs
+                    + " pairs vs " + hashed.pairs + " hashed and " + grouped.pairs + " grouped");
+        }
+        long touching = naive.pairs;
+
+        double naiveTime = time(() -> naive(count, naive));
+        double hashedTime = time(() -> hashed(hash, x, y, count, hashed));
+        double groupedTime = time(() -> grouped(hash, x, y, groups, count, grouped));
+        System.out.printf("%10s %10d %10d %15.1f %15.1f %16.1f %9.1fx%n", layout, count, touching, naiveTime / 1000,
+                hashedTime / 1000, groupedTime / 1000, naiveTime / Math.min(hashedTime, groupedTime));
+    }
+
+    /**
+     * Spreads the balls at random, in no group.
+     */
+    private static void spread(double[] x, double[] y, int[] groups, int count) {
+        double side = Math.sqrt(count * AREA_PER_BALL);
+        Random rng = new Random(SEED);
+        for (int i = 0; i < count; i++) {
+            x[i] = rng.nextDouble() * side;
+            y[i] = rng.nextDouble() * side;
+        }
+        Arrays.fill(groups, NO_GROUP);
+    }
+
+    /**
+     * Lays the balls out as two storms that spawned next to each other and fanned out upwards, each storm in a group
+     * of its own, one after the other.
+     */
+    private static void cluster(double[] x, double[] y, int[] groups, int count) {
+        int firstStorm = (count + 1) / 2;
+        for (int i = 0; i < count; i++) {
+            int group = i < firstStorm ? 0 : 1;
+            int inStorm = group == 0 ? i : i - firstStorm;
+            int stormBalls = group == 0 ? firstStorm : count - firstStorm;
+            double proportion = stormBalls == 1 ? 0.5 : (double) inStorm / (stormBalls - 1);
+            //0 degrees is up, like in Velocity.fromAngleAndSpeed
+            double angle = Math.toRadians(FAN_ANGLE * (proportion - 0.5));
+            x[i] = group * SPAWN_DISTANCE + Math.sin(angle) * SPEED * FAN_STEPS;
+            y[i] = -Math.cos(angle) * SPEED * FAN_STEPS;
+            groups[i] = group;
+        }
+    }
+
+    private static void naive(int count, PairCounter counter) {
+        counter.reset();
+        for (int i = 0; i < count; i++) {
+            for (int j = i + 1; j < count; j++) {
+                counter.visit(i, j);
+            }
+        }
+    }
+
+    private static void hashed(SpatialHash hash, double[] x, double[] y, int count, PairCounter counter) {
+        counter.reset();
+        hash.build(x, y, count, 2 * RADIUS);
+        hash.forEachPair(counter);
+    }
+
+    private static void grouped(SpatialHash hash, double[] x, double[] y, int[] groups, int count,
+                                PairCounter counter) {
+        counter.reset();
+        hash.build(x, y, groups, count, 2 * RADIUS);
+        hash.forEachPair(counter);
+        for (int i = 0; i < count; i++) {
+            if (groups[i] != NO_GROUP && !hash.anyInGroupNear(i, counter::touch)) {
+                counter.separated++;
+            }
+        }
+    }
+
+    /**
+     * Runs a search a number of times after warming up (by running it as many times), and returns the average time it
+     * took, in nanoseconds. The number of times is chosen from how long the first run took.
+     */
+    private static double time(Runnable search) {
+        long first = System.nanoTime();
+        search.run();
+        long firstTime = Math.max(1, System.nanoTime() - first);
+        int repetitions = (int) Math.max(1, Math.min(MAX_REPETITIONS, MEASURE_NANOS / 2 / firstTime));
+        for (int i = 0; i < repetitions; i++) {
+            search.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < repetitions; i++) {
+            search.run();
+        }
+        return (double) (System.nanoTime() - start) / repetitions;
+    }
+
+    /**
+     * Counts the pairs of balls that touch and are not in the same group, with a checksum of which pairs they are.
+     */
+    private static class PairCounter implements SpatialHash.PairVisitor {
+        private final double[] x;
+        private final double[] y;
+        private final int[] groups;
+        private long pairs;
+        private long checksum;
+        //The balls that touch no ball of their group, so the search is not left out as unused
+        private long separated;
+
+        PairCounter(double[] x, double[] y, int[] groups) {
+            this.x = x;
+            this.y = y;
+            this.groups = groups;
+        }
+
+        void reset() {
+            this.pairs = 0;
+            this.checksum = 0;
+            this.separated = 0;
+        }
+
+        boolean touch(int i, int j) {
+            double offsetX = this.x[j] - this.x[i];
+            double offsetY = this.y[j] - this.y[i];
+            return offsetX * offsetX + offsetY * offsetY < 4 * RADIUS * RADIUS;
+        }
+
+        @Override
+        public void visit(int i, int j) {
+            boolean sameGroup = this.groups[i] != NO_GROUP && this.groups[i] == this.groups[j];
+            if (!sameGroup && this.touch(i, j)) {
+                this.pairs++;
+                //Independent of the order the pairs are found in
+                this.checksum += ((long) i * 31 + j) * 0x9E3779B97F4A7C15L;
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package game.benchmarks;
+
+import game.geometry.shapes.Line;
+import game.geometry.shapes.Rectangle;
+import game.gui.rectangular_objects.Block;
+import game.logic.physics.CollisionInfo;
+import game.logic.physics.GameEnvironment;
+import game.logic.physics.broad_phase.LinearScan;
+import game.logic.physics.broad_phase.UniformGrid;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares {@link GameEnvironment#getClosestCollision(Line)} with a linear scan and with a uniform grid, as the
+ * number of blocks grows. Also checks that both return the exact same collisions.
+ *
+ * <p>Run with {@code ant bench -Dbench=BroadPhaseBenchmark}.
+ */
+public class BroadPhaseBenchmark {
+    private static final int[] BLOCK_COUNTS = {10, 100, 1000, 10000, 100000};
+    private static final double BLOCK_WIDTH = 40;
+    private static final double BLOCK_HEIGHT = 20;
+    private static final double GAP = 10;
+    private static final double CELL_SIZE = 64;
+    //Roughly the distance a ball moves in a single frame
+    private static final double STEP_LENGTH = 8;
+    private static final int QUERIES = 50000;
+    private static final long SEED = 42;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args not used
+     */
+    public static void main(String[] args) {
+        System.out.printf("%10s %15s %15s %10s%n", "blocks", "linear ns/op", "grid ns/op", "speedup");
+        for (int count : BLOCK_COUNTS) {
+            run(count);
+        }
+    }
+
+    private static void run(int count) {
+        int perRow = (int) Math.ceil(Math.sqrt(count));
+        double width = perRow * (BLOCK_WIDTH + GAP) + GAP;
+        double height = perRow * (BLOCK_HEIGHT + GAP) + GAP;
+
+        GameEnvironment linear = new GameEnvironment(new LinearScan());
+        GameEnvironment grid = new GameEnvironment(new UniformGrid(0, 0, width, height, CELL_SIZE));
+        for (int i = 0; i < count; i++) {
+            double x = GAP + (i % perRow) * (BLOCK_WIDTH + GAP);
+            double y = GAP + (double) (i / perRow) * (BLOCK_HEIGHT + GAP);
+            Block block = new Block(new Rectangle(x, y, BLOCK_WIDTH, BLOCK_HEIGHT));
+            linear.addCollidable(block);
+            grid.addCollidable(block);
+        }
+
+        Random rng = new Random(SEED);
+        List<Line> trajectories = new ArrayList<>();
+        for (int i = 0; i < QUERIES; i++) {
+            double x = rng.nextDouble() * width;
+            double y = rng.nextDouble() * height;
+            double angle = rng.nextDouble() * 2 * Math.PI;
+            trajectories.add(new Line(x, y, x + STEP_LENGTH * Math.cos(angle), y + STEP_LENGTH * Math.sin(angle)));
+        }
+
+        //Linear scans of huge levels take too long, so fewer queries are used for them
+        int linearQueries = (int) Math.min(QUERIES, 2e6 / count);
+
+        //Both environments must agree on every query
+        for (int i = 0; i < linearQueries; i++) {
+            Line trajectory = trajectories.get(i);
+            CollisionInfo expected = linear.getClosestCollision(trajectory);
+            CollisionInfo actual = grid.getClosestCollision(trajectory);
+            if (!same(expected, actual)) {
+                throw new IllegalStateException("Mismatch on " + trajectory + ": " + expected + " vs " + actual);
+            }
+        }
+
+        double linearTime = time(linear, trajectories, linearQueries);
+        double gridTime = time(grid, trajectories, QUERIES);
+        System.out.printf("%10d %15.1f %15.1f %9.1fx%n", count, linearTime, gridTime, linearTime / gridTime);
+    }
+
+    private static double time(GameEnvironment environment, List<Line> trajectories, int queries) {
+        int hits = 0;
+        //Warm up
+        for (int i = 0; i < queries; i++) {
+            if (environment.getClosestCollision(trajectories.get(i)) != null) {
+                hits++;
+            }
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < queries; i++) {
+            if (environment.getClosestCollision(trajectories.get(i)) != null) {
+                hits++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        //Using the result, so the loop is not optimized away
+        if (hits < 0) {
+            System.out.println(hits);
+        }
+        return (double) elapsed / queries;
+    }
+
+    private static boolean same(CollisionInfo a, CollisionInfo b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return a.collisionObject() == b.collisionObject()
+                && a.collisionPoint().getX() == b.collisionPoint().getX()
+                && a.collisionPoint().getY() == b.collisionPoint().getY();
+    }
+}
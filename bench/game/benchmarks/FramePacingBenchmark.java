@@ -0,0 +1,106 @@
+package game.benchmarks;
+
+import biuoop.Sleeper;
+import game.animations.FramePacer;
+import game.animations.frame_stats.Histogram;
+
+import java.util.Random;
+
+/**
+ * Compares how evenly frames are spaced when they are paced with {@link System#currentTimeMillis()} and
+ * {@link Sleeper} (the way the game used to be paced) and with a {@link FramePacer}. Every frame does a random
+ * amount of busy work, and the time between the starts of consecutive frames is measured against the target.
+ *
+ * <p>Run with {@code ant bench -Dbench=FramePacingBenchmark -Dargs="frames"} (300 frames by default).
+ */
+public class FramePacingBenchmark {
+    private static final int FPS = 60;
+    private static final int DEFAULT_FRAMES = 300;
+    private static final long NANOS_IN_SECOND = 1000000000L;
+    private static final double NANOS_IN_MILLISECOND = 1000000.0;
+    //The busy work of a frame takes between these many nanoseconds
+    private static final long MIN_WORK_NANOS = 2000000L;
+    private static final long MAX_WORK_NANOS = 10000000L;
+    //Frames whose interval is off by more than this are counted
+    private static final long JITTER_THRESHOLD_NANOS = 1000000L;
+    private static final long SEED = 42;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args the number of frames to run with each pacing, optionally
+     */
+    public static void main(String[] args) {
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_FRAMES;
+        System.out.printf("%-12s %8s %12s %12s %12s %12s %8s%n", "pacing", "fps", "mean |j| ms", "p99 |j| ms",
+                "max |j| ms", "drift ms", ">1ms");
+        report("millis", frames, runMillis(frames));
+        report("FramePacer", frames, runPacer(frames));
+    }
+
+    /**
+     * The pacing the game used to have - a whole number of milliseconds per frame, minus the time the frame took,
+     * slept through with {@link Sleeper}.
+     *
+     * @return the start times of the frames, in nanoseconds
+     */
+    private static long[] runMillis(int frames) {
+        Random rng = new Random(SEED);
+        Sleeper sleeper = new Sleeper();
+        int millisecondsPerFrame = 1000 / FPS;
+        long[] starts = new long[frames + 1];
+        for (int i = 0; i < frames; i++) {
+            starts[i] = System.nanoTime();
+            long startTime = System.currentTimeMillis();
+            work(rng);
+            long usedTime = System.currentTimeMillis() - startTime;
+            long milliSecondLeftToSleep = millisecondsPerFrame - usedTime;
+            if (milliSecondLeftToSleep > 0) {
+                sleeper.sleepFor(milliSecondLeftToSleep);
+            }
+        }
+        starts[frames] = System.nanoTime();
+        return starts;
+    }
+
+    private static long[] runPacer(int frames) {
+        Random rng = new Random(SEED);
+        FramePacer pacer = new FramePacer(NANOS_IN_SECOND / FPS);
+        pacer.restart();
+        long[] starts = new long[frames + 1];
+        for (int i = 0; i < frames; i++) {
+            starts[i] = System.nanoTime();
+            work(rng);
+            pacer.waitForNextFrame();
+        }
+        starts[frames] = System.nanoTime();
+        return starts;
+    }
+
+    private static void work(Random rng) {
+        long end = System.nanoTime() + MIN_WORK_NANOS + (long) (rng.nextDouble() * (MAX_WORK_NANOS - MIN_WORK_NANOS));
+        while (System.nanoTime() < end) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void report(String name, int frames, long[] starts) {
+        long target = NANOS_IN_SECOND / FPS;
+        Histogram jitter = new Histogram();
+        long jittery = 0;
+        for (int i = 0; i < frames; i++) {
+            long error = Math.abs(starts[i + 1] - starts[i] - target);
+            jitter.record(error);
+            if (error > JITTER_THRESHOLD_NANOS) {
+                jittery++;
+            }
+        }
+        long elapsed = starts[frames] - starts[0];
+        //How far the last frame is from where a perfect schedule would have put it
+        long drift = elapsed - frames * target;
+        System.out.printf("%-12s %8.2f %12.3f %12.3f %12.3f %12.3f %8d%n", name,
+                frames * (double) NANOS_IN_SECOND / elapsed, jitter.getMean() / NANOS_IN_MILLISECOND,
+                jitter.getValueAtPercentile(99) / NANOS_IN_MILLISECOND, jitter.getMax() / NANOS_IN_MILLISECOND,
+                drift / NANOS_IN_MILLISECOND, jittery);
+    }
+}
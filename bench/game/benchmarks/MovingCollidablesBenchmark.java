@@ -0,0 +1,185 @@
+package game.benchmarks;
+
+import game.geometry.shapes.Line;
+import game.geometry.shapes.Rectangle;
+import game.gui.rectangular_objects.Block;
+import game.logic.physics.CollisionInfo;
+import game.logic.physics.GameEnvironment;
+import game.logic.physics.broad_phase.BroadPhase;
+import game.logic.physics.broad_phase.DynamicTree;
+import game.logic.physics.broad_phase.HybridBroadPhase;
+import game.logic.physics.broad_phase.LinearScan;
+import game.logic.physics.broad_phase.UniformGrid;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures the cost of a frame (moving every obstacle once, then querying) when a level has many moving obstacles,
+ * using a uniform grid alone and using a grid for the static blocks with a dynamic tree for the moving ones.
+ * Also checks both against a linear scan.
+ *
+ * <p>Run with {@code ant bench -Dbench=MovingCollidablesBenchmark}.
+ */
+public class MovingCollidablesBenchmark {
+    private static final int STATIC_BLOCKS = 10000;
+    private static final int[] MOVING_COUNTS = {1, 10, 100, 1000};
+    private static final double BLOCK_WIDTH = 40;
+    private static final double BLOCK_HEIGHT = 20;
+    private static final double GAP = 10;
+    private static final double CELL_SIZE = 64;
+    private static final double TREE_MARGIN = 16;
+    private static final double STEP_LENGTH = 8;
+    //Obstacles move like a paddle - a few pixels a frame, back and forth
+    private static final double OBSTACLE_SPEED = 5;
+    private static final int FRAMES = 300;
+    private static final int QUERIES_PER_FRAME = 200;
+    private static final int CHECKED_FRAMES = 20;
+    private static final long SEED = 42;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args not used
+     */
+    public static void main(String[] args) {
+        System.out.printf("%10s %18s %18s%n", "moving", "grid us/frame", "hybrid us/frame");
+        for (int moving : MOVING_COUNTS) {
+            run(moving);
+        }
+    }
+
+    private static void run(int movingCount) {
+        int perRow = (int) Math.ceil(Math.sqrt(STATIC_BLOCKS));
+        double width = perRow * (BLOCK_WIDTH + GAP) + GAP;
+        double height = perRow * (BLOCK_HEIGHT + GAP) + GAP;
+
+        Random rng = new Random(SEED);
+        List<Block> statics = new ArrayList<>();
+        for (int i = 0; i < STATIC_BLOCKS; i++) {
+            double x = GAP + (i % perRow) * (BLOCK_WIDTH + GAP);
+            double y = GAP + (double) (i / perRow) * (BLOCK_HEIGHT + GAP);
+            statics.add(new Block(new Rectangle(x, y, BLOCK_WIDTH, BLOCK_HEIGHT)));
+        }
+        List<Obstacle> obstacles = new ArrayList<>();
+        for (int i = 0; i < movingCount; i++) {
+            obstacles.add(new Obstacle(rng.nextDouble() * width, rng.nextDouble() * height,
+                    rng.nextBoolean() ? OBSTACLE_SPEED : -OBSTACLE_SPEED));
+        }
+        List<Line> trajectories = new ArrayList<>();
+        for (int i = 0; i < QUERIES_PER_FRAME; i++) {
+            double x = rng.nextDouble() * width;
+            double y = rng.nextDouble() * height;
+            double angle = rng.nextDouble() * 2 * Math.PI;
+            trajectories.add(new Line(x, y, x + STEP_LENGTH * Math.cos(angle), y + STEP_LENGTH * Math.sin(angle)));
+        }
+
+        GameEnvironment linear = build(new LinearScan(), statics, obstacles);
+        GameEnvironment grid = build(new UniformGrid(0, 0, width, height, CELL_SIZE), statics, obstacles);
+        GameEnvironment hybrid = build(new HybridBroadPhase(
+                new UniformGrid(0, 0, width, height, CELL_SIZE),
+                new DynamicTree(TREE_MARGIN)), statics, obstacles);
+
+        //Checking that all three agree while the obstacles move
+        for (int frame = 0; frame < CHECKED_FRAMES; frame++) {
+            for (Obstacle obstacle : obstacles) {
+                obstacle.move(width);
+                linear.updateCollidable(obstacle.block);
+                grid.updateCollidable(obstacle.block);
+                hybrid.updateCollidable(obstacle.block);
+            }
+            for (Line trajectory : trajectories) {
+                CollisionInfo expected = linear.getClosestCollision(trajectory);
+                if (!same(expected, grid.getClosestCollision(trajectory))
+                        || !same(expected, hybrid.getClosestCollision(trajectory))) {
+                    throw new IllegalStateException("Mismatch on " + trajectory);
+                }
+            }
+        }
+
+        double gridTime = time(grid, obstacles, trajectories, width);
+        double hybridTime = time(hybrid, obstacles, trajectories, width);
+        System.out.printf("%10d %18.1f %18.1f%n", movingCount, gridTime, hybridTime);
+    }
+
+    private static GameEnvironment build(BroadPhase broadPhase, List<Block> statics, List<Obstacle> obstacles) {
+        GameEnvironment environment = new GameEnvironment(broadPhase);
+        for (Block block : statics) {
+            environment.addCollidable(block);
+        }
+        for (Obstacle obstacle : obstacles) {
+            environment.addCollidable(obstacle.block);
+        }
+        return environment;
+    }
+
+    private static double time(GameEnvironment environment, List<Obstacle> obstacles, List<Line> trajectories,
+                               double width) {
+        int hits = 0;
+        long start = 0;
+        //The first half of the frames is a warm up
+        for (int frame = 0; frame < 2 * FRAMES; frame++) {
+            if (frame == FRAMES) {
+                start = System.nanoTime();
+            }
+            for (Obstacle obstacle : obstacles) {
+                obstacle.move(width);
+                environment.updateCollidable(obstacle.block);
+            }
+            for (Line trajectory : trajectories) {
+                if (environment.getClosestCollision(trajectory) != null) {
+                    hits++;
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        if (hits < 0) {
+            System.out.println(hits);
+        }
+        return elapsed / 1000.0 / FRAMES;
+    }
+
+    private static boolean same(CollisionInfo a, CollisionInfo b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return a.collisionObject() == b.collisionObject()
+                && a.collisionPoint().getX() == b.collisionPoint().getX()
+                && a.collisionPoint().getY() == b.collisionPoint().getY();
+    }
+
+    /**
+     * A paddle-like block that moves horizontally and bounces between the sides of the level.
+     */
+    private static class Obstacle {
+        private final MovableBlock block;
+        private double speed;
+
+        Obstacle(double x, double y, double speed) {
+            this.block = new MovableBlock(new Rectangle(x, y, 2 * BLOCK_WIDTH, BLOCK_HEIGHT / 2));
+            this.speed = speed;
+        }
+
+        void move(double width) {
+            Rectangle rect = this.block.getRect();
+            if (rect.getLeft() + this.speed < 0 || rect.getRight() + this.speed > width) {
+                this.speed = -this.speed;
+            }
+            this.block.setRectangle(rect.moveX(this.speed));
+        }
+    }
+
+    /**
+     * A block that exposes its rectangle setter.
+     */
+    private static class MovableBlock extends Block {
+        MovableBlock(Rectangle rect) {
+            super(rect);
+        }
+
+        void setRectangle(Rectangle rect) {
+            super.setRect(rect);
+        }
+    }
+}
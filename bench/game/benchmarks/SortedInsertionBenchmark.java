@@ -0,0 +1,119 @@
+package game.benchmarks;
+
+import game.geometry.shapes.Line;
+import game.geometry.shapes.Rectangle;
+import game.gui.rectangular_objects.Block;
+import game.logic.physics.CollisionInfo;
+import game.logic.physics.GameEnvironment;
+import game.logic.physics.broad_phase.DynamicTree;
+import game.logic.physics.broad_phase.LinearScan;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Adds rows of blocks to a {@link DynamicTree} one after the other, in the order a level lays them out, and reports
+ * the height of the tree next to the height of a perfectly balanced one, how long adding took, and how long queries
+ * take. Adding in sorted order is the worst case for a tree that is not rebalanced. Also checks the tree against a
+ * linear scan.
+ *
+ * <p>Run with {@code ant bench -Dbench=SortedInsertionBenchmark}.
+ */
+public class SortedInsertionBenchmark {
+    private static final int[] BLOCK_COUNTS = {100, 1000, 10000, 100000};
+    private static final double BLOCK_WIDTH = 40;
+    private static final double BLOCK_HEIGHT = 20;
+    private static final double GAP = 10;
+    private static final double TREE_MARGIN = 0;
+    //Roughly the distance a ball moves in a single frame
+    private static final double STEP_LENGTH = 8;
+    private static final int QUERIES = 50000;
+    private static final int CHECKED_QUERIES = 2000;
+    private static final long SEED = 42;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args not used
+     */
+    public static void main(String[] args) {
+        System.out.printf("%10s %8s %10s %12s %12s%n", "blocks", "height", "balanced", "add us/op", "query ns/op");
+        for (int count : BLOCK_COUNTS) {
+            run(count);
+        }
+    }
+
+    private static void run(int count) {
+        int perRow = (int) Math.ceil(Math.sqrt(count));
+        double width = perRow * (BLOCK_WIDTH + GAP) + GAP;
+        double height = perRow * (BLOCK_HEIGHT + GAP) + GAP;
+        List<Block> blocks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            double x = GAP + (i % perRow) * (BLOCK_WIDTH + GAP);
+            double y = GAP + (double) (i / perRow) * (BLOCK_HEIGHT + GAP);
+            blocks.add(new Block(new Rectangle(x, y, BLOCK_WIDTH, BLOCK_HEIGHT)));
+        }
+
+        DynamicTree tree = new DynamicTree(TREE_MARGIN);
+        GameEnvironment treeEnvironment = new GameEnvironment(tree);
+        long start = System.nanoTime();
+        for (Block block : blocks) {
+            treeEnvironment.addCollidable(block);
+        }
+        double addTime = (System.nanoTime() - start) / 1000.0 / count;
+        GameEnvironment linear = new GameEnvironment(new LinearScan());
+        for (Block block : blocks) {
+            linear.addCollidable(block);
+        }
+
+        Random rng = new Random(SEED);
+        List<Line> trajectories = new ArrayList<>();
+        for (int i = 0; i < QUERIES; i++) {
+            double x = rng.nextDouble() * width;
+            double y = rng.nextDouble() * height;
+            double angle = rng.nextDouble() * 2 * Math.PI;
+            trajectories.add(new Line(x, y, x + STEP_LENGTH * Math.cos(angle), y + STEP_LENGTH * Math.sin(angle)));
+        }
+        for (int i = 0; i < CHECKED_QUERIES; i++) {
+            Line trajectory = trajectories.get(i);
+            if (!same(linear.getClosestCollision(trajectory), treeEnvironment.getClosestCollision(trajectory))) {
+                throw new IllegalStateException("Mismatch on " + trajectory);
+            }
+        }
+
+        double queryTime = time(treeEnvironment, trajectories);
+        int balanced = (int) Math.ceil(Math.log(count) / Math.log(2));
+        System.out.printf("%10d %8d %10d %12.2f %12.1f%n", count, tree.getHeight(), balanced, addTime, queryTime);
+    }
+
+    private static double time(GameEnvironment environment, List<Line> trajectories) {
+        int hits = 0;
+        //Warming up
+        for (Line trajectory : trajectories) {
+            if (environment.getClosestCollision(trajectory) != null) {
+                hits++;
+            }
+        }
+        long start = System.nanoTime();
+        for (Line trajectory : trajectories) {
+            if (environment.getClosestCollision(trajectory) != null) {
+                hits++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        if (hits < 0) {
+            System.out.println(hits);
+        }
+        return (double) elapsed / trajectories.size();
+    }
+
+    private static boolean same(CollisionInfo a, CollisionInfo b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return a.collisionObject() == b.collisionObject()
+                && a.collisionPoint().getX() == b.collisionPoint().getX()
+                && a.collisionPoint().getY() == b.collisionPoint().getY();
+    }
+}
@@ -0,0 +1,136 @@
+package game.benchmarks;
+
+import game.animations.GameLevel;
+import game.animations.frame_stats.FrameStats;
+import game.animations.frame_stats.Histogram;
+import game.headless.HeadlessRunner;
+import game.headless.NullDrawSurface;
+import game.headless.ScriptedKeyboard;
+import game.levels.stress.StressLevel;
+import game.logic.Counter;
+
+/**
+ * Plays generated {@link StressLevel}s of growing sizes without a screen, and reports how long their frames took,
+ * how many collision queries a second the simulation made, and how much heap the level takes.
+ *
+ * <p>Each level is built and initialized like a level of the game, then played for a number of frames - each frame
+ * draws the level on a surface that ignores the drawing, and then ticks it. The bottom of the levels is closed, so
+ * no ball is lost and every frame moves all of them, and the number of balls left at the end is reported to show it.
+ *
+ * <p>Run with {@code ant bench -Dbench=StressLevelBenchmark -Dargs="..."}, with any of "blocks=N,N,..." for the
+ * numbers of blocks, "density=D", "balls=N", "seed=N", "frames=N" and "threads=N" (the threads the balls are moved
+ * with). Levels of a million blocks need a larger heap than the default, which can be given with
+ * {@code -Djvmargs="-Xmx4g"}.
+ */
+public class StressLevelBenchmark {
+    private static final int FPS = 60;
+    private static final int[] DEFAULT_BLOCK_COUNTS = {1000, 10000, 100000, 1000000};
+    private static final double DEFAULT_DENSITY = 0.5;
+    private static final int DEFAULT_BALLS = 100;
+    private static final long DEFAULT_SEED = 42;
+    private static final int DEFAULT_FRAMES = 600;
+    //Frames run before measuring, so the code is compiled by then
+    private static final int WARMUP_FRAMES = 100;
+    private static final double NANOS_IN_SECOND = 1000000000.0;
+    private static final double NANOS_IN_MILLISECOND = 1000000.0;
+    private static final double BYTES_IN_MEGABYTE = 1024 * 1024;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args the settings, see the class documentation
+     */
+    public static void main(String[] args) {
+        int[] blockCounts = DEFAULT_BLOCK_COUNTS;
+        double density = DEFAULT_DENSITY;
+        int balls = DEFAULT_BALLS;
+        long seed = DEFAULT_SEED;
+        int frames = DEFAULT_FRAMES;
+        int threads = 1;
+        for (String arg : args) {
+            try {
+                if (arg.startsWith("blocks=")) {
+                    String[] counts = arg.substring("blocks=".length()).split(",");
+                    blockCounts = new int[counts.length];
+                    for (int i = 0; i < counts.length; i++) {
+                        blockCounts[i] = Integer.parseInt(counts[i]);
+                    }
+                } else if (arg.startsWith("density=")) {
+                    density = Double.parseDouble(arg.substring("density=".length()));
+                } else if (arg.startsWith("balls=")) {
+                    balls = Integer.parseInt(arg.substring("balls=".length()));
+                } else if (arg.startsWith("seed=")) {
+                    seed = Long.parseLong(arg.substring("seed=".length()));
+                } else if (arg.startsWith("frames=")) {
+                    frames = Integer.parseInt(arg.substring("frames=".length()));
+                } else if (arg.startsWith("threads=")) {
+                    threads = Integer.parseInt(arg.substring("threads=".length()));
+                } else {
+                    System.out.println("Warning: ignoring argument " + arg);
+                }
+            } catch (NumberFormatException e) {
+                System.out.println("Warning: ignoring argument " + arg);
+            }
+        }
+
+        System.out.printf("density %.2f, %d balls, seed %d, %d frames, %d threads%n",
+                density, balls, seed, frames, threads);
+        System.out.printf("%9s %11s %9s %9s %10s %10s %10s %10s %13s %7s%n", "blocks", "size", "build ms",
+                "heap MB", "mean ms", "p99 ms", "sim ms", "draw ms", "queries/s", "balls");
+        for (int blocks : blockCounts) {
+            StressLevel level = new StressLevel(blocks, density, balls, seed, FPS);
+            level.setClosedBottom(true);
+            run(level, threads, frames);
+        }
+    }
+
+    private static void run(StressLevel levelInfo, int threads, int frames) {
+        long heapBefore = usedHeap();
+        long buildStart = System.nanoTime();
+        NullDrawSurface surface = new NullDrawSurface(levelInfo.width(), levelInfo.height());
+        HeadlessRunner runner = new HeadlessRunner(FPS, surface, null, 1);
+        GameLevel level = new GameLevel(levelInfo, new ScriptedKeyboard(), runner, new Counter());
+        level.setBallThreads(threads);
+        level.initialize();
+        level.addBalls();
+        double buildMillis = (System.nanoTime() - buildStart) / NANOS_IN_MILLISECOND;
+        long heap = usedHeap() - heapBefore;
+
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            level.render(surface, 1);
+            level.tick();
+        }
+        FrameStats stats = new FrameStats(FPS);
+        long queriesBefore = level.getEnvironment().queries();
+        for (int i = 0; i < frames; i++) {
+            long startTime = System.nanoTime();
+            level.render(surface, 1);
+            long drawnTime = System.nanoTime();
+            level.tick();
+            stats.recordFrame(System.nanoTime() - drawnTime, drawnTime - startTime, 0, 0);
+        }
+        long queries = level.getEnvironment().queries() - queriesBefore;
+
+        Histogram frame = stats.getHistogram(FrameStats.Phase.FRAME);
+        Histogram simulation = stats.getHistogram(FrameStats.Phase.SIMULATION);
+        Histogram drawing = stats.getHistogram(FrameStats.Phase.DRAWING);
+        double simulationSeconds = simulation.getMean() * simulation.getCount() / NANOS_IN_SECOND;
+        System.out.printf("%9d %11s %9.1f %9.1f %10.3f %10.3f %10.3f %10.3f %13.0f %7d%n",
+                levelInfo.numberOfBlocksToRemove(), levelInfo.width() + "x" + levelInfo.height(), buildMillis,
+                heap / BYTES_IN_MEGABYTE, frame.getMean() / NANOS_IN_MILLISECOND,
+                frame.getValueAtPercentile(99) / NANOS_IN_MILLISECOND, simulation.getMean() / NANOS_IN_MILLISECOND,
+                drawing.getMean() / NANOS_IN_MILLISECOND,
+                simulationSeconds == 0 ? 0 : queries / simulationSeconds, level.getRemainingBalls());
+    }
+
+    /**
+     * Returns the heap in use after collecting the garbage.
+     *
+     * @return the used heap, in bytes
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,135 @@
+package game.benchmarks.jmh;
+
+import game.geometry.Point;
+import game.geometry.shapes.Rectangle;
+import game.gui.Ball;
+import game.gui.BallSystem;
+import game.gui.rectangular_objects.Block;
+import game.gui.rectangular_objects.Paddle;
+import game.logic.physics.GameEnvironment;
+import game.logic.physics.Velocity;
+import game.logic.physics.broad_phase.DynamicTree;
+import game.logic.physics.broad_phase.HybridBroadPhase;
+import game.logic.physics.broad_phase.UniformGrid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Color;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures moving balls around a closed box with a few rows of blocks and a paddle, like a level where the blocks
+ * are never removed. The balls bounce forever, so every call does the same kind of work. Moving the balls and the
+ * paddle should not allocate at all.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BallBenchmark {
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 600;
+    private static final double WALL = 20;
+    private static final int ROWS = 6;
+    private static final int COLUMNS = 12;
+    private static final double BLOCK_WIDTH = 50;
+    private static final double BLOCK_HEIGHT = 20;
+    private static final int BALL_RADIUS = 5;
+    private static final double BALL_SPEED = 7;
+    private static final int SYSTEM_BALLS = 1000;
+    private static final double PADDLE_WIDTH = 100;
+    private static final double PADDLE_HEIGHT = 10;
+    private static final double PADDLE_SPEED = 5;
+    private static final long SEED = 42;
+    private GameEnvironment environment;
+    private Paddle paddle;
+    private boolean paddleMovingRight;
+    private Ball ball;
+    private BallSystem system;
+
+    /**
+     * Builds the box and the balls.
+     */
+    @Setup
+    public void setup() {
+        this.environment = new GameEnvironment(new HybridBroadPhase(
+                new UniformGrid(0, 0, WIDTH, HEIGHT, 64), new DynamicTree(16)));
+        this.environment.addCollidable(new Block(new Rectangle(0, 0, WIDTH, WALL)));
+        this.environment.addCollidable(new Block(new Rectangle(0, HEIGHT - WALL, WIDTH, WALL)));
+        this.environment.addCollidable(new Block(new Rectangle(0, 0, WALL, HEIGHT)));
+        this.environment.addCollidable(new Block(new Rectangle(WIDTH - WALL, 0, WALL, HEIGHT)));
+        for (int row = 0; row < ROWS; row++) {
+            for (int column = 0; column < COLUMNS; column++) {
+                this.environment.addCollidable(new Block(new Rectangle(
+                        100 + column * BLOCK_WIDTH, 100 + row * BLOCK_HEIGHT, BLOCK_WIDTH, BLOCK_HEIGHT)));
+            }
+        }
+
+        this.paddle = new Paddle(new Rectangle(WIDTH / 2.0, HEIGHT - WALL - 2 * PADDLE_HEIGHT, PADDLE_WIDTH,
+                PADDLE_HEIGHT), PADDLE_SPEED, Color.YELLOW, null, WALL, WIDTH - WALL);
+        this.environment.addCollidable(this.paddle);
+
+        this.ball = new Ball(new Point(WIDTH / 2.0, HEIGHT - 100), BALL_RADIUS, Color.WHITE,
+                Velocity.fromAngleAndSpeed(30, BALL_SPEED), this.environment);
+        Random rng = new Random(SEED);
+        this.system = new BallSystem(this.environment, SYSTEM_BALLS);
+        for (int i = 0; i < SYSTEM_BALLS; i++) {
+            this.system.addBall(new Point(WALL + BALL_RADIUS + rng.nextDouble() * (WIDTH - 2 * (WALL + BALL_RADIUS)),
+                            HEIGHT - 100 + rng.nextDouble() * 50), BALL_RADIUS, Color.WHITE,
+                    Velocity.fromAngleAndSpeed(rng.nextDouble() * 360, BALL_SPEED));
+        }
+    }
+
+    /**
+     * {@link Ball#moveOneStep()} of a single ball.
+     *
+     * @return the ball
+     */
+    @Benchmark
+    public Ball moveOneStep() {
+        this.ball.moveOneStep();
+        return this.ball;
+    }
+
+    /**
+     * Moves the paddle back and forth between the walls, like {@link Paddle#timePassed()} does when a key is held.
+     *
+     * @return the paddle
+     */
+    @Benchmark
+    public Paddle paddleMove() {
+        if (this.paddleMovingRight) {
+            this.paddle.moveRight();
+        } else {
+            this.paddle.moveLeft();
+        }
+        this.environment.updateCollidable(this.paddle);
+        Rectangle rect = this.paddle.getRect();
+        if (rect.getLeft() <= WALL || rect.getRight() >= WIDTH - WALL) {
+            this.paddleMovingRight = !this.paddleMovingRight;
+        }
+        return this.paddle;
+    }
+
+    /**
+     * {@link BallSystem#moveOneStep()} of {@value #SYSTEM_BALLS} balls.
+     *
+     * @return the ball system
+     */
+    @Benchmark
+    public BallSystem ballSystemStep() {
+        this.system.moveOneStep();
+        return this.system;
+    }
+}
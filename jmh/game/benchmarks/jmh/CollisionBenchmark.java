@@ -0,0 +1,124 @@
+package game.benchmarks.jmh;
+
+import game.geometry.shapes.Line;
+import game.geometry.shapes.Rectangle;
+import game.gui.rectangular_objects.Block;
+import game.logic.physics.CollisionInfo;
+import game.logic.physics.Contact;
+import game.logic.physics.GameEnvironment;
+import game.logic.physics.broad_phase.DynamicTree;
+import game.logic.physics.broad_phase.HybridBroadPhase;
+import game.logic.physics.broad_phase.LinearScan;
+import game.logic.physics.broad_phase.UniformGrid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures finding the closest collision in a level made of a grid of blocks, for several numbers of blocks and
+ * each broad phase. Each call uses the next of a fixed set of random, ball sized steps.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CollisionBenchmark {
+    private static final int STEPS = 1024;
+    private static final double BLOCK_WIDTH = 40;
+    private static final double BLOCK_HEIGHT = 20;
+    private static final double GAP = 10;
+    private static final double CELL_SIZE = 64;
+    private static final double TREE_MARGIN = 16;
+    private static final double STEP_LENGTH = 8;
+    private static final double BALL_RADIUS = 5;
+    private static final long SEED = 42;
+
+    @Param({"10", "100", "1000", "10000"})
+    private int collidables;
+
+    @Param({"linear", "grid", "hybrid"})
+    private String broadPhase;
+
+    private GameEnvironment environment;
+    private Line[] trajectories;
+    private Contact contact;
+    private int index;
+
+    /**
+     * Builds the level and the random steps.
+     */
+    @Setup
+    public void setup() {
+        int perRow = (int) Math.ceil(Math.sqrt(this.collidables));
+        double width = perRow * (BLOCK_WIDTH + GAP) + GAP;
+        double height = perRow * (BLOCK_HEIGHT + GAP) + GAP;
+        switch (this.broadPhase) {
+            case "grid":
+                this.environment = new GameEnvironment(new UniformGrid(0, 0, width, height, CELL_SIZE));
+                break;
+            case "hybrid":
+                this.environment = new GameEnvironment(new HybridBroadPhase(
+                        new UniformGrid(0, 0, width, height, CELL_SIZE), new DynamicTree(TREE_MARGIN)));
+                break;
+            default:
+                this.environment = new GameEnvironment(new LinearScan());
+        }
+        for (int i = 0; i < this.collidables; i++) {
+            double x = GAP + (i % perRow) * (BLOCK_WIDTH + GAP);
+            double y = GAP + (double) (i / perRow) * (BLOCK_HEIGHT + GAP);
+            this.environment.addCollidable(new Block(new Rectangle(x, y, BLOCK_WIDTH, BLOCK_HEIGHT)));
+        }
+
+        Random rng = new Random(SEED);
+        this.trajectories = new Line[STEPS];
+        for (int i = 0; i < STEPS; i++) {
+            double x = rng.nextDouble() * width;
+            double y = rng.nextDouble() * height;
+            double angle = rng.nextDouble() * 2 * Math.PI;
+            this.trajectories[i] = new Line(x, y, x + STEP_LENGTH * Math.cos(angle),
+                    y + STEP_LENGTH * Math.sin(angle));
+        }
+        this.contact = new Contact();
+    }
+
+    private Line next() {
+        this.index = (this.index + 1) & (STEPS - 1);
+        return this.trajectories[this.index];
+    }
+
+    /**
+     * {@link GameEnvironment#getClosestCollision(Line)}, following a point.
+     *
+     * @return the collision
+     */
+    @Benchmark
+    public CollisionInfo getClosestCollision() {
+        return this.environment.getClosestCollision(next());
+    }
+
+    /**
+     * {@link GameEnvironment#getClosestContact}, sweeping a ball.
+     *
+     * @return whether a contact was found
+     */
+    @Benchmark
+    public boolean getClosestContact() {
+        Line step = next();
+        return this.environment.getClosestContact(step.start().getX(), step.start().getY(),
+                step.end().getX() - step.start().getX(), step.end().getY() - step.start().getY(),
+                BALL_RADIUS, this.contact);
+    }
+}
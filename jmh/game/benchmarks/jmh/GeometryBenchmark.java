@@ -0,0 +1,122 @@
+package game.benchmarks.jmh;
+
+import game.geometry.Point;
+import game.geometry.shapes.Line;
+import game.geometry.shapes.Rectangle;
+import game.logic.physics.Contact;
+import game.logic.physics.SweptCircle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the geometry methods collision detection is built on. Each call uses the next of a fixed set of random
+ * lines, so the branches are not always the same.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GeometryBenchmark {
+    private static final int LINES = 1024;
+    private static final long SEED = 42;
+    private static final double RADIUS = 5;
+    private Line[] lines;
+    private Line[] others;
+    private Point[] points;
+    private Rectangle rect;
+    private Contact contact;
+    private int index;
+
+    /**
+     * Creates the random lines and points, around a rectangle in the middle.
+     */
+    @Setup
+    public void setup() {
+        Random rng = new Random(SEED);
+        this.lines = new Line[LINES];
+        this.others = new Line[LINES];
+        this.points = new Point[LINES];
+        for (int i = 0; i < LINES; i++) {
+            this.lines[i] = new Line(rng.nextDouble() * 100, rng.nextDouble() * 100,
+                    rng.nextDouble() * 100, rng.nextDouble() * 100);
+            this.others[i] = new Line(rng.nextDouble() * 100, rng.nextDouble() * 100,
+                    rng.nextDouble() * 100, rng.nextDouble() * 100);
+            this.points[i] = new Point(rng.nextDouble() * 100, rng.nextDouble() * 100);
+        }
+        this.rect = new Rectangle(30, 40, 40, 20);
+        this.contact = new Contact();
+    }
+
+    private int next() {
+        this.index = (this.index + 1) & (LINES - 1);
+        return this.index;
+    }
+
+    /**
+     * {@link Line#intersectionWith(Line)}.
+     *
+     * @return the intersection
+     */
+    @Benchmark
+    public Point intersectionWith() {
+        int i = next();
+        return this.lines[i].intersectionWith(this.others[i]);
+    }
+
+    /**
+     * {@link Line#getOrientation(Point)}.
+     *
+     * @return the orientation
+     */
+    @Benchmark
+    public Line.Orientation getOrientation() {
+        int i = next();
+        return this.lines[i].getOrientation(this.points[i]);
+    }
+
+    /**
+     * {@link Rectangle#intersectionPoints(Line)}.
+     *
+     * @return the intersection points
+     */
+    @Benchmark
+    public Object intersectionPoints() {
+        return this.rect.intersectionPoints(this.lines[next()]);
+    }
+
+    /**
+     * {@link Line#closestIntersectionToStartOfLine(Rectangle)}.
+     *
+     * @return the closest intersection
+     */
+    @Benchmark
+    public Point closestIntersectionToStartOfLine() {
+        return this.lines[next()].closestIntersectionToStartOfLine(this.rect);
+    }
+
+    /**
+     * {@link SweptCircle#firstContact}, sweeping a ball along the line.
+     *
+     * @return whether a contact was found
+     */
+    @Benchmark
+    public boolean sweptCircle() {
+        Line line = this.lines[next()];
+        return SweptCircle.firstContact(line.start().getX(), line.start().getY(),
+                line.end().getX() - line.start().getX(), line.end().getY() - line.start().getY(), RADIUS,
+                this.rect.getLeft(), this.rect.getTop(), this.rect.getRight(), this.rect.getBottom(), this.contact);
+    }
+}
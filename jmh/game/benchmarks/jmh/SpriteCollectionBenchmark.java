@@ -0,0 +1,83 @@
+package game.benchmarks.jmh;
+
+import game.geometry.shapes.Rectangle;
+import game.gui.SpriteCollection;
+import game.gui.rectangular_objects.Block;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a frame in which many blocks break at once, like with many balls: removing a tenth of the sprites in a
+ * random order, then notifying the rest.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SpriteCollectionBenchmark {
+    private static final int REMOVED_PROPORTION = 10;
+    private static final long SEED = 42;
+
+    @Param({"1000", "10000"})
+    private int sprites;
+
+    private Block[] blocks;
+    private int[] removed;
+    private SpriteCollection collection;
+
+    /**
+     * Creates the blocks and chooses which of them are removed.
+     */
+    @Setup(Level.Trial)
+    public void setupBlocks() {
+        this.blocks = new Block[this.sprites];
+        for (int i = 0; i < this.sprites; i++) {
+            this.blocks[i] = new Block(new Rectangle(i % 100 * 8, (double) (i / 100) * 4, 8, 4));
+        }
+        Random rng = new Random(SEED);
+        this.removed = new int[this.sprites / REMOVED_PROPORTION];
+        for (int i = 0; i < this.removed.length; i++) {
+            this.removed[i] = rng.nextInt(this.sprites);
+        }
+    }
+
+    /**
+     * Fills a new collection before every frame.
+     */
+    @Setup(Level.Invocation)
+    public void setupCollection() {
+        this.collection = new SpriteCollection();
+        for (Block block : this.blocks) {
+            this.collection.addSprite(block);
+        }
+    }
+
+    /**
+     * Removes the blocks and notifies the remaining ones.
+     *
+     * @return the collection
+     */
+    @Benchmark
+    public SpriteCollection burstRemoval() {
+        for (int index : this.removed) {
+            this.collection.removeSprite(this.blocks[index]);
+        }
+        this.collection.notifyAllTimePassed();
+        return this.collection;
+    }
+}
@@ -10,14 +10,38 @@ import game.levels.LevelInformation;
 import game.logic.Counter;
 
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class GameFlow {
+    /**
+     * The frames per second the game is drawn at.
+     */
+    public static final int FPS = 60;
+    /**
+     * The ticks per second the game moves at, independently of the frame rate. Levels are made for this rate.
+     */
+    public static final int TICKS_PER_SECOND = 240;
+    /**
+     * The width of the screen.
+     */
+    public static final int WIDTH = 800;
+    /**
+     * The height of the screen.
+     */
+    public static final int HEIGHT = 600;
     private final AnimationRunner runner;
     private final KeyboardSensor keyboard;
     private final int width;
     private final int height;
     private final int fps;
     private final Counter score;
+    private int ballThreads;
+    private boolean ballCollisions;
+    private boolean dirtyRectangles;
+    private boolean prefetchLevels;
 
     public GameFlow(AnimationRunner ar, KeyboardSensor ks, int width, int height, int fps) {
         this.runner = ar;
@@ -26,26 +50,128 @@ public class GameFlow {
         this.height = height;
         this.fps = fps;
         this.score = new Counter();
+        this.ballThreads = 1;
+        this.prefetchLevels = true;
     }
 
+    /**
+     * Sets the number of threads used to move the balls in each level.
+     *
+     * @param threads the number of threads
+     * @see GameLevel#setBallThreads(int)
+     */
+    public void setBallThreads(int threads) {
+        this.ballThreads = threads;
+    }
+
+    /**
+     * Sets whether the balls collide with each other in each level.
+     *
+     * @param ballCollisions whether the balls collide with each other
+     * @see GameLevel#setBallCollisions(boolean)
+     */
+    public void setBallCollisions(boolean ballCollisions) {
+        this.ballCollisions = ballCollisions;
+    }
+
+    /**
+     * Sets whether each level redraws only the parts of the screen that changed since the last frame.
+     *
+     * @param dirtyRectangles whether to redraw only the changed parts
+     * @see GameLevel#setDirtyRectangles(boolean)
+     */
+    public void setDirtyRectangles(boolean dirtyRectangles) {
+        this.dirtyRectangles = dirtyRectangles;
+    }
+
+    /**
+     * Sets whether the next level is prepared on a background thread while the current one is played, so moving on
+     * to it does not wait for its blocks to be created and its background to be drawn. The game plays exactly the
+     * same either way.
+     *
+     * @param prefetchLevels whether to prepare the next level in the background
+     */
+    public void setPrefetchLevels(boolean prefetchLevels) {
+        this.prefetchLevels = prefetchLevels;
+    }
+
+    /**
+     * Returns the score, which is kept across the levels.
+     *
+     * @return the score
+     */
+    public Counter getScore() {
+        return this.score;
+    }
+
+    /**
+     * Creates a level and initializes it, so it is ready to be run.
+     *
+     * @param levelInfo the level
+     * @return the initialized level
+     */
+    private GameLevel prepareLevel(LevelInformation levelInfo) {
+        GameLevel level = new GameLevel(levelInfo,
+                this.keyboard,
+                this.runner,
+                this.score);
+
+        level.setBallThreads(this.ballThreads);
+        level.setBallCollisions(this.ballCollisions);
+        level.setDirtyRectangles(this.dirtyRectangles);
+        level.initialize();
+        return level;
+    }
+
+    /**
+     * Runs the levels one after the other, until one of them is lost.
+     *
+     * <p>If levels are prefetched, each level is prepared on a background thread while the one before it is played.
+     * A level only starts being prepared once the one before it has been prepared, so the levels are still created in
+     * order (and draw the same random numbers). The level being prepared is cancelled if the game is lost.
+     *
+     * @param levels the levels
+     */
     public void runLevels(List<LevelInformation> levels) {
-        // ...
-        for (LevelInformation levelInfo : levels) {
-
-            GameLevel level = new GameLevel(levelInfo,
-                    this.keyboard,
-                    this.runner,
-                    this.score);
-
-            level.initialize();
-            level.run();
-
-            if (!level.won()) {
-                runner.run(new KeyPressStoppableAnimation(
-                        this.keyboard,
-                        KeyboardSensor.SPACE_KEY,
-                        new LoseScreen(this.keyboard, this.width, this.height, this.score, this.fps)));
-                return;
+        ExecutorService prefetcher = null;
+        if (this.prefetchLevels && levels.size() > 1) {
+            prefetcher = Executors.newSingleThreadExecutor(task -> {
+                Thread thread = new Thread(task, "Level prefetcher");
+                //A level that is still being prepared does not keep the game open
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        try {
+            GameLevel next = levels.isEmpty() ? null : this.prepareLevel(levels.get(0));
+            for (int i = 0; i < levels.size(); i++) {
+                GameLevel level = next;
+                Future<GameLevel> prefetched = null;
+                if (prefetcher != null && i + 1 < levels.size()) {
+                    LevelInformation nextInfo = levels.get(i + 1);
+                    prefetched = prefetcher.submit(() -> this.prepareLevel(nextInfo));
+                }
+                level.run();
+
+                if (!level.won()) {
+                    if (prefetched != null) {
+                        prefetched.cancel(true);
+                    }
+                    runner.run(new KeyPressStoppableAnimation(
+                            this.keyboard,
+                            KeyboardSensor.SPACE_KEY,
+                            new LoseScreen(this.keyboard, this.width, this.height, this.score, this.fps)));
+                    return;
+                }
+                if (prefetched != null) {
+                    next = awaitLevel(prefetched);
+                } else if (i + 1 < levels.size()) {
+                    next = this.prepareLevel(levels.get(i + 1));
+                }
+            }
+        } finally {
+            if (prefetcher != null) {
+                prefetcher.shutdownNow();
             }
         }
         runner.run(new KeyPressStoppableAnimation(
@@ -53,4 +179,29 @@ public class GameFlow {
                 KeyboardSensor.SPACE_KEY,
                 new WinScreen(this.keyboard, this.width, this.height, this.score, this.fps)));
     }
+
+    /**
+     * Waits for a level that is prepared in the background.
+     *
+     * @param prefetched the level being prepared
+     * @return the prepared level
+     */
+    private static GameLevel awaitLevel(Future<GameLevel> prefetched) {
+        try {
+            return prefetched.get();
+        } catch (ExecutionException e) {
+            //The level failed the same way it would have failed if it was prepared here
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Could not prepare the next level", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the next level", e);
+        }
+    }
 }
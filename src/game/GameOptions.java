@@ -0,0 +1,271 @@
+package game;
+
+import game.levels.BallStorm;
+import game.levels.LevelInformation;
+import game.levels.level_files.FileLevel;
+import game.levels.level_files.LevelCache;
+import game.levels.lunar.Lunar;
+import game.levels.martian.Martian;
+import game.levels.solar.Solar;
+import game.logic.GameRandom;
+import game.replay.InputLog;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The options a game is started with, shared by the entry points of the game: which levels are played and where
+ * they are read from, ball storm mode, ball collisions, the threads the balls are moved with, dirty rectangles,
+ * recording and replaying, and where the frame stats are written.
+ *
+ * <p>The options are first read from the arguments of the program with {@link #parseArgument(String)}, then
+ * {@link #prepare()} reads the recording that is replayed (whose settings replace the arguments) and chooses the
+ * levels.
+ */
+public class GameOptions {
+    private static final String STORM_ARG = "storm";
+    private static final String THREADS_ARG = "threads";
+    private static final String DIRTY_ARG = "dirty";
+    private static final String COLLIDE_ARG = "collide";
+    private static final String STATS_ARG = "stats";
+    private static final String RECORD_ARG = "record";
+    private static final String REPLAY_ARG = "replay";
+    private static final String LEVELS_ARG = "levels";
+    //The number of balls in ball storm mode, when it is not given
+    private static final int STORM_BALLS = 10000;
+    private static final String DEFAULT_LEVEL_DIRECTORY = "levels";
+    //The number of level files kept parsed - the current level, and the one after it
+    private static final int LEVEL_CACHE_SIZE = 2;
+    //Played when there are no level files
+    private static final int BUILT_IN_LEVELS = 3;
+    private final List<Integer> levelNumbers;
+    private int fps;
+    private int ticksPerSecond;
+    private int stormBalls;
+    private int ballThreads;
+    private boolean dirtyRectangles;
+    private boolean ballCollisions;
+    private String statsFile;
+    private String recordFile;
+    private String replayFile;
+    private String levelDirectory;
+    private InputLog replayLog;
+    private List<LevelInformation> levels;
+
+    /**
+     * Instantiates the default options - every level, read from the level files in the directory "levels", played at
+     * {@link GameFlow#FPS} frames and {@link GameFlow#TICKS_PER_SECOND} ticks per second.
+     */
+    public GameOptions() {
+        this.levelNumbers = new ArrayList<>();
+        this.fps = GameFlow.FPS;
+        this.ticksPerSecond = GameFlow.TICKS_PER_SECOND;
+        this.ballThreads = 1;
+        this.levelDirectory = DEFAULT_LEVEL_DIRECTORY;
+    }
+
+    /**
+     * Reads an option from an argument of the program. The arguments are the numbers of the levels to play, "storm"
+     * (or "storm=number of balls") to play them in ball storm mode, "threads=number of threads" to move the balls
+     * with several threads, "collide" to make the balls collide with each other, "dirty" to redraw only the parts of
+     * the screen that changed, "stats=file" to write the time the phases of the frames took to a CSV (or, if the
+     * file ends with ".json", JSON) file, "record=file" to record the game into a file, "replay=file" to play a
+     * recorded game again (with the levels and settings it was recorded with), and "levels=directory" to read the
+     * level files from a directory other than "levels".
+     *
+     * @param arg the argument
+     * @return whether the argument is a valid option
+     */
+    public boolean parseArgument(String arg) {
+        try {
+            if (arg.startsWith(LEVELS_ARG + "=")) {
+                this.levelDirectory = arg.substring(LEVELS_ARG.length() + 1);
+            } else if (arg.startsWith(RECORD_ARG + "=")) {
+                this.recordFile = arg.substring(RECORD_ARG.length() + 1);
+            } else if (arg.startsWith(REPLAY_ARG + "=")) {
+                this.replayFile = arg.substring(REPLAY_ARG.length() + 1);
+            } else if (arg.startsWith(STATS_ARG + "=")) {
+                this.statsFile = arg.substring(STATS_ARG.length() + 1);
+            } else if (arg.equals(DIRTY_ARG)) {
+                this.dirtyRectangles = true;
+            } else if (arg.equals(COLLIDE_ARG)) {
+                this.ballCollisions = true;
+            } else if (arg.startsWith(THREADS_ARG + "=")) {
+                this.ballThreads = Integer.parseInt(arg.substring(THREADS_ARG.length() + 1));
+            } else if (arg.equals(STORM_ARG)) {
+                this.stormBalls = STORM_BALLS;
+            } else if (arg.startsWith(STORM_ARG + "=")) {
+                this.stormBalls = Integer.parseInt(arg.substring(STORM_ARG.length() + 1));
+            } else {
+                int levelNumber = Integer.parseInt(arg);
+                //The upper end of the range is only known once the levels are listed
+                if (levelNumber < 1) {
+                    return false;
+                }
+                this.levelNumbers.add(levelNumber);
+            }
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Reads the recording that is replayed, if there is one, and starts the random numbers from its seed. Then lists
+     * the level files (only their names are read now), and chooses the levels to play - the levels that were asked
+     * for, or every level if none were. If there are no level files, the built-in levels are played.
+     *
+     * <p>A replay is played with the levels, the settings and the random numbers it was recorded with, and cannot
+     * be played if the level files it was recorded with are missing.
+     *
+     * @return whether the game can be played, otherwise a warning has been printed
+     */
+    public boolean prepare() {
+        if (this.replayFile != null) {
+            try {
+                this.replayLog = InputLog.load(this.replayFile);
+            } catch (IOException e) {
+                System.out.println("Warning: could not read the recording " + this.replayFile + ": " + e.getMessage());
+                return false;
+            }
+            GameRandom.setSeed(this.replayLog.getSeed());
+            this.fps = this.replayLog.getFps();
+            this.ticksPerSecond = this.replayLog.getTicksPerSecond();
+            this.stormBalls = this.replayLog.getStormBalls();
+            this.ballCollisions = this.replayLog.hasBallCollisions();
+            this.levelDirectory = this.replayLog.getLevelDirectory();
+            this.levelNumbers.clear();
+            for (int levelNumber : this.replayLog.getLevels()) {
+                this.levelNumbers.add(levelNumber);
+            }
+        }
+
+        List<LevelInformation> installed = this.levelDirectory == null ? List.of()
+                : FileLevel.fromDirectory(this.levelDirectory, this.ticksPerSecond, new LevelCache(LEVEL_CACHE_SIZE));
+        int numberOfLevels = installed.isEmpty() ? BUILT_IN_LEVELS : installed.size();
+        if (this.replayLog != null && this.levelDirectory != null
+                && this.levelNumbers.stream().anyMatch(levelNumber -> levelNumber > installed.size())) {
+            System.out.println("Warning: the recording " + this.replayFile + " was recorded with the level files in "
+                    + this.levelDirectory + ", which no longer has all of them");
+            return false;
+        }
+        if (this.levelDirectory != null && installed.isEmpty()) {
+            System.out.println("Warning: no level files in " + this.levelDirectory + ", playing the built-in levels");
+            this.levelDirectory = null;
+        }
+        this.levelNumbers.removeIf(levelNumber -> levelNumber > numberOfLevels);
+        if (this.levelNumbers.isEmpty()) {
+            for (int i = 1; i <= numberOfLevels; i++) {
+                this.levelNumbers.add(i);
+            }
+        }
+        this.levels = new ArrayList<>();
+        for (int levelNumber : this.levelNumbers) {
+            LevelInformation level = installed.isEmpty() ? createBuiltInLevel(levelNumber, this.ticksPerSecond)
+                    : installed.get(levelNumber - 1);
+            this.levels.add(this.stormBalls > 0 ? new BallStorm(level, this.stormBalls) : level);
+        }
+        return true;
+    }
+
+    private static LevelInformation createBuiltInLevel(int levelNumber, int ticksPerSecond) {
+        if (levelNumber == 1) {
+            return new Martian(GameFlow.WIDTH, GameFlow.HEIGHT, ticksPerSecond);
+        } else if (levelNumber == 2) {
+            return new Solar(GameFlow.WIDTH, GameFlow.HEIGHT, ticksPerSecond);
+        }
+        return new Lunar(GameFlow.WIDTH, GameFlow.HEIGHT, ticksPerSecond);
+    }
+
+    /**
+     * Sets the options that change how the levels are played on a game flow.
+     *
+     * @param flow the game flow
+     */
+    public void configure(GameFlow flow) {
+        flow.setBallThreads(this.ballThreads);
+        flow.setDirtyRectangles(this.dirtyRectangles);
+        flow.setBallCollisions(this.ballCollisions);
+    }
+
+    /**
+     * Creates an empty log to record the game into, with the current options and seed.
+     *
+     * @param maxStepsPerRun the most steps a single animation is run for, or {@link Long#MAX_VALUE} if the
+     *                       animations run until they end
+     * @return the log
+     */
+    public InputLog newRecording(long maxStepsPerRun) {
+        int[] numbers = this.levelNumbers.stream().mapToInt(Integer::intValue).toArray();
+        return new InputLog(GameRandom.getSeed(), this.fps, this.ticksPerSecond, this.stormBalls,
+                this.ballCollisions, numbers, this.levelDirectory, maxStepsPerRun);
+    }
+
+    /**
+     * Writes a recording to the file given with "record=file", printing a warning if it cannot be written.
+     *
+     * @param recording the recording
+     */
+    public void saveRecording(InputLog recording) {
+        try {
+            recording.save(this.recordFile);
+        } catch (IOException e) {
+            System.out.println("Warning: could not write the recording " + this.recordFile + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the levels to play, once they have been chosen by {@link #prepare()}.
+     *
+     * @return the levels
+     */
+    public List<LevelInformation> getLevels() {
+        return this.levels;
+    }
+
+    /**
+     * Returns the recording that is replayed, once it has been read by {@link #prepare()}.
+     *
+     * @return the recording, or null if no recording is replayed
+     */
+    public InputLog getReplayLog() {
+        return this.replayLog;
+    }
+
+    /**
+     * Returns whether the game should be recorded - a file to record it into was given, and it is not a replay.
+     *
+     * @return whether the game should be recorded
+     */
+    public boolean isRecorded() {
+        return this.recordFile != null && this.replayFile == null;
+    }
+
+    /**
+     * Returns the file to record the game into.
+     *
+     * @return the file, or null if the game is not recorded
+     */
+    public String getRecordFile() {
+        return this.recordFile;
+    }
+
+    /**
+     * Returns the file to write the frame stats to.
+     *
+     * @return the file, or null if the frame stats are not written
+     */
+    public String getStatsFile() {
+        return this.statsFile;
+    }
+
+    /**
+     * Returns the frames per second the game is drawn at.
+     *
+     * @return the frames per second
+     */
+    public int getFps() {
+        return this.fps;
+    }
+}
@@ -2,33 +2,234 @@ package game.animations;
 
 import biuoop.DrawSurface;
 import biuoop.GUI;
-import biuoop.Sleeper;
+import game.animations.frame_stats.FrameStats;
+import game.animations.frame_stats.FrameStatsOverlay;
 
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs animations on a {@link GUI}, drawing at most a given number of frames per second. The frames are paced by a
+ * {@link FramePacer}, so they are evenly spaced.
+ *
+ * <p>A {@link FixedStepAnimation} is advanced at its own fixed rate of ticks per second instead: time is accumulated
+ * between frames, as many ticks as fit in it are run, and the remainder is used to interpolate the drawing. So the
+ * game plays the same whatever the frame rate is.
+ *
+ * <p>Given {@link FrameStats}, the runner also measures the phases of every frame, and can show them on top of it.
+ */
 public class AnimationRunner {
+    private static final StepListener[] NO_LISTENERS = new StepListener[0];
+    private static final long NANOS_IN_SECOND = 1000000000L;
+    //The most time a single frame can catch up on, so a slow frame does not cause even slower ones
+    private static final long MAX_FRAME_NANOS = NANOS_IN_SECOND / 4;
     private GUI gui;
     private int framesPerSecond;
-    private Sleeper sleeper;
+    private int ticksPerSecond;
+    //Counts the animations that were run, to notice when one runs inside another (such as the pause screen)
+    private long runs;
+    private FrameStats frameStats;
+    private FrameStatsOverlay overlay;
+    private final List<StepListener> stepListeners;
+    //A copy of the step listeners, made whenever they change, so notifying them does not copy them again
+    private StepListener[] notifiedListeners;
 
+    /**
+     * Instantiates a new animation runner, which also runs fixed step animations at a tick per frame.
+     *
+     * @param gui the gui
+     * @param fps the frames per second
+     */
     public AnimationRunner(GUI gui, int fps) {
+        this(gui, fps, fps);
+    }
+
+    /**
+     * Instantiates a new animation runner.
+     *
+     * @param gui            the gui
+     * @param fps            the most frames drawn per second
+     * @param ticksPerSecond the ticks per second of fixed step animations
+     */
+    public AnimationRunner(GUI gui, int fps, int ticksPerSecond) {
         this.gui = gui;
         this.framesPerSecond = fps;
-        this.sleeper = new Sleeper();
+        this.ticksPerSecond = ticksPerSecond;
+        this.stepListeners = new ArrayList<>();
+        this.notifiedListeners = NO_LISTENERS;
+    }
+
+    /**
+     * Returns the most frames drawn per second.
+     *
+     * @return the frames per second
+     */
+    public int getFramesPerSecond() {
+        return this.framesPerSecond;
+    }
+
+    /**
+     * Returns the ticks per second of fixed step animations.
+     *
+     * @return the ticks per second
+     */
+    public int getTicksPerSecond() {
+        return this.ticksPerSecond;
+    }
+
+    /**
+     * Adds a listener, which is notified after every step of the animations that are run.
+     *
+     * @param listener the listener
+     */
+    public void addStepListener(StepListener listener) {
+        if (!this.stepListeners.contains(listener)) {
+            this.stepListeners.add(listener);
+            this.notifiedListeners = this.stepListeners.toArray(NO_LISTENERS);
+        }
+    }
+
+    /**
+     * Removes a step listener.
+     *
+     * @param listener the listener
+     */
+    public void removeStepListener(StepListener listener) {
+        if (this.stepListeners.remove(listener)) {
+            this.notifiedListeners = this.stepListeners.toArray(NO_LISTENERS);
+        }
+    }
+
+    /**
+     * Notifies the step listeners that a step has ended.
+     */
+    protected void notifyStepped() {
+        for (StepListener listener : this.notifiedListeners) {
+            listener.stepped();
+        }
+    }
+
+    /**
+     * Sets the statistics the phases of the frames are recorded in.
+     *
+     * @param frameStats the statistics, or null to stop measuring
+     */
+    public void setFrameStats(FrameStats frameStats) {
+        this.frameStats = frameStats;
+        if (this.overlay != null) {
+            this.overlay = frameStats == null ? null : new FrameStatsOverlay(frameStats);
+        }
+    }
+
+    /**
+     * Returns the statistics the phases of the frames are recorded in.
+     *
+     * @return the statistics, or null if the frames are not measured
+     */
+    public FrameStats getFrameStats() {
+        return this.frameStats;
     }
 
-    // ...
+    /**
+     * Sets whether the frame statistics are shown on top of every frame. Showing them starts measuring the frames, if
+     * they are not measured yet.
+     *
+     * @param shown whether the statistics are shown
+     */
+    public void setFrameStatsShown(boolean shown) {
+        if (!shown) {
+            this.overlay = null;
+            return;
+        }
+        if (this.frameStats == null) {
+            this.frameStats = new FrameStats(this.framesPerSecond);
+        }
+        this.overlay = new FrameStatsOverlay(this.frameStats);
+    }
+
+    /**
+     * Draws the frame statistics on the surface, if they are shown.
+     *
+     * @param d the surface
+     */
+    protected void drawFrameStats(DrawSurface d) {
+        if (this.overlay != null) {
+            this.overlay.drawOn(d);
+        }
+    }
+
+    /**
+     * Runs the animation until it should stop.
+     *
+     * @param animation the animation
+     */
     public void run(Animation animation) {
-        int millisecondsPerFrame = 1000 / this.framesPerSecond;
+        this.runs++;
+        if (animation instanceof FixedStepAnimation) {
+            runFixedStep((FixedStepAnimation) animation);
+            return;
+        }
+        FramePacer pacer = new FramePacer(NANOS_IN_SECOND / this.framesPerSecond);
         while (!animation.shouldStop()) {
-            long startTime = System.currentTimeMillis(); // timing
+            long startTime = System.nanoTime(); // timing
             DrawSurface d = gui.getDrawSurface();
 
+            long runsBefore = this.runs;
             animation.doOneFrame(d);
+            this.notifyStepped();
+            this.drawFrameStats(d);
+            long drawnTime = System.nanoTime();
 
             gui.show(d);
-            long usedTime = System.currentTimeMillis() - startTime;
-            long milliSecondLeftToSleep = millisecondsPerFrame - usedTime;
-            if (milliSecondLeftToSleep > 0) {
-                this.sleeper.sleepFor(milliSecondLeftToSleep);
+            long shownTime = System.nanoTime();
+            //Another animation ran meanwhile - its frames are not caught up on
+            if (this.runs != runsBefore) {
+                pacer.restart();
+            }
+            long sleep = pacer.waitForNextFrame();
+            //A frame another animation ran inside is not a frame of this one
+            if (this.frameStats != null && this.runs == runsBefore) {
+                this.frameStats.recordFrame(0, drawnTime - startTime, shownTime - drawnTime, sleep);
+            }
+        }
+    }
+
+    private void runFixedStep(FixedStepAnimation animation) {
+        long nanosPerTick = NANOS_IN_SECOND / this.ticksPerSecond;
+        FramePacer pacer = new FramePacer(NANOS_IN_SECOND / this.framesPerSecond);
+        long accumulator = nanosPerTick;
+        long previousTime = System.nanoTime();
+        while (!animation.shouldStop()) {
+            long startTime = System.nanoTime();
+            accumulator += Math.min(MAX_FRAME_NANOS, startTime - previousTime);
+            previousTime = startTime;
+
+            //Running the ticks the time that has passed requires
+            long runsBefore = this.runs;
+            while (accumulator >= nanosPerTick && !animation.shouldStop()) {
+                animation.tick();
+                this.notifyStepped();
+                accumulator -= nanosPerTick;
+            }
+            //Another animation ran meanwhile - the time it took is not caught up on
+            if (this.runs != runsBefore) {
+                previousTime = System.nanoTime();
+                accumulator = 0;
+                pacer.restart();
+            }
+            long simulatedTime = System.nanoTime();
+
+            DrawSurface d = gui.getDrawSurface();
+            animation.render(d, (double) accumulator / nanosPerTick);
+            this.drawFrameStats(d);
+            long drawnTime = System.nanoTime();
+            gui.show(d);
+            long shownTime = System.nanoTime();
+
+            long sleep = pacer.waitForNextFrame();
+            if (this.frameStats != null && this.runs == runsBefore) {
+                this.frameStats.recordFrame(simulatedTime - startTime, drawnTime - simulatedTime,
+                        shownTime - drawnTime, sleep);
             }
         }
     }
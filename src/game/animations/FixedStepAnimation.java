@@ -0,0 +1,24 @@
+package game.animations;
+
+import biuoop.DrawSurface;
+
+/**
+ * An animation whose state advances in fixed time steps (ticks), independently of how often it is drawn.
+ * {@link AnimationRunner} runs as many ticks as the time that has passed requires, and then renders the animation
+ * once, between the state before the last tick and the current one.
+ */
+public interface FixedStepAnimation extends Animation {
+    /**
+     * Advances the animation by a single fixed time step.
+     */
+    void tick();
+
+    /**
+     * Draws the animation on the given surface, interpolated between the state before the last tick (alpha = 0) and
+     * the current state (alpha = 1).
+     *
+     * @param d     the surface
+     * @param alpha the proportion of the time between the last tick and the next one that has passed
+     */
+    void render(DrawSurface d, double alpha);
+}
@@ -0,0 +1,90 @@
+package game.animations;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Waits for the starts of frames, which are a fixed number of nanoseconds apart.
+ *
+ * <p>The frames are scheduled at absolute deadlines - each one a period after the one before it, rather than a period
+ * after the previous frame happened to end - so waiting too long for one frame is made up for in the next, and the
+ * frame rate does not drift. Most of the wait is spent sleeping, which is only accurate to a fraction of a
+ * millisecond, so the last part of it is spent spinning until the deadline.
+ *
+ * <p>A frame that ends after the next deadline does not wait at all. If it is so late that the next deadline has
+ * passed as well, the schedule starts over from the current time instead of running frames back to back to catch
+ * up.
+ */
+public class FramePacer {
+    //Spinning for this long before a deadline, instead of sleeping through it
+    private static final long SPIN_NANOS = 500000L;
+    private final long nanosPerFrame;
+    private long deadline;
+    private long resyncs;
+
+    /**
+     * Instantiates a new frame pacer, whose first frame starts now.
+     *
+     * @param nanosPerFrame the time between the starts of frames, in nanoseconds
+     */
+    public FramePacer(long nanosPerFrame) {
+        this.nanosPerFrame = nanosPerFrame;
+        this.restart();
+    }
+
+    /**
+     * Starts the schedule over, so the next frame starts a period from now.
+     */
+    public void restart() {
+        this.deadline = System.nanoTime() + this.nanosPerFrame;
+    }
+
+    /**
+     * Waits until the next frame should start.
+     *
+     * @return the time spent waiting, in nanoseconds
+     */
+    public long waitForNextFrame() {
+        long start = System.nanoTime();
+        long remaining = this.deadline - start;
+        if (remaining <= 0) {
+            //More than a whole frame late - the missed frames are dropped rather than caught up on
+            if (-remaining >= this.nanosPerFrame) {
+                this.deadline = start + this.nanosPerFrame;
+                this.resyncs++;
+            } else {
+                this.deadline += this.nanosPerFrame;
+            }
+            return 0;
+        }
+        //Parking may return early, so parking again until only the spinning is left
+        while (remaining > SPIN_NANOS) {
+            LockSupport.parkNanos(remaining - SPIN_NANOS);
+            remaining = this.deadline - System.nanoTime();
+        }
+        long now = System.nanoTime();
+        while (now < this.deadline) {
+            Thread.onSpinWait();
+            now = System.nanoTime();
+        }
+        this.deadline += this.nanosPerFrame;
+        return now - start;
+    }
+
+    /**
+     * Returns the time between the starts of frames.
+     *
+     * @return the time in nanoseconds
+     */
+    public long getNanosPerFrame() {
+        return this.nanosPerFrame;
+    }
+
+    /**
+     * Returns the number of times the schedule started over because a frame was more than a whole frame late.
+     *
+     * @return the number of times
+     */
+    public long getResyncs() {
+        return this.resyncs;
+    }
+}
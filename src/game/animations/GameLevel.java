@@ -4,8 +4,10 @@ import biuoop.DrawSurface;
 import biuoop.KeyboardSensor;
 import game.geometry.Point;
 import game.geometry.shapes.Rectangle;
-import game.gui.Ball;
+import game.gui.BakedBackground;
+import game.gui.BallSystem;
 import game.gui.BlockAdder;
+import game.gui.DirtyRectangleRenderer;
 import game.gui.Sprite;
 import game.gui.SpriteCollection;
 import game.gui.Text;
@@ -17,27 +19,33 @@ import game.logic.Counter;
 import game.logic.physics.Collidable;
 import game.logic.physics.GameEnvironment;
 import game.logic.physics.Velocity;
+import game.logic.physics.broad_phase.DynamicTree;
+import game.logic.physics.broad_phase.HybridBroadPhase;
+import game.logic.physics.broad_phase.UniformGrid;
 import game.logic.physics.hit_event.BallRemover;
 
 import java.awt.Color;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Manages a game of Arkanoid.
  */
-public class GameLevel implements Animation {
+public class GameLevel implements FixedStepAnimation {
     //The smoothness of the animation
 
 
     //Paddle constants
     private static final double PADDLE_HEIGHT = 10;
-    private static final int PADDLE_POS_HEIGHT = 560;
+    //The distance of the top of the paddle from the bottom of the level
+    private static final int PADDLE_BOTTOM_GAP = 40;
 
 
     //Ball constants
     private static final int BALL_SIZE = 5;
     private static final Color BALL_COLOR = Color.WHITE;
-    private static final int BALL_STARTING_Y = PADDLE_POS_HEIGHT - 10;
+    //The distance of the starting point of the balls above the paddle
+    private static final int BALL_STARTING_GAP = 10;
 
 
     private static final Point SCORE_INDICATOR_STARTING_POS = new Point(0, 0);
@@ -45,6 +53,11 @@ public class GameLevel implements Animation {
 
     private static final int CLEAR_LEVEL_SCORE = 100;
 
+    //The size of each cell in the collision grid
+    private static final double GRID_CELL_SIZE = 64;
+    //How far moving collidables can move before the collision tree has to be changed
+    private static final double TREE_MARGIN = 16;
+
 
     public static final int COUNTDOWN_SECONDS = 2;
     public static final int COUNT_FROM = 3;
@@ -56,6 +69,13 @@ public class GameLevel implements Animation {
     private SpriteCollection sprites;
     private GameEnvironment environment;
     private Paddle paddle;
+    private ScoreIndicator scoreIndicator;
+    private BallSystem balls;
+    //The number of threads the balls are moved with
+    private int ballThreads;
+    private boolean ballCollisions;
+    //Draws only what changed since the last frame, or null to draw everything every frame
+    private DirtyRectangleRenderer dirtyRenderer;
     private final Counter remainingBlocks;
     private final Counter remainingBalls;
     private final Counter score;
@@ -63,6 +83,9 @@ public class GameLevel implements Animation {
     private KeyboardSensor keyboard;
     private boolean running;
     private boolean won;
+    //Structural changes made while the sprites are notified, applied together once they all have been notified
+    private final List<Runnable> pendingChanges;
+    private boolean ticking;
 
     /**
      * Instantiates a new Game.
@@ -72,50 +95,146 @@ public class GameLevel implements Animation {
         this.width = levelInfo.width();
         this.height = levelInfo.height();
         this.sprites = new SpriteCollection();
-        this.environment = new GameEnvironment();
+        this.environment = new GameEnvironment(new HybridBroadPhase(
+                new UniformGrid(0, 0, this.width, this.height, GRID_CELL_SIZE),
+                new DynamicTree(TREE_MARGIN)));
         this.remainingBlocks = new Counter();
         this.remainingBalls = new Counter();
         this.score = score;
         this.running = false;
         this.keyboard = keyboard;
         this.runner = runner;
+        this.ballThreads = 1;
+        this.pendingChanges = new ArrayList<>();
+    }
+
+    /**
+     * Sets the number of threads used to move the balls. The game plays exactly the same whatever the number.
+     * Must be called before {@link #addBalls()}.
+     *
+     * @param threads the number of threads
+     * @see BallSystem#setThreads(int)
+     */
+    public void setBallThreads(int threads) {
+        this.ballThreads = threads;
     }
 
     /**
-     * Adds a {@link Collidable} to the game.
+     * Sets whether the balls collide with each other. Must be called before {@link #addBalls()}.
+     *
+     * @param ballCollisions whether the balls collide with each other
+     * @see BallSystem#setBallCollisions(boolean)
+     */
+    public void setBallCollisions(boolean ballCollisions) {
+        this.ballCollisions = ballCollisions;
+    }
+
+    /**
+     * Sets whether only the parts of the screen that changed since the last frame are redrawn.
+     *
+     * @param dirtyRectangles whether to redraw only the changed parts
+     * @see DirtyRectangleRenderer
+     */
+    public void setDirtyRectangles(boolean dirtyRectangles) {
+        this.dirtyRenderer = dirtyRectangles ? new DirtyRectangleRenderer(this.width, this.height) : null;
+    }
+
+    /**
+     * Returns the collidables of the game.
+     *
+     * @return the game environment
+     */
+    public GameEnvironment getEnvironment() {
+        return this.environment;
+    }
+
+    /**
+     * Returns the number of balls that are still in the game.
+     *
+     * @return the number of balls
+     */
+    public int getRemainingBalls() {
+        return this.remainingBalls.getValue();
+    }
+
+    /**
+     * Adds a {@link Collidable} to the game. During a tick, it is only added at the end of the tick.
      *
      * @param c the collidable
      */
     public void addCollidable(Collidable c) {
-        this.environment.addCollidable(c);
+        this.change(() -> this.environment.addCollidable(c));
     }
 
     /**
      * Removes a {@link Collidable} from the game.
      *
+     * <p>Unlike the other changes, it stops colliding at once, even during a tick - so a ball can not hit a block
+     * that another ball has already broken earlier in the same tick. If it was added earlier in the same tick, it is
+     * also removed again at the end of the tick, after it has been added.
+     *
      * @param c the collidable
      */
     public void removeCollidable(Collidable c) {
         this.environment.removeCollidable(c);
+        if (this.ticking) {
+            this.pendingChanges.add(() -> this.environment.removeCollidable(c));
+        }
+    }
+
+    /**
+     * Notifies the game that a {@link Collidable} has moved or changed its size.
+     *
+     * @param c the collidable
+     */
+    public void updateCollidable(Collidable c) {
+        this.environment.updateCollidable(c);
     }
 
 
     /**
-     * Adds a {@link Sprite} to the game.
+     * Adds a {@link Sprite} to the game. During a tick, it is only added at the end of the tick, so it is first
+     * notified on the next tick.
      *
      * @param s the sprite
      */
     public void addSprite(Sprite s) {
-        this.sprites.addSprite(s);
+        this.change(() -> this.sprites.addSprite(s));
     }
 
     /**
-     * Removes a {@link Sprite} from the game.
+     * Removes a {@link Sprite} from the game. During a tick, it is only removed at the end of the tick, so it is
+     * still notified in the current tick if its turn has not come yet.
      *
      * @param s the sprite
      */
     public void removeSprite(Sprite s) {
-        this.sprites.removeSprite(s);
+        this.change(() -> this.sprites.removeSprite(s));
+    }
+
+    /**
+     * Applies a structural change to the game at once, or queues it if the game is in the middle of a tick.
+     *
+     * @param change the change
+     */
+    private void change(Runnable change) {
+        if (this.ticking) {
+            this.pendingChanges.add(change);
+        } else {
+            change.run();
+        }
+    }
+
+    /**
+     * Applies the changes queued during the tick, in the order they were made.
+     */
+    private void applyPendingChanges() {
+        //Changes made while applying are applied at once, since the tick is over
+        this.ticking = false;
+        for (Runnable change : this.pendingChanges) {
+            change.run();
+        }
+        this.pendingChanges.clear();
     }
 
     /**
@@ -123,8 +242,8 @@ public class GameLevel implements Animation {
      * Creates the blocks, balls, the paddle and adds them to the game.
      */
     public void initialize() {
-        //Adding the background
-        this.addSprite(levelInfo.getBackground());
+        //Adding the background, with its static parts drawn in advance
+        this.addSprite(new BakedBackground(levelInfo.getBackground(), this.width, this.height));
 
         //Creating the game objects
         BlockAdder adder = new BlockAdder(this, this.remainingBlocks, this.remainingBalls, this.score);
@@ -134,7 +253,7 @@ public class GameLevel implements Animation {
         //Adding the paddle
         Rectangle paddleRect = new Rectangle(
                 (double) (this.width - levelInfo.paddleWidth()) / 2,
-                PADDLE_POS_HEIGHT,
+                this.height - PADDLE_BOTTOM_GAP,
                 levelInfo.paddleWidth(),
                 PADDLE_HEIGHT);
         this.paddle = new Paddle(
@@ -150,8 +269,8 @@ public class GameLevel implements Animation {
                 SCORE_INDICATOR_STARTING_POS,
                 this.width,
                 SCORE_INDICATOR_HEIGHT);
-        ScoreIndicator scoreIndicator = new ScoreIndicator(scoreIndicRect, this.score);
-        scoreIndicator.addToGame(this);
+        this.scoreIndicator = new ScoreIndicator(scoreIndicRect, this.score);
+        this.scoreIndicator.addToGame(this);
 
         Point levelNamePos = new Point(this.width * ((double) 2 / 3), 0);
         Text levelName = Text.fromRectangle(
@@ -201,17 +320,23 @@ public class GameLevel implements Animation {
      */
     public void addBalls() {
         List<Velocity> velocities = levelInfo.initialBallVelocities();
-        Ball ball;
+        this.balls = new BallSystem(this.environment, velocities.size());
+        this.balls.setThreads(this.ballThreads);
+        this.balls.setBallCollisions(this.ballCollisions);
         for (Velocity velocity : velocities) {
-            Point start = new Point(this.paddle.getMiddleX(), BALL_STARTING_Y);
-            ball = new Ball(start, BALL_SIZE, BALL_COLOR, velocity, this.environment);
-            ball.addToGame(this);
+            Point start = new Point(this.paddle.getMiddleX(), this.height - PADDLE_BOTTOM_GAP - BALL_STARTING_GAP);
+            this.balls.addBall(start, BALL_SIZE, BALL_COLOR, velocity);
         }
+        this.balls.addToGame(this);
         this.remainingBalls.increase(levelInfo.numberOfBalls());
     }
 
-    private void drawAll(DrawSurface d) {
-        this.sprites.drawAllOn(d);
+    private void drawAll(DrawSurface d, double alpha) {
+        if (this.dirtyRenderer != null) {
+            this.dirtyRenderer.render(this.sprites, d, alpha);
+        } else {
+            this.sprites.drawAllOn(d, alpha);
+        }
     }
 
 
@@ -224,10 +349,23 @@ public class GameLevel implements Animation {
         return this.won;
     }
 
+    /**
+     * Draws the game, then advances it by a single tick.
+     *
+     * @param d the surface
+     */
     public void doOneFrame(DrawSurface d) {
-        // the logic from the previous run method goes here.
-        // the `return` or `break` statements should be replaced with
-        // this.running = false;
+        this.render(d, 1);
+        this.tick();
+    }
+
+    /**
+     * Advances the game by a single tick - moves all the sprites and checks whether the level has ended.
+     * Sprites and collidables added or removed while the sprites are moved are only added or removed once all of
+     * them have moved (except for removed collidables, see {@link #removeCollidable(Collidable)}).
+     */
+    @Override
+    public void tick() {
         if (this.remainingBlocks.getValue() == 0) {
             this.score.increase(CLEAR_LEVEL_SCORE);
             this.running = false;
@@ -236,8 +374,9 @@ public class GameLevel implements Animation {
             this.running = false;
             this.won = false;
         }
-        this.drawAll(d);
+        this.ticking = true;
         this.sprites.notifyAllTimePassed();
+        this.applyPendingChanges();
         if (this.keyboard.isPressed("p")) {
             this.runner.run(new KeyPressStoppableAnimation(
                     this.keyboard,
@@ -246,18 +385,33 @@ public class GameLevel implements Animation {
         }
     }
 
+    /**
+     * Draws the game between its state before the last tick and the current one.
+     *
+     * @param d     the surface
+     * @param alpha the proportion between the previous state and the current one
+     */
+    @Override
+    public void render(DrawSurface d, double alpha) {
+        this.drawAll(d, alpha);
+    }
+
     public void run() {
         this.addBalls();
         this.runner.run(new CountdownAnimation(
                 COUNTDOWN_SECONDS,
                 COUNT_FROM,
                 this.sprites,
-                levelInfo.fps(),
+                this.runner.getFramesPerSecond(),
                 levelInfo.width(),
                 levelInfo.height()));
         this.running = true;
         // use our runner to run the current animation -- which is one turn of
         // the game.
         this.runner.run(this);
+        //Releasing the threads of the balls
+        this.balls.setThreads(1);
+        //The score outlives the level, so the score indicator stops listening to it
+        this.scoreIndicator.removeFromGame(this);
     }
 }
@@ -0,0 +1,13 @@
+package game.animations;
+
+/**
+ * Notified by an {@link AnimationRunner} whenever the game advances by a step - a tick of a
+ * {@link FixedStepAnimation}, or a frame of any other animation. A game advances by the same steps however fast it
+ * is drawn, so anything that happens in steps (such as recorded input) plays the same on every runner.
+ */
+public interface StepListener {
+    /**
+     * Called after each step.
+     */
+    void stepped();
+}
@@ -0,0 +1,243 @@
+package game.animations.frame_stats;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * Measures where the time of each frame goes, split into the {@link Phase phases} of a frame, and counts the frames
+ * that took longer than the frame rate allows.
+ *
+ * <p>A frame missed its deadline when its work (everything but sleeping) took longer than a frame, and it is late
+ * when, including the sleep, it ended noticeably later than it should have (so oversleeping counts too). The
+ * measurements can be exported as CSV or JSON once the game ends.
+ */
+public class FrameStats {
+    private static final long NANOS_IN_SECOND = 1000000000L;
+    //A frame is late once it took this many frames' time
+    private static final double LATE_FRAME_RATIO = 1.5;
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private final long frameBudget;
+    private final Histogram[] histograms;
+    private long frames;
+    private long missedDeadlines;
+    private long lateFrames;
+
+    /**
+     * The phases of a frame that are measured.
+     */
+    public enum Phase {
+        /**
+         * Advancing the game (ticks, or the whole frame of animations that are not split into ticks).
+         */
+        SIMULATION,
+        /**
+         * Drawing the frame on the surface.
+         */
+        DRAWING,
+        /**
+         * Showing the drawn surface on the screen.
+         */
+        SHOW,
+        /**
+         * Waiting for the next frame.
+         */
+        SLEEP,
+        /**
+         * The whole frame.
+         */
+        FRAME
+    }
+
+    /**
+     * Instantiates new frame statistics.
+     *
+     * @param fps the frames per second the frames are meant to be run at
+     */
+    public FrameStats(int fps) {
+        this.frameBudget = NANOS_IN_SECOND / fps;
+        this.histograms = new Histogram[Phase.values().length];
+        for (int i = 0; i < this.histograms.length; i++) {
+            this.histograms[i] = new Histogram();
+        }
+    }
+
+    /**
+     * Records the phases of a frame, in nanoseconds.
+     *
+     * @param simulation the time spent advancing the game
+     * @param drawing    the time spent drawing
+     * @param show       the time spent showing the frame
+     * @param sleep      the time spent waiting for the next frame
+     */
+    public void recordFrame(long simulation, long drawing, long show, long sleep) {
+        long work = simulation + drawing + show;
+        long total = work + sleep;
+        this.histograms[Phase.SIMULATION.ordinal()].record(simulation);
+        this.histograms[Phase.DRAWING.ordinal()].record(drawing);
+        this.histograms[Phase.SHOW.ordinal()].record(show);
+        this.histograms[Phase.SLEEP.ordinal()].record(sleep);
+        this.histograms[Phase.FRAME.ordinal()].record(total);
+        this.frames++;
+        if (work > this.frameBudget) {
+            this.missedDeadlines++;
+        }
+        if (total > this.frameBudget * LATE_FRAME_RATIO) {
+            this.lateFrames++;
+        }
+    }
+
+    /**
+     * Removes all the recorded frames.
+     */
+    public void reset() {
+        for (Histogram histogram : this.histograms) {
+            histogram.reset();
+        }
+        this.frames = 0;
+        this.missedDeadlines = 0;
+        this.lateFrames = 0;
+    }
+
+    /**
+     * Returns the times recorded for a phase.
+     *
+     * @param phase the phase
+     * @return the histogram of the times, in nanoseconds
+     */
+    public Histogram getHistogram(Phase phase) {
+        return this.histograms[phase.ordinal()];
+    }
+
+    /**
+     * Returns the time a frame is meant to take.
+     *
+     * @return the time in nanoseconds
+     */
+    public long getFrameBudget() {
+        return this.frameBudget;
+    }
+
+    /**
+     * Returns the number of recorded frames.
+     *
+     * @return the number of frames
+     */
+    public long getFrames() {
+        return this.frames;
+    }
+
+    /**
+     * Returns the number of frames whose work took longer than a frame.
+     *
+     * @return the number of frames
+     */
+    public long getMissedDeadlines() {
+        return this.missedDeadlines;
+    }
+
+    /**
+     * Returns the number of frames that ended noticeably later than they should have.
+     *
+     * @return the number of frames
+     */
+    public long getLateFrames() {
+        return this.lateFrames;
+    }
+
+    /**
+     * Writes the statistics to a file - as JSON if its name ends with ".json", and as CSV otherwise. Prints a warning
+     * if the file cannot be written.
+     *
+     * @param path the path of the file
+     */
+    public void export(String path) {
+        try (Writer writer = new FileWriter(path)) {
+            if (path.toLowerCase(Locale.ROOT).endsWith(".json")) {
+                this.writeJson(writer);
+            } else {
+                this.writeCsv(writer);
+            }
+        } catch (IOException e) {
+            System.out.println("Warning: could not write frame statistics to " + path + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes a summary of every phase as CSV, with a row per phase, followed by a row for each frame counter.
+     *
+     * @param writer the writer
+     * @throws IOException if writing fails
+     */
+    public void writeCsv(Writer writer) throws IOException {
+        writer.write("phase,count,min_ns,mean_ns");
+        for (double percentile : PERCENTILES) {
+            writer.write(",p" + percentileName(percentile) + "_ns");
+        }
+        writer.write(",max_ns\n");
+        for (Phase phase : Phase.values()) {
+            Histogram histogram = this.getHistogram(phase);
+            writer.write(phase.name().toLowerCase(Locale.ROOT) + "," + histogram.getCount() + ","
+                    + histogram.getMin() + "," + Math.round(histogram.getMean()));
+            for (double percentile : PERCENTILES) {
+                writer.write("," + histogram.getValueAtPercentile(percentile));
+            }
+            writer.write("," + histogram.getMax() + "\n");
+        }
+        writer.write("frames," + this.frames + "\n");
+        writer.write("frame_budget_ns," + this.frameBudget + "\n");
+        writer.write("missed_deadlines," + this.missedDeadlines + "\n");
+        writer.write("late_frames," + this.lateFrames + "\n");
+    }
+
+    /**
+     * Writes the statistics as JSON - the frame counters, and a summary and the non-empty buckets of every phase.
+     *
+     * @param writer the writer
+     * @throws IOException if writing fails
+     */
+    public void writeJson(Writer writer) throws IOException {
+        writer.write("{\n");
+        writer.write("  \"frames\": " + this.frames + ",\n");
+        writer.write("  \"frameBudgetNanos\": " + this.frameBudget + ",\n");
+        writer.write("  \"missedDeadlines\": " + this.missedDeadlines + ",\n");
+        writer.write("  \"lateFrames\": " + this.lateFrames + ",\n");
+        writer.write("  \"phases\": {\n");
+        Phase[] phases = Phase.values();
+        for (int i = 0; i < phases.length; i++) {
+            Histogram histogram = this.getHistogram(phases[i]);
+            writer.write("    \"" + phases[i].name().toLowerCase(Locale.ROOT) + "\": {\n");
+            writer.write("      \"count\": " + histogram.getCount() + ",\n");
+            writer.write("      \"minNanos\": " + histogram.getMin() + ",\n");
+            writer.write("      \"meanNanos\": " + Math.round(histogram.getMean()) + ",\n");
+            for (double percentile : PERCENTILES) {
+                writer.write("      \"p" + percentileName(percentile) + "Nanos\": "
+                        + histogram.getValueAtPercentile(percentile) + ",\n");
+            }
+            writer.write("      \"maxNanos\": " + histogram.getMax() + ",\n");
+            //Each bucket as [its smallest value, the number of values in it]
+            writer.write("      \"buckets\": [");
+            boolean first = true;
+            for (int bucket = 0; bucket < histogram.getNumberOfBuckets(); bucket++) {
+                long count = histogram.getBucketCount(bucket);
+                if (count > 0) {
+                    writer.write((first ? "" : ", ") + "[" + histogram.getBucketLowestValue(bucket) + ", " + count
+                            + "]");
+                    first = false;
+                }
+            }
+            writer.write("]\n");
+            writer.write("    }" + (i < phases.length - 1 ? "," : "") + "\n");
+        }
+        writer.write("  }\n");
+        writer.write("}\n");
+    }
+
+    //99.9 is written as 999, like in p999
+    private static String percentileName(double percentile) {
+        String name = percentile == Math.rint(percentile) ? Long.toString((long) percentile)
+                : Double.toString(percentile);
+        return name.replace(".", "");
+    }
+}
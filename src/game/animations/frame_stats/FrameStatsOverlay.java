@@ -0,0 +1,71 @@
+package game.animations.frame_stats;
+
+import biuoop.DrawSurface;
+
+import java.awt.Color;
+import java.util.Locale;
+
+/**
+ * Shows the {@link FrameStats} of the frames so far on top of the screen: the median and worst recent times of each
+ * phase, and how many frames missed their deadline. The text is only updated every few frames, so it can be read.
+ */
+public class FrameStatsOverlay {
+    //Updating the text every this many frames
+    private static final int UPDATE_PERIOD = 30;
+    private static final double NANOS_IN_MILLISECOND = 1000000.0;
+    private static final int X = 10;
+    private static final int Y = 30;
+    private static final int FONT_SIZE = 12;
+    private static final int LINE_HEIGHT = 15;
+    private static final int WIDTH = 330;
+    private static final int PADDING = 4;
+    private static final FrameStats.Phase[] PHASES = {
+            FrameStats.Phase.SIMULATION, FrameStats.Phase.DRAWING, FrameStats.Phase.SHOW, FrameStats.Phase.FRAME
+    };
+    private final FrameStats stats;
+    private final String[] lines;
+    private int framesSinceUpdate;
+
+    /**
+     * Instantiates a new overlay.
+     *
+     * @param stats the statistics to show
+     */
+    public FrameStatsOverlay(FrameStats stats) {
+        this.stats = stats;
+        this.lines = new String[PHASES.length + 1];
+        this.update();
+    }
+
+    private void update() {
+        for (int i = 0; i < PHASES.length; i++) {
+            Histogram histogram = this.stats.getHistogram(PHASES[i]);
+            this.lines[i] = String.format("%-10s p50 %6.2f  p99 %6.2f  max %6.2f ms",
+                    PHASES[i].name().toLowerCase(Locale.ROOT),
+                    histogram.getValueAtPercentile(50) / NANOS_IN_MILLISECOND,
+                    histogram.getValueAtPercentile(99) / NANOS_IN_MILLISECOND,
+                    histogram.getMax() / NANOS_IN_MILLISECOND);
+        }
+        this.lines[PHASES.length] = String.format("frames %d  missed %d  late %d", this.stats.getFrames(),
+                this.stats.getMissedDeadlines(), this.stats.getLateFrames());
+    }
+
+    /**
+     * Draws the overlay.
+     *
+     * @param d the surface
+     */
+    public void drawOn(DrawSurface d) {
+        this.framesSinceUpdate++;
+        if (this.framesSinceUpdate >= UPDATE_PERIOD) {
+            this.framesSinceUpdate = 0;
+            this.update();
+        }
+        d.setColor(Color.BLACK);
+        d.fillRectangle(X - PADDING, Y - FONT_SIZE - PADDING, WIDTH, LINE_HEIGHT * this.lines.length + PADDING);
+        d.setColor(Color.WHITE);
+        for (int i = 0; i < this.lines.length; i++) {
+            d.drawText(X, Y + i * LINE_HEIGHT, this.lines[i], FONT_SIZE);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package game.animations.frame_stats;
+
+import java.util.Arrays;
+
+/**
+ * A histogram of non-negative values (such as durations in nanoseconds), in the style of HdrHistogram.
+ *
+ * <p>Values are counted in buckets whose width grows with the values: every power of two is split into
+ * {@link #SUB_BUCKETS} buckets of equal width, so any value is known to within about 3%, whatever its magnitude.
+ * Recording a value is a few bit operations on a fixed array, so it never allocates.
+ */
+public class Histogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    //The number of buckets every power of two is split into
+    public static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int NUMBER_OF_BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    private static final double PERCENT = 100;
+    private final long[] counts;
+    private long count;
+    private long total;
+    private long min;
+    private long max;
+
+    /**
+     * Instantiates a new empty histogram.
+     */
+    public Histogram() {
+        this.counts = new long[NUMBER_OF_BUCKETS];
+        this.reset();
+    }
+
+    /**
+     * Removes all the recorded values.
+     */
+    public void reset() {
+        Arrays.fill(this.counts, 0);
+        this.count = 0;
+        this.total = 0;
+        this.min = Long.MAX_VALUE;
+        this.max = 0;
+    }
+
+    /**
+     * Records a value. Negative values are recorded as 0.
+     *
+     * @param value the value
+     */
+    public void record(long value) {
+        value = Math.max(0, value);
+        this.counts[bucketOf(value)]++;
+        this.count++;
+        this.total += value;
+        this.min = Math.min(this.min, value);
+        this.max = Math.max(this.max, value);
+    }
+
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int highestBit = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = highestBit - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Returns the smallest value of a bucket.
+     *
+     * @param bucket the bucket
+     * @return the smallest value
+     */
+    private static long lowestValueOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+    }
+
+    /**
+     * Returns the width of a bucket.
+     *
+     * @param bucket the bucket
+     * @return the width
+     */
+    private static long widthOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return 1;
+        }
+        return 1L << (bucket / SUB_BUCKETS - 1);
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the number of values
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Returns the smallest recorded value, or 0 if there are none.
+     *
+     * @return the smallest value
+     */
+    public long getMin() {
+        return this.count == 0 ? 0 : this.min;
+    }
+
+    /**
+     * Returns the largest recorded value, or 0 if there are none.
+     *
+     * @return the largest value
+     */
+    public long getMax() {
+        return this.max;
+    }
+
+    /**
+     * Returns the average of the recorded values, or 0 if there are none.
+     *
+     * @return the average
+     */
+    public double getMean() {
+        return this.count == 0 ? 0 : (double) this.total / this.count;
+    }
+
+    /**
+     * Returns the value that the given percentage of the recorded values are at or below (to within the width of
+     * its bucket), or 0 if there are none.
+     *
+     * @param percentile the percentage, between 0 and 100
+     * @return the value
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (this.count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / PERCENT * this.count));
+        long seen = 0;
+        for (int bucket = 0; bucket < NUMBER_OF_BUCKETS; bucket++) {
+            seen += this.counts[bucket];
+            if (seen >= rank) {
+                //The middle of the bucket, but never beyond the values that were actually recorded
+                long value = lowestValueOf(bucket) + widthOf(bucket) / 2;
+                return Math.max(this.getMin(), Math.min(this.max, value));
+            }
+        }
+        return this.max;
+    }
+
+    /**
+     * Returns the number of buckets values are counted in.
+     *
+     * @return the number of buckets
+     */
+    public int getNumberOfBuckets() {
+        return NUMBER_OF_BUCKETS;
+    }
+
+    /**
+     * Returns the number of recorded values in a bucket.
+     *
+     * @param bucket the bucket, between 0 and {@link #getNumberOfBuckets()} (exclusive)
+     * @return the number of values
+     */
+    public long getBucketCount(int bucket) {
+        return this.counts[bucket];
+    }
+
+    /**
+     * Returns the smallest value counted in a bucket.
+     *
+     * @param bucket the bucket, between 0 and {@link #getNumberOfBuckets()} (exclusive)
+     * @return the smallest value
+     */
+    public long getBucketLowestValue(int bucket) {
+        return lowestValueOf(bucket);
+    }
+}
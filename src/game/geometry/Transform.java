@@ -0,0 +1,143 @@
+package game.geometry;
+
+/**
+ * A transformation of the plane made of a uniform scale followed by a translation - it maps (x, y) to
+ * (scale * x + dx, scale * y + dy).
+ *
+ * <p>It is mutable, so the same instance can be changed and passed down every frame without allocating, instead of
+ * creating moved or scaled copies of sprites.
+ */
+public class Transform {
+    private double scale;
+    private double dx;
+    private double dy;
+
+    /**
+     * Instantiates a new identity transform, which does not move anything.
+     */
+    public Transform() {
+        this.setIdentity();
+    }
+
+    /**
+     * Resets the transform to the identity.
+     */
+    public void setIdentity() {
+        this.scale = 1;
+        this.dx = 0;
+        this.dy = 0;
+    }
+
+    /**
+     * Copies another transform into this one.
+     *
+     * @param other the other transform
+     */
+    public void set(Transform other) {
+        this.scale = other.scale;
+        this.dx = other.dx;
+        this.dy = other.dy;
+    }
+
+    /**
+     * Sets this transform to applying the inner transform and then the outer one.
+     *
+     * @param outer the transform applied last
+     * @param inner the transform applied first
+     */
+    public void setCombined(Transform outer, Transform inner) {
+        double newScale = outer.scale * inner.scale;
+        double newDx = outer.scale * inner.dx + outer.dx;
+        double newDy = outer.scale * inner.dy + outer.dy;
+        this.scale = newScale;
+        this.dx = newDx;
+        this.dy = newDy;
+    }
+
+    /**
+     * Moves everything by the given distances, after the current transform.
+     *
+     * @param x the distance across the x-axis
+     * @param y the distance across the y-axis
+     */
+    public void translate(double x, double y) {
+        this.dx += x;
+        this.dy += y;
+    }
+
+    /**
+     * Scales everything by the given factor around the given point, after the current transform.
+     * Matches {@link game.geometry.shapes.Line#getPointFromProportions(double)}, which the sprites are scaled with.
+     *
+     * @param factor  the scale factor
+     * @param centerX the x coordinate of the center of the scale
+     * @param centerY the y coordinate of the center of the scale
+     */
+    public void scale(double factor, double centerX, double centerY) {
+        this.scale *= factor;
+        this.dx = this.dx * factor + centerX * (1 - factor);
+        this.dy = this.dy * factor + centerY * (1 - factor);
+    }
+
+    /**
+     * Returns the transformed x coordinate.
+     *
+     * @param x the x coordinate
+     * @return the transformed x coordinate
+     */
+    public double applyX(double x) {
+        return this.scale * x + this.dx;
+    }
+
+    /**
+     * Returns the transformed y coordinate.
+     *
+     * @param y the y coordinate
+     * @return the transformed y coordinate
+     */
+    public double applyY(double y) {
+        return this.scale * y + this.dy;
+    }
+
+    /**
+     * Returns the transformed length (like a width or a radius), which is only affected by the scale.
+     *
+     * @param length the length
+     * @return the transformed length
+     */
+    public double applyLength(double length) {
+        return this.scale * length;
+    }
+
+    /**
+     * Returns the scale factor.
+     *
+     * @return the scale factor
+     */
+    public double getScale() {
+        return this.scale;
+    }
+
+    /**
+     * Returns the distance across the x-axis, after scaling.
+     *
+     * @return the distance
+     */
+    public double getDx() {
+        return this.dx;
+    }
+
+    /**
+     * Returns the distance across the y-axis, after scaling.
+     *
+     * @return the distance
+     */
+    public double getDy() {
+        return this.dy;
+    }
+
+    @Override
+    public String toString() {
+        return "Transform => Scale: " + this.scale + ", Translation: <" + this.dx + ", " + this.dy + ">";
+    }
+}
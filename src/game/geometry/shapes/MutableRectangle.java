@@ -0,0 +1,50 @@
+package game.geometry.shapes;
+
+/**
+ * A rectangle that can be moved in place.
+ *
+ * <p>Used for collidables that move every frame, like the paddle, so moving them does not create a new rectangle
+ * with new points and lines. The methods inherited from {@link Rectangle}, like {@link #moveX(double)}, still return
+ * new immutable rectangles.
+ */
+public class MutableRectangle extends Rectangle {
+    /**
+     * Instantiates a new mutable rectangle from the coordinates of upper left point, the width and height.
+     *
+     * @param x      the x coordinate
+     * @param y      the y coordinate
+     * @param width  the width
+     * @param height the height
+     */
+    public MutableRectangle(double x, double y, double width, double height) {
+        super(x, y, width, height);
+    }
+
+    /**
+     * Instantiates a new mutable rectangle with the location and size of another rectangle.
+     *
+     * @param rect the other rectangle
+     */
+    public MutableRectangle(Rectangle rect) {
+        this(rect.getLeft(), rect.getTop(), rect.getWidth(), rect.getHeight());
+    }
+
+    /**
+     * Sets the location and size of the rectangle to those of another rectangle.
+     *
+     * @param rect the other rectangle
+     */
+    public void setTo(Rectangle rect) {
+        super.setBounds(rect.getLeft(), rect.getTop(), rect.getWidth(), rect.getHeight());
+    }
+
+    /**
+     * Moves the rectangle by the given distances.
+     *
+     * @param dx the change in x
+     * @param dy the change in y
+     */
+    public void moveBy(double dx, double dy) {
+        super.setBounds(getLeft() + dx, getTop() + dy, getWidth(), getHeight());
+    }
+}
@@ -9,24 +9,20 @@ import java.util.ArrayList;
  * A rectangle shape.
  */
 public class Rectangle {
-    //Line types translations from int
-    private static final int UPPER = 0;
-    private static final int LEFT = 1;
-    private static final int RIGHT = 2;
-    private static final int LOWER = 3;
-
-    //Point types translations from int
-    private static final int UPPER_LEFT = 0;
-    private static final int UPPER_RIGHT = 1;
-    private static final int LOWER_LEFT = 2;
-    private static final int LOWER_RIGHT = 3;
-
-
-    private final Point upperLeft;
-    private final double width;
-    private final double height;
-    private final Point[] points;
-    private final Line[] lines;
+    private double x;
+    private double y;
+    private double width;
+    private double height;
+
+    //The points and lines are only created the first time they are needed
+    private Point upperLeft;
+    private Point upperRight;
+    private Point lowerLeft;
+    private Point lowerRight;
+    private Line upperLine;
+    private Line leftLine;
+    private Line rightLine;
+    private Line lowerLine;
 
 
     /**
@@ -38,24 +34,7 @@ public class Rectangle {
      */
 // Create a new rectangle with location and width/height.
     public Rectangle(Point upperLeft, double width, double height) {
-        double x = upperLeft.getX();
-        double y = upperLeft.getY();
-
-        //Fixing awkward values
-        if (width < 0) {
-            x += width;
-            width *= -1;
-        }
-        if (height < 0) {
-            y += height;
-            height *= -1;
-        }
-
-        this.upperLeft = new Point(x, y);
-        this.width = width;
-        this.height = height;
-        this.points = this.getPoints();
-        this.lines = this.getLines();
+        this.setBounds(upperLeft.getX(), upperLeft.getY(), width, height);
     }
 
     /**
@@ -79,7 +58,41 @@ public class Rectangle {
      * @see #Rectangle(Point upperLeft, double width, double height)
      */
     public Rectangle(double x, double y, double width, double height) {
-        this(new Point(x, y), width, height);
+        this.setBounds(x, y, width, height);
+    }
+
+    /**
+     * Sets the location and size of the rectangle, and forgets the points and lines created for the old ones.
+     * Only used while constructing, and by {@link MutableRectangle}.
+     *
+     * @param x      the x coordinate of the upper left point
+     * @param y      the y coordinate of the upper left point
+     * @param width  the width
+     * @param height the height
+     */
+    protected final void setBounds(double x, double y, double width, double height) {
+        //Fixing awkward values
+        if (width < 0) {
+            x += width;
+            width *= -1;
+        }
+        if (height < 0) {
+            y += height;
+            height *= -1;
+        }
+
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.upperLeft = null;
+        this.upperRight = null;
+        this.lowerLeft = null;
+        this.lowerRight = null;
+        this.upperLine = null;
+        this.leftLine = null;
+        this.rightLine = null;
+        this.lowerLine = null;
     }
 
 
@@ -94,12 +107,10 @@ public class Rectangle {
         java.util.List<Point> list = new ArrayList<>();
 
         //Checking intersections with each rectangle line and adding them to the list
-        for (Line rectLine : this.lines) {
-            Point intersection = line.intersectionWith(rectLine);
-            if (intersection != null) {
-                list.add(intersection);
-            }
-        }
+        addIntersection(list, line, this.getUpperLine());
+        addIntersection(list, line, this.getLeftLine());
+        addIntersection(list, line, this.getRightLine());
+        addIntersection(list, line, this.getLowerLine());
 
         //Removing duplicates
         for (int i = 0; i < list.size() - 1; i++) {
@@ -120,40 +131,11 @@ public class Rectangle {
         return list;
     }
 
-    /**
-     * Returns an array of the 4 points of the rectangle.
-     *
-     * @return the array of 4 points
-     */
-    private Point[] getPoints() {
-        //Initializing the array
-        Point[] points = new Point[4];
-
-        //Computing the points
-        points[UPPER_LEFT] = this.upperLeft;
-        points[UPPER_RIGHT] = new Point(this.upperLeft.getX() + this.width, this.upperLeft.getY());
-        points[LOWER_LEFT] = new Point(this.upperLeft.getX(), this.upperLeft.getY() + this.height);
-        points[LOWER_RIGHT] = new Point(points[1].getX(), points[2].getY());
-
-        return points;
-    }
-
-    /**
-     * Returns an array of the 4 lines of the rectangle.
-     *
-     * @return the array of the lines
-     */
-    private Line[] getLines() {
-        //Initializing the array
-        Line[] lines = new Line[4];
-
-        //Generating the lines
-        lines[UPPER] = new Line(this.points[UPPER_LEFT], this.points[UPPER_RIGHT]);
-        lines[LEFT] = new Line(this.points[UPPER_LEFT], this.points[LOWER_LEFT]);
-        lines[RIGHT] = new Line(this.points[UPPER_RIGHT], this.points[LOWER_RIGHT]);
-        lines[LOWER] = new Line(this.points[LOWER_LEFT], this.points[LOWER_RIGHT]);
-
-        return lines;
+    private static void addIntersection(java.util.List<Point> list, Line line, Line rectLine) {
+        Point intersection = line.intersectionWith(rectLine);
+        if (intersection != null) {
+            list.add(intersection);
+        }
     }
 
     /**
@@ -180,7 +162,7 @@ public class Rectangle {
      * @return the y coordinate
      */
     public double getTop() {
-        return this.upperLeft.getY();
+        return this.y;
     }
 
     /**
@@ -189,7 +171,7 @@ public class Rectangle {
      * @return the x coordinate
      */
     public double getLeft() {
-        return this.upperLeft.getX();
+        return this.x;
     }
 
     /**
@@ -216,6 +198,9 @@ public class Rectangle {
      * @return the point
      */
     public Point getUpperLeft() {
+        if (this.upperLeft == null) {
+            this.upperLeft = new Point(this.getLeft(), this.getTop());
+        }
         return this.upperLeft;
     }
 
@@ -225,7 +210,10 @@ public class Rectangle {
      * @return the point
      */
     public Point getUpperRight() {
-        return this.points[UPPER_RIGHT];
+        if (this.upperRight == null) {
+            this.upperRight = new Point(this.getRight(), this.getTop());
+        }
+        return this.upperRight;
     }
 
     /**
@@ -234,7 +222,10 @@ public class Rectangle {
      * @return the point
      */
     public Point getLowerLeft() {
-        return this.points[LOWER_LEFT];
+        if (this.lowerLeft == null) {
+            this.lowerLeft = new Point(this.getLeft(), this.getBottom());
+        }
+        return this.lowerLeft;
     }
 
     /**
@@ -243,7 +234,10 @@ public class Rectangle {
      * @return the point
      */
     public Point getLowerRight() {
-        return this.points[LOWER_RIGHT];
+        if (this.lowerRight == null) {
+            this.lowerRight = new Point(this.getRight(), this.getBottom());
+        }
+        return this.lowerRight;
     }
 
     /**
@@ -252,7 +246,10 @@ public class Rectangle {
      * @return the upper line
      */
     public Line getUpperLine() {
-        return this.lines[UPPER];
+        if (this.upperLine == null) {
+            this.upperLine = new Line(this.getUpperLeft(), this.getUpperRight());
+        }
+        return this.upperLine;
     }
 
     /**
@@ -261,7 +258,10 @@ public class Rectangle {
      * @return the left line
      */
     public Line getLeftLine() {
-        return this.lines[LEFT];
+        if (this.leftLine == null) {
+            this.leftLine = new Line(this.getUpperLeft(), this.getLowerLeft());
+        }
+        return this.leftLine;
     }
 
     /**
@@ -270,7 +270,10 @@ public class Rectangle {
      * @return the right line
      */
     public Line getRightLine() {
-        return this.lines[RIGHT];
+        if (this.rightLine == null) {
+            this.rightLine = new Line(this.getUpperRight(), this.getLowerRight());
+        }
+        return this.rightLine;
     }
 
     /**
@@ -279,7 +282,10 @@ public class Rectangle {
      * @return the lower line
      */
     public Line getLowerLine() {
-        return this.lines[LOWER];
+        if (this.lowerLine == null) {
+            this.lowerLine = new Line(this.getLowerLeft(), this.getLowerRight());
+        }
+        return this.lowerLine;
     }
 
     /**
@@ -299,7 +305,7 @@ public class Rectangle {
      * @return the scaled rectangle
      */
     public Rectangle scale(double factor, Point p) {
-        Point newPoint = new Line(this.upperLeft, p).getPointFromProportions(factor);
+        Point newPoint = new Line(this.getUpperLeft(), p).getPointFromProportions(factor);
         return new Rectangle(newPoint, width * factor, height * factor);
     }
 
@@ -334,17 +340,17 @@ public class Rectangle {
      * @return the new rectangle
      */
     public Rectangle moveX(double x) {
-        return new Rectangle(this.upperLeft.moveX(x), this.width, this.height);
+        return new Rectangle(this.x + x, this.y, this.width, this.height);
     }
 
     public Rectangle moveY(double y) {
-        return new Rectangle(this.upperLeft.moveY(y), this.width, this.height);
+        return new Rectangle(this.x, this.y + y, this.width, this.height);
 
     }
 
     @Override
     public String toString() {
-        return this.upperLeft + " width: " + this.width + " height: " + this.height;
+        return this.getUpperLeft() + " width: " + this.width + " height: " + this.height;
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,161 @@
+package game.gui;
+
+import biuoop.DrawSurface;
+import game.geometry.Point;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A background whose static parts are drawn once into images, which are then drawn with a single call every frame.
+ *
+ * <p>The background is split (through {@link MultiSprite}s) into its sprites, in drawing order. Each run of
+ * consecutive {@link Sprite#isStatic() static} sprites is drawn into one image, while the other sprites are drawn
+ * as usual between the images. So the background looks exactly the same, but a background that is mostly static
+ * costs a few draw calls a frame instead of one for every shape.
+ *
+ * <p>An image takes four bytes for every pixel, so the background of a level larger than {@link #MAX_BAKED_PIXELS}
+ * is not drawn into images, and is drawn as usual instead.
+ */
+public class BakedBackground implements Sprite {
+    //The most pixels drawn into the images of a background (64 MB of images)
+    public static final long MAX_BAKED_PIXELS = 4096L * 4096L;
+    private final Sprite background;
+    //In drawing order - each layer is either an image or a sprite that is drawn as usual
+    private final List<BufferedImage> images;
+    private final List<Sprite> liveSprites;
+
+    /**
+     * Instantiates a new baked background, and draws its static sprites into images.
+     *
+     * @param background the background
+     * @param width      the width of the screen
+     * @param height     the height of the screen
+     */
+    public BakedBackground(Sprite background, int width, int height) {
+        this.background = background;
+        this.images = new ArrayList<>();
+        this.liveSprites = new ArrayList<>();
+
+        if ((long) width * height > MAX_BAKED_PIXELS) {
+            this.addLayer(null, background);
+            return;
+        }
+        List<Sprite> sprites = new ArrayList<>();
+        flatten(background, sprites);
+        ImageDrawSurface layer = null;
+        for (Sprite sprite : sprites) {
+            if (sprite.isStatic()) {
+                if (layer == null) {
+                    layer = new ImageDrawSurface(width, height);
+                }
+                sprite.drawOn(layer);
+            } else {
+                if (layer != null) {
+                    this.addLayer(layer.finish(), null);
+                    layer = null;
+                }
+                this.addLayer(null, sprite);
+            }
+        }
+        if (layer != null) {
+            this.addLayer(layer.finish(), null);
+        }
+    }
+
+    private static void flatten(Sprite sprite, List<Sprite> sprites) {
+        if (sprite instanceof MultiSprite && !sprite.isStatic()) {
+            for (Sprite child : ((MultiSprite) sprite).getSprites()) {
+                flatten(child, sprites);
+            }
+        } else {
+            sprites.add(sprite);
+        }
+    }
+
+    private void addLayer(BufferedImage image, Sprite sprite) {
+        this.images.add(image);
+        this.liveSprites.add(sprite);
+    }
+
+    /**
+     * Returns the number of layers that are drawn every frame - images and sprites that are not static.
+     *
+     * @return the number of layers
+     */
+    public int getNumberOfLayers() {
+        return this.images.size();
+    }
+
+    @Override
+    public void drawOn(DrawSurface d) {
+        for (int i = 0; i < this.images.size(); i++) {
+            BufferedImage image = this.images.get(i);
+            if (image != null) {
+                d.drawImage(0, 0, image);
+            } else {
+                this.liveSprites.get(i).drawOn(d);
+            }
+        }
+    }
+
+    @Override
+    public void drawOn(DrawSurface d, double alpha) {
+        for (int i = 0; i < this.images.size(); i++) {
+            BufferedImage image = this.images.get(i);
+            if (image != null) {
+                d.drawImage(0, 0, image);
+            } else {
+                this.liveSprites.get(i).drawOn(d, alpha);
+            }
+        }
+    }
+
+    /**
+     * Notifies the sprites that are not static. The static ones do not change as time passes.
+     */
+    @Override
+    public void timePassed() {
+        for (Sprite sprite : this.liveSprites) {
+            if (sprite != null) {
+                sprite.timePassed();
+            }
+        }
+    }
+
+    @Override
+    public boolean isStatic() {
+        return this.background.isStatic();
+    }
+
+    @Override
+    public Sprite getCurrentSpriteFrame() {
+        return this;
+    }
+
+    @Override
+    public Sprite moveX(double x) {
+        return this.background.moveX(x);
+    }
+
+    @Override
+    public Sprite moveY(double y) {
+        return this.background.moveY(y);
+    }
+
+    @Override
+    public Sprite scale(double factor) {
+        return this.background.scale(factor);
+    }
+
+    @Override
+    public Sprite scale(double factor, Point p) {
+        return this.background.scale(factor, p);
+    }
+
+    @Override
+    public Point getCenter() {
+        return this.background.getCenter();
+    }
+}
@@ -3,10 +3,10 @@ package game.gui;
 import biuoop.DrawSurface;
 import game.animations.GameLevel;
 import game.geometry.Point;
-import game.geometry.shapes.Line;
 import game.logic.physics.Collidable;
-import game.logic.physics.CollisionInfo;
+import game.logic.physics.Contact;
 import game.logic.physics.GameEnvironment;
+import game.logic.physics.MutableVelocity;
 import game.logic.physics.Velocity;
 
 import java.awt.Color;
@@ -21,9 +21,17 @@ public class Ball extends Circle {
     private static final double DEFAULT_VELOCITY_DX = 0;
     private static final double DEFAULT_VELOCITY_DY = 0;
     private static final double COLLISION_TOLERANCE = 0.01;
-    private Velocity velocity;
+    private static final int DEFAULT_MAX_CONTACTS = 4;
+    //Changed in place by every hit
+    private final MutableVelocity velocity;
     //Holds all collidables
     private final GameEnvironment environment;
+    //Reused by every step
+    private final Contact contact;
+    //The center before the last step, for drawing between steps (NaN before the first step)
+    private double previousX;
+    private double previousY;
+    private int maxContacts;
 
     /**
      * Instantiates a new ball from a center, radius, {@link Color}, {@link Velocity} and {@link GameEnvironment}.
@@ -36,8 +44,12 @@ public class Ball extends Circle {
      */
     public Ball(Point center, int r, Color color, Velocity v, GameEnvironment environment) {
         super(center, r, color);
-        this.velocity = new Velocity(v.getDx(), v.getDy());
+        this.velocity = new MutableVelocity(v);
         this.environment = environment;
+        this.previousX = Double.NaN;
+        this.previousY = Double.NaN;
+        this.contact = new Contact();
+        this.maxContacts = DEFAULT_MAX_CONTACTS;
     }
 
     /**
@@ -76,7 +88,7 @@ public class Ball extends Circle {
      * @param dy the dy value
      */
     public void setVelocity(double dx, double dy) {
-        this.velocity = new Velocity(dx, dy);
+        this.velocity.set(dx, dy);
     }
 
     /**
@@ -90,54 +102,71 @@ public class Ball extends Circle {
     }
 
     /**
-     * Returns the ball's {@link #velocity}.
+     * Returns a copy of the ball's {@link #velocity}.
      *
      * @return the velocity
      */
     public Velocity getVelocity() {
-        return this.velocity;
+        return this.velocity.toVelocity();
+    }
+
+    /**
+     * Sets the most contacts the ball resolves in a single step. After each contact the ball continues with its new
+     * velocity for the rest of the step, and once the limit is reached the rest of the step is dropped.
+     *
+     * @param maxContacts the most contacts in a step, at least 1
+     */
+    public void setMaxContactsPerStep(int maxContacts) {
+        this.maxContacts = Math.max(1, maxContacts);
     }
 
     /**
      * Moves the ball a single step according to its velocity.
-     * If a collision has occurred with on of the collidables in gameEnvironment, the velocity is changed
-     * accordingly and the ball is position to be {@value #COLLISION_TOLERANCE} distance away from the
-     * collision point.
+     * If the ball touches one of the collidables in gameEnvironment, the velocity is changed
+     * accordingly, the ball is positioned {@value #COLLISION_TOLERANCE} distance away from the
+     * collidable's surface, and moves on with the new velocity for the rest of the step.
      */
     public void moveOneStep() {
-        //Getting collision information
-        Line trajectory = new Line(super.getCenter(), this.velocity.applyToPoint(super.getCenter()));
-        CollisionInfo collisionInfo = this.environment.getClosestCollision(trajectory);
-
-        //No collision
-        if (collisionInfo == null) {
-            this.setPoint(trajectory.end());
-            return;
-        }
-
-        //Collision occurred
-        Point collisionPoint = collisionInfo.collisionPoint();
-        Collidable collisionObject = collisionInfo.collisionObject();
-
-        //Setting new values
-        double x = collisionPoint.getX();
-        double y = collisionPoint.getY();
-        Velocity newVelocity = collisionObject.hit(this, collisionPoint, this.velocity);
-
-        //Setting the new point to be slightly before the collision
-        if (!this.velocity.equals(newVelocity)) {
-            //If velocity has changed, that means we have collided from the outside and not inside
-
-            //Moving the ball COLLISION_TOLERANCE of distance before the collision point
-            double dx = this.velocity.getDx();
-            double dy = this.velocity.getDy();
-            double collisionParameter = COLLISION_TOLERANCE / this.velocity.getSpeed();
-            this.setPoint(new Point(x - dx * collisionParameter, y - dy * collisionParameter));
-        } else {
-            this.setPoint(trajectory.end());
+        double x = super.getCenterX();
+        double y = super.getCenterY();
+        this.previousX = x;
+        this.previousY = y;
+
+        //The proportion of the step that is left to move
+        double remaining = 1;
+        for (int contacts = 0; contacts < this.maxContacts && remaining > 0; contacts++) {
+            double dx = this.velocity.getDx() * remaining;
+            double dy = this.velocity.getDy() * remaining;
+
+            //No collision in the rest of the step
+            if (!this.environment.getClosestContact(x, y, dx, dy, super.getSize(), this.contact)) {
+                x += dx;
+                y += dy;
+                break;
+            }
+
+            //Collision occurred
+            double t = this.contact.time();
+            Collidable collisionObject = this.contact.collidable();
+            double oldDx = this.velocity.getDx();
+            double oldDy = this.velocity.getDy();
+            this.setCenter(x + dx * t, y + dy * t);
+            collisionObject.hit(this, this.contact.pointX(), this.contact.pointY(), this.velocity);
+
+            //The velocity did not change - the ball moves through the collidable
+            if (this.velocity.equals(oldDx, oldDy)) {
+                this.velocity.set(oldDx, oldDy);
+                x += dx;
+                y += dy;
+                break;
+            }
+
+            //Moving the ball to where it touches the surface, then COLLISION_TOLERANCE of distance away from it
+            x += dx * t + this.contact.normalX() * COLLISION_TOLERANCE;
+            y += dy * t + this.contact.normalY() * COLLISION_TOLERANCE;
+            remaining *= 1 - t;
         }
-        this.setVelocity(newVelocity);
-
+        this.setCenter(x, y);
     }
 
     /**
@@ -170,6 +199,16 @@ public class Ball extends Circle {
         moveOneStep();
     }
 
+    /**
+     * Balls move, so they are not static.
+     *
+     * @return false
+     */
+    @Override
+    public boolean isStatic() {
+        return false;
+    }
+
     /**
      * Draws the ball on a given {@link DrawSurface}.
      *
@@ -180,6 +219,23 @@ public class Ball extends Circle {
         super.drawOn(d);
     }
 
+    /**
+     * Draws the ball between its center before the last step (alpha = 0) and its current center (alpha = 1).
+     *
+     * @param d     the surface
+     * @param alpha the proportion between the previous center and the current one
+     */
+    @Override
+    public void drawOn(DrawSurface d, double alpha) {
+        if (Double.isNaN(this.previousX) || alpha >= 1) {
+            super.drawOn(d);
+            return;
+        }
+        double x = this.previousX + (super.getCenterX() - this.previousX) * alpha;
+        double y = this.previousY + (super.getCenterY() - this.previousY) * alpha;
+        super.drawAt(d, x, y);
+    }
+
     @Override
     public String toString() {
         return "Ball => Center: " + super.getCenter() + ", Radius: " + super.getSizeRounded() + ", Velocity: " + this.velocity;
@@ -0,0 +1,676 @@
+package game.gui;
+
+import biuoop.DrawSurface;
+import game.animations.GameLevel;
+import game.geometry.Point;
+import game.logic.DoubleMethods;
+import game.logic.physics.Collidable;
+import game.logic.physics.Contact;
+import game.logic.physics.GameEnvironment;
+import game.logic.physics.MutableVelocity;
+import game.logic.physics.Velocity;
+import game.logic.physics.broad_phase.CollisionQuery;
+import game.logic.physics.broad_phase.SpatialHash;
+
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A group of balls that are stored in parallel arrays and moved together in a single loop, instead of being
+ * separate {@link Ball} sprites. Positions and velocities are plain doubles, so stepping a ball that does not hit
+ * anything does not allocate.
+ *
+ * <p>{@link Collidable#hit} and the hit listeners still expect a {@link Ball}, so every ball in the system has a
+ * proxy ball, which is created once and updated to the ball's position and velocity before each hit. Removing the
+ * proxy from the game (for example by a {@link game.logic.physics.hit_event.BallRemover}) removes the ball from
+ * the system.
+ *
+ * <p>With more than one thread, each step has two phases. First, the closest contact of every ball is found in
+ * parallel, while nothing changes the environment. Then the balls are moved and their hits are resolved one by one,
+ * in the same order as with a single thread. A contact found in the first phase is only used if it is still the
+ * closest one - nothing was added to or moved in the environment, and its collidable was not removed - and otherwise
+ * it is searched again. So the results are exactly the same whatever the number of threads.
+ *
+ * <p>Balls can also collide with each other, elastically, with masses in proportion to their areas. Once every ball
+ * has moved, the balls that overlap and are moving towards each other bounce off each other. The pairs of balls that
+ * may overlap are found with a {@link SpatialHash} of their centers, which is built again every step, so this takes
+ * time in proportion to the number of balls rather than to the number of pairs of balls. Balls that spawned together
+ * pass through each other until they separate (see {@link #collideBalls()}), so a storm of balls that starts at a
+ * single point does not cost a test for every pair of its balls.
+ */
+public class BallSystem implements Sprite {
+    private static final int INITIAL_CAPACITY = 16;
+    //The number of balls a single task of the parallel phase searches contacts for
+    private static final int BALLS_PER_TASK = 256;
+    private static final double COLLISION_TOLERANCE = 0.01;
+    private static final int DEFAULT_MAX_CONTACTS = 4;
+    private static final Color BORDER_COLOR = Color.BLACK;
+    //The group of a ball that bounces off any other ball
+    private static final int NO_GROUP = -1;
+    //Holds all collidables
+    private final GameEnvironment environment;
+    private int maxContacts;
+    private int count;
+    //Ball data
+    private double[] x;
+    private double[] y;
+    //The positions before the last step, for drawing between steps
+    private double[] previousX;
+    private double[] previousY;
+    private double[] dx;
+    private double[] dy;
+    private double[] r;
+    private Color[] colors;
+    private Member[] members;
+    //Contacts found in the parallel phase
+    private Contact[] contacts;
+    private boolean[] hasContact;
+    private ForkJoinPool pool;
+    private final ThreadLocal<CollisionQuery> queries;
+    //Passed to the collidables when resolving hits, which happens one ball at a time
+    private final MutableVelocity hitVelocity;
+    private boolean ballCollisions;
+    private final SpatialHash ballHash;
+    private final SpatialHash.PairVisitor ballCollider;
+    private final SpatialHash.PairCondition ballOverlap;
+    //Balls added at the same point before the same step spawn together, in a group of the spawn
+    private boolean spawnOpen;
+    private double spawnX;
+    private double spawnY;
+    private int spawnGroup;
+    //The group of each ball, and the number of groups that were created since no ball was in a group
+    private int[] groups;
+    private int groupCount;
+    //The balls in the order of their groups, with their centers and groups, for the hash
+    private int[] groupStarts;
+    private int[] orderedBalls;
+    private double[] orderedX;
+    private double[] orderedY;
+    private int[] orderedGroups;
+
+    /**
+     * Instantiates a new empty ball system.
+     *
+     * @param environment the game environment
+     */
+    public BallSystem(GameEnvironment environment) {
+        this(environment, INITIAL_CAPACITY);
+    }
+
+    /**
+     * Instantiates a new empty ball system with room for the given number of balls.
+     *
+     * @param environment the game environment
+     * @param capacity    the number of balls the system can hold before it has to grow
+     */
+    public BallSystem(GameEnvironment environment, int capacity) {
+        capacity = Math.max(1, capacity);
+        this.environment = environment;
+        this.maxContacts = DEFAULT_MAX_CONTACTS;
+        this.count = 0;
+        this.x = new double[capacity];
+        this.y = new double[capacity];
+        this.previousX = new double[capacity];
+        this.previousY = new double[capacity];
+        this.dx = new double[capacity];
+        this.dy = new double[capacity];
+        this.r = new double[capacity];
+        this.colors = new Color[capacity];
+        this.members = new Member[capacity];
+        this.contacts = new Contact[capacity];
+        this.hasContact = new boolean[capacity];
+        this.queries = ThreadLocal.withInitial(CollisionQuery::new);
+        this.hitVelocity = new MutableVelocity(0, 0);
+        this.ballHash = new SpatialHash();
+        this.ballCollider = (i, j) -> this.collide(this.orderedBalls[i], this.orderedBalls[j]);
+        this.ballOverlap = (i, j) -> this.overlap(this.orderedBalls[i], this.orderedBalls[j]);
+        this.groups = new int[capacity];
+        this.orderedBalls = new int[capacity];
+        this.orderedX = new double[capacity];
+        this.orderedY = new double[capacity];
+        this.orderedGroups = new int[capacity];
+        this.groupStarts = new int[INITIAL_CAPACITY + 2];
+    }
+
+    /**
+     * Sets the number of threads used to find the contacts of the balls. 1 (the default) does everything on the
+     * calling thread. The balls move exactly the same way whatever the number of threads.
+     *
+     * @param threads the number of threads
+     */
+    public void setThreads(int threads) {
+        if (this.pool != null) {
+            this.pool.shutdown();
+            this.pool = null;
+        }
+        if (threads > 1) {
+            this.pool = new ForkJoinPool(threads);
+        }
+    }
+
+    /**
+     * Sets whether the balls collide with each other. By default they pass through each other.
+     *
+     * @param ballCollisions whether the balls collide with each other
+     */
+    public void setBallCollisions(boolean ballCollisions) {
+        this.ballCollisions = ballCollisions;
+    }
+
+    /**
+     * Sets the most contacts a ball resolves in a single step. After each contact the ball continues with its new
+     * velocity for the rest of the step, and once the limit is reached the rest of the step is dropped.
+     *
+     * @param maxContacts the most contacts in a step, at least 1
+     */
+    public void setMaxContactsPerStep(int maxContacts) {
+        this.maxContacts = Math.max(1, maxContacts);
+    }
+
+    /**
+     * Adds a ball to the system.
+     *
+     * @param center the center point
+     * @param r      the radius
+     * @param color  the color
+     * @param v      the starting velocity
+     */
+    public void addBall(Point center, int r, Color color, Velocity v) {
+        if (this.count == this.x.length) {
+            grow();
+        }
+        int index = this.count++;
+        this.x[index] = center.getX();
+        this.y[index] = center.getY();
+        this.previousX[index] = this.x[index];
+        this.previousY[index] = this.y[index];
+        this.dx[index] = v.getDx();
+        this.dy[index] = v.getDy();
+        this.r[index] = r;
+        this.colors[index] = color;
+        this.members[index] = new Member(this, index, center, r, color, v, this.environment);
+        if (this.contacts[index] == null) {
+            this.contacts[index] = new Contact();
+        }
+        this.groups[index] = NO_GROUP;
+        if (this.ballCollisions) {
+            if (!this.spawnOpen || center.getX() != this.spawnX || center.getY() != this.spawnY) {
+                this.spawnOpen = true;
+                this.spawnX = center.getX();
+                this.spawnY = center.getY();
+                this.spawnGroup = this.newGroup();
+            }
+            this.groups[index] = this.spawnGroup;
+        }
+    }
+
+    /**
+     * Returns the number of balls in the system.
+     *
+     * @return the number of balls
+     */
+    public int size() {
+        return this.count;
+    }
+
+    /**
+     * Removes the ball at the given index. The last ball takes its place.
+     */
+    private void remove(int index) {
+        if (index < 0 || index >= this.count) {
+            return;
+        }
+        int last = --this.count;
+        Member removedMember = this.members[index];
+        this.x[index] = this.x[last];
+        this.y[index] = this.y[last];
+        this.previousX[index] = this.previousX[last];
+        this.previousY[index] = this.previousY[last];
+        this.dx[index] = this.dx[last];
+        this.dy[index] = this.dy[last];
+        this.r[index] = this.r[last];
+        this.colors[index] = this.colors[last];
+        this.members[index] = this.members[last];
+        this.members[index].index = index;
+        this.groups[index] = this.groups[last];
+        this.colors[last] = null;
+        this.members[last] = null;
+        removedMember.index = -1;
+
+        //Swapping the contacts, so both slots keep a contact object
+        Contact removed = this.contacts[index];
+        this.contacts[index] = this.contacts[last];
+        this.contacts[last] = removed;
+        this.hasContact[index] = this.hasContact[last];
+    }
+
+    private void grow() {
+        int capacity = this.x.length * 2;
+        this.x = Arrays.copyOf(this.x, capacity);
+        this.y = Arrays.copyOf(this.y, capacity);
+        this.previousX = Arrays.copyOf(this.previousX, capacity);
+        this.previousY = Arrays.copyOf(this.previousY, capacity);
+        this.dx = Arrays.copyOf(this.dx, capacity);
+        this.dy = Arrays.copyOf(this.dy, capacity);
+        this.r = Arrays.copyOf(this.r, capacity);
+        this.colors = Arrays.copyOf(this.colors, capacity);
+        this.members = Arrays.copyOf(this.members, capacity);
+        this.contacts = Arrays.copyOf(this.contacts, capacity);
+        this.hasContact = Arrays.copyOf(this.hasContact, capacity);
+        this.groups = Arrays.copyOf(this.groups, capacity);
+        this.orderedBalls = new int[capacity];
+        this.orderedX = new double[capacity];
+        this.orderedY = new double[capacity];
+        this.orderedGroups = new int[capacity];
+    }
+
+    /**
+     * Creates a group for the balls of a spawn.
+     *
+     * @return the group
+     */
+    private int newGroup() {
+        if (this.groupCount + 2 > this.groupStarts.length) {
+            this.groupStarts = new int[this.groupStarts.length * 2];
+        }
+        return this.groupCount++;
+    }
+
+    /**
+     * Moves every ball a single step, the same way {@link Ball#moveOneStep()} does.
+     * The balls are moved in the order they were added. When a ball is removed during its step, the last ball takes
+     * its place and is moved next. If the balls collide with each other, the collisions between them are resolved
+     * once all of them have moved.
+     */
+    public void moveOneStep() {
+        this.spawnOpen = false;
+        System.arraycopy(this.x, 0, this.previousX, 0, this.count);
+        System.arraycopy(this.y, 0, this.previousY, 0, this.count);
+        boolean parallel = this.pool != null && this.count > BALLS_PER_TASK;
+        long snapshot = this.environment.changes();
+        if (parallel) {
+            this.pool.invoke(new ContactSearch(0, this.count));
+        }
+        int i = 0;
+        while (i < this.count) {
+            if (stepBall(i, parallel && this.environment.changes() == snapshot)) {
+                i++;
+            }
+        }
+        if (this.ballCollisions && this.count > 1) {
+            this.collideBalls();
+        }
+    }
+
+    /**
+     * Bounces the balls that overlap off each other. Two balls can only overlap if their centers are at most two of
+     * the largest radius apart, so that is the size of the cells of the hash.
+     *
+     * <p>Balls that spawned together start on top of each other, and a storm of them stays crowded for long, so
+     * testing every pair of them would take time in proportion to the square of their number - and bouncing them off
+     * each other would only spread a single ball that bounced off a corner through the whole crowd. So they are kept
+     * in the group of their spawn, whose pairs the hash skips, and they pass through each other. A ball leaves its
+     * group once it overlaps no other ball of it, and from then on bounces off every ball. The balls are given to
+     * the hash in the order of their groups (a counting sort), so the hash skips the balls of a group together.
+     */
+    private void collideBalls() {
+        double maxRadius = 0;
+        int[] starts = this.groupStarts;
+        Arrays.fill(starts, 0, this.groupCount + 2, 0);
+        //Counting the balls of each group one slot ahead, with the balls in no group first
+        for (int i = 0; i < this.count; i++) {
+            maxRadius = Math.max(maxRadius, this.r[i]);
+            starts[this.groups[i] + 2]++;
+        }
+        if (starts[1] == this.count) {
+            //No ball is in a group, so the groups can be created again from the start
+            this.groupCount = 0;
+        }
+        if (maxRadius <= 0) {
+            return;
+        }
+        for (int g = 0; g <= this.groupCount; g++) {
+            starts[g + 1] += starts[g];
+        }
+        for (int i = 0; i < this.count; i++) {
+            int ordered = starts[this.groups[i] + 1]++;
+            this.orderedBalls[ordered] = i;
+            this.orderedX[ordered] = this.x[i];
+            this.orderedY[ordered] = this.y[i];
+            this.orderedGroups[ordered] = this.groups[i];
+        }
+        this.ballHash.build(this.orderedX, this.orderedY, this.orderedGroups, this.count, 2 * maxRadius);
+        //The balls of a single group have no pairs to test, such as a storm that has not separated yet
+        int firstGroup = this.orderedGroups[0];
+        if (firstGroup == NO_GROUP || firstGroup != this.orderedGroups[this.count - 1]) {
+            this.ballHash.forEachPair(this.ballCollider);
+        }
+        for (int ordered = starts[0]; ordered < this.count; ordered++) {
+            if (!this.ballHash.anyInGroupNear(ordered, this.ballOverlap)) {
+                this.groups[this.orderedBalls[ordered]] = NO_GROUP;
+            }
+        }
+    }
+
+    /**
+     * Returns whether two balls overlap, including balls at the same center.
+     */
+    private boolean overlap(int i, int j) {
+        double offsetX = this.x[j] - this.x[i];
+        double offsetY = this.y[j] - this.y[i];
+        double radii = this.r[i] + this.r[j];
+        return offsetX * offsetX + offsetY * offsetY < radii * radii;
+    }
+
+    /**
+     * Bounces two balls off each other if they overlap and are moving towards each other - the parts of their
+     * velocities along the line between their centers are exchanged the way an elastic collision exchanges them.
+     * Balls that are moving apart are left alone, so overlapping balls (such as balls that start at the same point)
+     * separate on their own.
+     */
+    private void collide(int i, int j) {
+        double offsetX = this.x[j] - this.x[i];
+        double offsetY = this.y[j] - this.y[i];
+        double distanceSquared = offsetX * offsetX + offsetY * offsetY;
+        double radii = this.r[i] + this.r[j];
+        //Balls at the same center have no line between them to bounce along
+        if (distanceSquared >= radii * radii || distanceSquared == 0) {
+            return;
+        }
+        double distance = Math.sqrt(distanceSquared);
+        double normalX = offsetX / distance;
+        double normalY = offsetY / distance;
+        double approach = (this.dx[i] - this.dx[j]) * normalX + (this.dy[i] - this.dy[j]) * normalY;
+        if (approach <= 0) {
+            return;
+        }
+        double massI = this.r[i] * this.r[i];
+        double massJ = this.r[j] * this.r[j];
+        double impulse = 2 * approach / (massI + massJ);
+        this.dx[i] -= impulse * massJ * normalX;
+        this.dy[i] -= impulse * massJ * normalY;
+        this.dx[j] += impulse * massI * normalX;
+        this.dy[j] += impulse * massI * normalY;
+    }
+
+    /**
+     * Finds the closest contact of the ball at the given index, using the query of the current thread.
+     */
+    private void searchContact(int i) {
+        this.hasContact[i] = this.environment.getClosestContact(this.x[i], this.y[i], this.dx[i], this.dy[i],
+                this.r[i], this.contacts[i], this.queries.get());
+    }
+
+    /**
+     * Moves the ball at the given index a single step, resolving up to the most contacts per step.
+     *
+     * @param searched whether the contact found in the parallel phase can be used
+     * @return false if the ball was removed during the step
+     */
+    private boolean stepBall(int i, boolean searched) {
+        double ballX = this.x[i];
+        double ballY = this.y[i];
+        double ballDx = this.dx[i];
+        double ballDy = this.dy[i];
+        Contact contact = this.contacts[i];
+
+        //The proportion of the step that is left to move
+        double remaining = 1;
+        for (int contacts = 0; contacts < this.maxContacts && remaining > 0; contacts++) {
+            double stepDx = ballDx * remaining;
+            double stepDy = ballDy * remaining;
+
+            //Only the first contact can come from the parallel phase
+            boolean found;
+            if (contacts == 0 && searched
+                    && (!this.hasContact[i] || this.environment.contains(contact.collidable()))) {
+                found = this.hasContact[i];
+            } else {
+                found = this.environment.getClosestContact(ballX, ballY, stepDx, stepDy, this.r[i], contact);
+            }
+
+            //No collision in the rest of the step
+            if (!found) {
+                ballX += stepDx;
+                ballY += stepDy;
+                break;
+            }
+
+            //Collision occurred - the proxy has to be up to date for the collidable and its listeners
+            double t = contact.time();
+            Member member = this.members[i];
+            member.setCenter(ballX + stepDx * t, ballY + stepDy * t);
+            member.setVelocity(ballDx, ballDy);
+            Collidable collisionObject = contact.collidable();
+            MutableVelocity velocity = this.hitVelocity;
+            velocity.set(ballDx, ballDy);
+            collisionObject.hit(member, contact.pointX(), contact.pointY(), velocity);
+            if (member.index != i) {
+                return false;
+            }
+
+            //The velocity did not change - the ball moves through the collidable
+            if (velocity.equals(ballDx, ballDy)) {
+                ballX += stepDx;
+                ballY += stepDy;
+                break;
+            }
+
+            //Moving the ball to where it touches the surface, then COLLISION_TOLERANCE of distance away from it
+            ballX += stepDx * t + contact.normalX() * COLLISION_TOLERANCE;
+            ballY += stepDy * t + contact.normalY() * COLLISION_TOLERANCE;
+            remaining *= 1 - t;
+            ballDx = velocity.getDx();
+            ballDy = velocity.getDy();
+        }
+        this.x[i] = ballX;
+        this.y[i] = ballY;
+        this.dx[i] = ballDx;
+        this.dy[i] = ballDy;
+        return true;
+    }
+
+    /**
+     * Adds the ball system to the given game.
+     *
+     * @param g the game
+     */
+    public void addToGame(GameLevel g) {
+        g.addSprite(this);
+    }
+
+    /**
+     * Removes the ball system, with all of its balls, from the given game.
+     *
+     * @param g the game
+     */
+    public void removeFromGame(GameLevel g) {
+        g.removeSprite(this);
+    }
+
+    //Sprite methods
+
+    /**
+     * Moves all the balls one step.
+     *
+     * @see #moveOneStep()
+     */
+    @Override
+    public void timePassed() {
+        moveOneStep();
+    }
+
+    /**
+     * Draws all the balls on a given {@link DrawSurface}.
+     *
+     * @param d the surface
+     */
+    @Override
+    public void drawOn(DrawSurface d) {
+        this.drawOn(d, 1);
+    }
+
+    /**
+     * Draws all the balls between their positions before the last step (alpha = 0) and their current positions
+     * (alpha = 1). The fills are drawn first and then the borders, so the color only has to be changed when it
+     * differs from the previous ball's.
+     *
+     * @param d     the surface
+     * @param alpha the proportion between the previous positions and the current ones
+     */
+    @Override
+    public void drawOn(DrawSurface d, double alpha) {
+        Color current = null;
+        for (int i = 0; i < this.count; i++) {
+            if (this.colors[i] != current) {
+                current = this.colors[i];
+                d.setColor(current);
+            }
+            d.fillCircle(interpolatedX(i, alpha), interpolatedY(i, alpha), DoubleMethods.round(this.r[i]));
+        }
+        d.setColor(BORDER_COLOR);
+        for (int i = 0; i < this.count; i++) {
+            d.drawCircle(interpolatedX(i, alpha), interpolatedY(i, alpha), DoubleMethods.round(this.r[i]));
+        }
+    }
+
+    private int interpolatedX(int i, double alpha) {
+        return DoubleMethods.round(this.previousX[i] + (this.x[i] - this.previousX[i]) * alpha);
+    }
+
+    private int interpolatedY(int i, double alpha) {
+        return DoubleMethods.round(this.previousY[i] + (this.y[i] - this.previousY[i]) * alpha);
+    }
+
+    @Override
+    public BallSystem getCurrentSpriteFrame() {
+        return this;
+    }
+
+    @Override
+    public BallSystem moveX(double x) {
+        return this.transformed(1, x, 0, 0, 0);
+    }
+
+    @Override
+    public BallSystem moveY(double y) {
+        return this.transformed(1, 0, y, 0, 0);
+    }
+
+    /**
+     * Returns an identical sprite that has been scaled up or down according to the given factor.
+     * The factor acts as a relative new size, for example '1' would be no size change, '0.5' would shrink by half,
+     * and 2 would grow to double the size.
+     *
+     * @param factor resize factor
+     * @return the new sprite
+     */
+    @Override
+    public BallSystem scale(double factor) {
+        return this.scale(factor, this.getCenter());
+    }
+
+    /**
+     * Returns an identical sprite that has been scaled up or down according to the given factor.
+     * The factor acts as a relative new size, for example '1' would be no size change, '0.5' would shrink by half,
+     * and 2 would grow to double the size.
+     * The sprite is scaled to the given point as the center, so the more scaled down the sprite is, the closer it is
+     * to the center point.
+     *
+     * @param factor resize factor
+     * @param p      the center point
+     * @return the new sprite
+     */
+    @Override
+    public BallSystem scale(double factor, Point p) {
+        return this.transformed(factor, 0, 0, p.getX(), p.getY());
+    }
+
+    /**
+     * Returns a copy of the system where every ball is scaled around (centerX, centerY) and then moved.
+     */
+    private BallSystem transformed(double factor, double moveX, double moveY, double centerX, double centerY) {
+        BallSystem copy = new BallSystem(this.environment, this.count);
+        for (int i = 0; i < this.count; i++) {
+            double newX = centerX + (this.x[i] - centerX) * factor + moveX;
+            double newY = centerY + (this.y[i] - centerY) * factor + moveY;
+            copy.addBall(new Point(newX, newY), DoubleMethods.round(this.r[i] * factor), this.colors[i],
+                    new Velocity(this.dx[i], this.dy[i]));
+        }
+        return copy;
+    }
+
+    /**
+     * Returns the average center point of all balls.
+     *
+     * @return the center point
+     */
+    @Override
+    public Point getCenter() {
+        double xSum = 0;
+        double ySum = 0;
+        for (int i = 0; i < this.count; i++) {
+            xSum += this.x[i];
+            ySum += this.y[i];
+        }
+        return new Point(xSum / this.count, ySum / this.count);
+    }
+
+    @Override
+    public String toString() {
+        return "BallSystem => Balls: " + this.count;
+    }
+
+    /**
+     * Finds the contacts of a range of balls, splitting it between threads.
+     */
+    private class ContactSearch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int from;
+        private final int to;
+
+        ContactSearch(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= BALLS_PER_TASK) {
+                for (int i = this.from; i < this.to; i++) {
+                    searchContact(i);
+                }
+                return;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new ContactSearch(this.from, middle), new ContactSearch(middle, this.to));
+        }
+    }
+
+    /**
+     * The proxy of a single ball in the system, which is passed to collidables and hit listeners.
+     */
+    private static class Member extends Ball {
+        private final BallSystem system;
+        private int index;
+
+        Member(BallSystem system, int index, Point center, int r, Color color, Velocity v,
+               GameEnvironment environment) {
+            super(center, r, color, v, environment);
+            this.system = system;
+            this.index = index;
+        }
+
+        /**
+         * Removes the ball from its system.
+         *
+         * @param g the game
+         */
+        @Override
+        public void removeFromGame(GameLevel g) {
+            this.system.remove(this.index);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package game.gui;
+
+import biuoop.DrawSurface;
+
+import java.awt.Color;
+import java.awt.Image;
+import java.awt.Polygon;
+import java.awt.Rectangle;
+import java.util.Arrays;
+
+/**
+ * A {@link DrawSurface} that does not draw anything, but measures the area each drawing call would have drawn on,
+ * and remembers a hash of the call (including the color it is drawn in).
+ *
+ * <p>Drawing a sprite on it tells where each part of the sprite is on the screen, and which parts look different
+ * than the last time, without the sprite having to know anything about it.
+ */
+public class BoundsDrawSurface implements DrawSurface {
+    private static final int INITIAL_CAPACITY = 16;
+    //Lines and outlines are drawn one pixel past their coordinates, and text is only roughly measured
+    private static final int MARGIN = 2;
+    //Constants of the FNV-1a hash
+    private static final long HASH_START = 0xcbf29ce484222325L;
+    private static final long HASH_PRIME = 0x100000001b3L;
+    private final int width;
+    private final int height;
+    private int color;
+    //The bounds of each call, 4 values per call (left, top, right, bottom), and its hash
+    private int[] bounds;
+    private long[] hashes;
+    private int calls;
+
+    /**
+     * Instantiates a new bounds draw surface of the given size.
+     *
+     * @param width  the width
+     * @param height the height
+     */
+    public BoundsDrawSurface(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.bounds = new int[INITIAL_CAPACITY * 4];
+        this.hashes = new long[INITIAL_CAPACITY];
+        this.reset();
+    }
+
+    /**
+     * Forgets everything that was drawn.
+     */
+    public void reset() {
+        this.calls = 0;
+        //Like the GUI, which starts drawing in black
+        this.color = Color.BLACK.getRGB();
+    }
+
+    /**
+     * Returns the number of drawing calls since the last reset.
+     *
+     * @return the number of calls
+     */
+    public int getCalls() {
+        return this.calls;
+    }
+
+    /**
+     * Returns the bounds of all the drawing calls since the last reset, 4 values per call: the left, top, right and
+     * bottom (the last two exclusive). The array may be longer than needed.
+     *
+     * @return the bounds
+     */
+    public int[] getBounds() {
+        return this.bounds;
+    }
+
+    /**
+     * Returns the hashes of all the drawing calls since the last reset. The array may be longer than needed.
+     *
+     * @return the hashes
+     */
+    public long[] getHashes() {
+        return this.hashes;
+    }
+
+    private void add(int operation, int x, int y, int w, int h, long extra) {
+        if (this.calls == this.hashes.length) {
+            this.hashes = Arrays.copyOf(this.hashes, this.calls * 2);
+            this.bounds = Arrays.copyOf(this.bounds, this.calls * 8);
+        }
+        long hash = HASH_START;
+        hash = (hash ^ operation) * HASH_PRIME;
+        hash = (hash ^ this.color) * HASH_PRIME;
+        hash = (hash ^ extra) * HASH_PRIME;
+        this.hashes[this.calls] = hash;
+        int i = this.calls * 4;
+        this.bounds[i] = x - MARGIN;
+        this.bounds[i + 1] = y - MARGIN;
+        this.bounds[i + 2] = x + w + MARGIN;
+        this.bounds[i + 3] = y + h + MARGIN;
+        this.calls++;
+    }
+
+    @Override
+    public int getWidth() {
+        return this.width;
+    }
+
+    @Override
+    public int getHeight() {
+        return this.height;
+    }
+
+    @Override
+    public void setColor(Color c) {
+        this.color = c.getRGB();
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        //The direction of the line matters when it has no bounds to tell it
+        long direction = (x1 <= x2) == (y1 <= y2) ? 0 : 1;
+        add(1, Math.min(x1, x2), Math.min(y1, y2), Math.abs(x2 - x1), Math.abs(y2 - y1), direction);
+    }
+
+    @Override
+    public void drawOval(int x, int y, int w, int h) {
+        add(2, x, y, w, h, 0);
+    }
+
+    @Override
+    public void fillOval(int x, int y, int w, int h) {
+        add(3, x, y, w, h, 0);
+    }
+
+    @Override
+    public void drawRectangle(int x, int y, int w, int h) {
+        add(4, x, y, w, h, 0);
+    }
+
+    @Override
+    public void fillRectangle(int x, int y, int w, int h) {
+        add(5, x, y, w, h, 0);
+    }
+
+    @Override
+    public void drawImage(int x, int y, Image image) {
+        add(6, x, y, image.getWidth(null), image.getHeight(null), System.identityHashCode(image));
+    }
+
+    @Override
+    public void drawCircle(int x, int y, int r) {
+        add(7, x - r, y - r, 2 * r, 2 * r, 0);
+    }
+
+    @Override
+    public void fillCircle(int x, int y, int r) {
+        add(8, x - r, y - r, 2 * r, 2 * r, 0);
+    }
+
+    @Override
+    public void drawText(int x, int y, String text, int fontSize) {
+        //No glyph is wider than the font size, and they reach at most half of it below the baseline
+        add(9, x, y - fontSize, text.length() * fontSize, fontSize + fontSize / 2,
+                text.hashCode() * 31L + fontSize);
+    }
+
+    @Override
+    public void drawPolygon(Polygon polygon) {
+        addPolygon(10, polygon);
+    }
+
+    @Override
+    public void fillPolygon(Polygon polygon) {
+        addPolygon(11, polygon);
+    }
+
+    private void addPolygon(int operation, Polygon polygon) {
+        long shape = 0;
+        for (int i = 0; i < polygon.npoints; i++) {
+            shape = (shape * 31 + polygon.xpoints[i]) * 31 + polygon.ypoints[i];
+        }
+        Rectangle r = polygon.getBounds();
+        add(operation, r.x, r.y, r.width, r.height, shape);
+    }
+}
@@ -3,6 +3,7 @@ package game.gui;
 import biuoop.DrawSurface;
 import game.animations.GameLevel;
 import game.geometry.Point;
+import game.geometry.Transform;
 import game.geometry.shapes.Line;
 import game.logic.DoubleMethods;
 
@@ -18,7 +19,9 @@ public class Circle implements Sprite {
     private final double size;
     private final Color color;
     private final Color borderColor;
-    private Point point;
+    //The center, kept as plain doubles so moving the circle does not create a new point
+    private double centerX;
+    private double centerY;
 
     /**
      * Instantiates a new circle from a center, radius and two {@link Color}s.
@@ -29,7 +32,8 @@ public class Circle implements Sprite {
      * @param borderColor border color
      */
     public Circle(Point center, double r, Color color, Color borderColor) {
-        this.point = center;
+        this.centerX = center.getX();
+        this.centerY = center.getY();
         this.size = r;
         this.color = color;
         this.borderColor = borderColor;
@@ -65,7 +69,7 @@ public class Circle implements Sprite {
      * @return the x coordinate
      */
     public int getX() {
-        return DoubleMethods.round(this.point.getX());
+        return DoubleMethods.round(this.centerX);
     }
 
     /**
@@ -74,7 +78,7 @@ public class Circle implements Sprite {
      * @return the y coordinate
      */
     public int getY() {
-        return DoubleMethods.round(this.point.getY());
+        return DoubleMethods.round(this.centerY);
     }
 
     /**
@@ -105,12 +109,41 @@ public class Circle implements Sprite {
     }
 
     /**
-     * Sets the circle's {@link #point} to the given point.
+     * Returns the exact x coordinate of the center point.
+     *
+     * @return the x coordinate
+     */
+    public double getCenterX() {
+        return this.centerX;
+    }
+
+    /**
+     * Returns the exact y coordinate of the center point.
+     *
+     * @return the y coordinate
+     */
+    public double getCenterY() {
+        return this.centerY;
+    }
+
+    /**
+     * Sets the circle's center to the given point.
      *
      * @param p the point
      */
     public void setPoint(Point p) {
-        this.point = p;
+        this.setCenter(p.getX(), p.getY());
+    }
+
+    /**
+     * Sets the circle's center to the given coordinates.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     */
+    public void setCenter(double x, double y) {
+        this.centerX = x;
+        this.centerY = y;
     }
 
     /**
@@ -144,10 +177,59 @@ public class Circle implements Sprite {
      */
     @Override
     public void drawOn(DrawSurface d) {
+        this.drawAt(d, this.centerX, this.centerY);
+    }
+
+    /**
+     * Draws the circle on a given {@link DrawSurface} as if its center was at the given coordinates.
+     *
+     * @param d the surface
+     * @param x the x coordinate of the center
+     * @param y the y coordinate of the center
+     */
+    protected void drawAt(DrawSurface d, double x, double y) {
+        this.drawAt(d, x, y, this.size);
+    }
+
+    /**
+     * Draws the circle on a given {@link DrawSurface} as if its center was at the given coordinates, with the given
+     * radius.
+     *
+     * @param d the surface
+     * @param x the x coordinate of the center
+     * @param y the y coordinate of the center
+     * @param r the radius
+     */
+    private void drawAt(DrawSurface d, double x, double y, double r) {
+        int roundedX = DoubleMethods.round(x);
+        int roundedY = DoubleMethods.round(y);
+        int roundedR = DoubleMethods.round(r);
         d.setColor(this.color);
-        d.fillCircle(this.getX(), this.getY(), this.getSizeRounded());
+        d.fillCircle(roundedX, roundedY, roundedR);
         d.setColor(this.borderColor);
-        d.drawCircle(this.getX(), this.getY(), this.getSizeRounded());
+        d.drawCircle(roundedX, roundedY, roundedR);
+    }
+
+    /**
+     * Draws the circle on a given {@link DrawSurface}, scaled and moved by the given transform.
+     *
+     * @param d         the surface
+     * @param transform the transform
+     */
+    @Override
+    public void drawOn(DrawSurface d, Transform transform) {
+        this.drawAt(d, transform.applyX(this.centerX), transform.applyY(this.centerY),
+                transform.applyLength(this.size));
+    }
+
+    /**
+     * Circles do not change by themselves, so they are static.
+     *
+     * @return true
+     */
+    @Override
+    public boolean isStatic() {
+        return true;
     }
 
     @Override
@@ -157,12 +239,12 @@ public class Circle implements Sprite {
 
     @Override
     public Circle moveX(double x) {
-        return new Circle(this.point.moveX(x), this.size, this.color, this.borderColor);
+        return new Circle(new Point(this.centerX + x, this.centerY), this.size, this.color, this.borderColor);
     }
 
     @Override
     public Circle moveY(double y) {
-        return new Circle(this.point.moveY(y), this.size, this.color, this.borderColor);
+        return new Circle(new Point(this.centerX, this.centerY + y), this.size, this.color, this.borderColor);
     }
 
     /**
@@ -175,7 +257,7 @@ public class Circle implements Sprite {
      */
     @Override
     public Circle scale(double factor) {
-        return this.scale(factor, this.point);
+        return this.scale(factor, this.getCenter());
     }
 
     /**
@@ -191,7 +273,7 @@ public class Circle implements Sprite {
      */
     @Override
     public Circle scale(double factor, Point p) {
-        Point newCenter = new Line(this.point, p).getPointFromProportions(factor);
+        Point newCenter = new Line(this.getCenter(), p).getPointFromProportions(factor);
         return new Circle(newCenter, this.size * factor, this.color, this.borderColor);
     }
 
@@ -202,11 +284,11 @@ public class Circle implements Sprite {
      */
     @Override
     public Point getCenter() {
-        return this.point;
+        return new Point(this.centerX, this.centerY);
     }
 
     @Override
     public String toString() {
-        return "Circle => Center: " + this.point + ", Radius: " + this.size;
+        return "Circle => Center: " + this.getCenter() + ", Radius: " + this.size;
     }
 }
@@ -0,0 +1,362 @@
+package game.gui;
+
+import biuoop.DrawSurface;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Draws a {@link SpriteCollection} by repainting only the parts of the screen that changed since the last frame.
+ *
+ * <p>The frame is kept in an image between frames. Every frame, each sprite is first drawn on a
+ * {@link BoundsDrawSurface}, which tells the area and the hash of each of its drawing calls. A call that moved or
+ * changed makes both its old and new areas dirty, and so does a sprite that was added or removed. Then only the dirty
+ * areas of the image are cleared and redrawn, by the sprites that touch them, in their usual order - and the image is
+ * drawn on the screen as a whole.
+ *
+ * <p>The dirty areas are not redrawn with a clip, since Java2D draws some shapes (like the outlines of ovals) slightly
+ * differently when they are clipped, which would leave marks on the screen. Instead, the sprites are drawn whole on
+ * a scratch image, and only the dirty area is copied from it.
+ *
+ * <p>Sprites must draw the same way for the same state, and images drawn by sprites must not change after they are
+ * first drawn, or the changes will not be noticed.
+ */
+public class DirtyRectangleRenderer {
+    //Beyond this many separate dirty areas, their bounding box is repainted instead
+    private static final int MAX_DIRTY_AREAS = 32;
+    private static final Color CLEAR_COLOR = Color.BLACK;
+    private final int width;
+    private final int height;
+    private final BufferedImage frame;
+    private final Graphics2D frameGraphics;
+    private final RepaintSurface scratch;
+    private final BoundsDrawSurface measure;
+    private final Map<Sprite, Regions> regions;
+    private int frameNumber;
+    //The dirty areas of the current frame, 4 values per area (left, top, right, bottom), with no two overlapping
+    private final int[] dirty;
+    private int dirtyAreas;
+    //The state of the current call to render, kept in fields so the sprites can be iterated without allocating
+    private double alpha;
+    private int areaIndex;
+    private final Consumer<Sprite> measureSprite;
+    private final Consumer<Sprite> repaintSprite;
+
+    /**
+     * Instantiates a new dirty rectangle renderer for a screen of the given size.
+     *
+     * @param width  the width of the screen
+     * @param height the height of the screen
+     */
+    public DirtyRectangleRenderer(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        this.frameGraphics = this.frame.createGraphics();
+        this.scratch = new RepaintSurface(width, height);
+        this.measure = new BoundsDrawSurface(width, height);
+        this.regions = new IdentityHashMap<>();
+        this.dirty = new int[(MAX_DIRTY_AREAS + 1) * 4];
+        this.measureSprite = this::measure;
+        this.repaintSprite = this::repaint;
+    }
+
+    /**
+     * Draws the sprites on the given surface.
+     *
+     * @param sprites the sprites
+     * @param d       the surface
+     * @param alpha   the proportion between the previous state of the sprites and the current one
+     */
+    public void render(SpriteCollection sprites, DrawSurface d, double alpha) {
+        this.alpha = alpha;
+        this.dirtyAreas = 0;
+        this.frameNumber++;
+        sprites.forEach(this.measureSprite);
+
+        //Sprites that were not drawn this time have been removed
+        Iterator<Regions> iterator = this.regions.values().iterator();
+        while (iterator.hasNext()) {
+            Regions removed = iterator.next();
+            if (removed.frameNumber != this.frameNumber) {
+                this.markDirty(removed.left, removed.top, removed.right, removed.bottom);
+                iterator.remove();
+            }
+        }
+        if (this.frameNumber == 1) {
+            this.dirtyAreas = 0;
+            this.markDirty(0, 0, this.width, this.height);
+        }
+
+        for (this.areaIndex = 0; this.areaIndex < this.dirtyAreas; this.areaIndex++) {
+            int i = this.areaIndex * 4;
+            int left = this.dirty[i];
+            int top = this.dirty[i + 1];
+            int right = this.dirty[i + 2];
+            int bottom = this.dirty[i + 3];
+            this.scratch.setArea(left, top, right, bottom);
+            this.scratch.setColor(CLEAR_COLOR);
+            this.scratch.fillRectangle(left, top, right - left, bottom - top);
+            sprites.forEach(this.repaintSprite);
+            this.frameGraphics.drawImage(this.scratch.getImage(),
+                    left, top, right, bottom, left, top, right, bottom, null);
+        }
+        d.drawImage(0, 0, this.frame);
+    }
+
+    /**
+     * Returns the number of separate areas that were repainted in the last frame.
+     *
+     * @return the number of areas
+     */
+    public int getDirtyAreas() {
+        return this.dirtyAreas;
+    }
+
+    /**
+     * Returns the number of pixels that were repainted in the last frame.
+     *
+     * @return the number of pixels
+     */
+    public int getDirtyPixels() {
+        int pixels = 0;
+        for (int i = 0; i < this.dirtyAreas * 4; i += 4) {
+            pixels += (this.dirty[i + 2] - this.dirty[i]) * (this.dirty[i + 3] - this.dirty[i + 1]);
+        }
+        return pixels;
+    }
+
+    /**
+     * Finds what the sprite draws, and marks whatever changed since the last frame as dirty.
+     */
+    private void measure(Sprite sprite) {
+        this.measure.reset();
+        sprite.drawOn(this.measure, this.alpha);
+        int calls = this.measure.getCalls();
+        int[] bounds = this.measure.getBounds();
+        long[] hashes = this.measure.getHashes();
+        Regions previous = this.regions.get(sprite);
+        if (previous == null) {
+            previous = new Regions();
+            this.regions.put(sprite, previous);
+            for (int i = 0; i < calls * 4; i += 4) {
+                this.markDirty(bounds[i], bounds[i + 1], bounds[i + 2], bounds[i + 3]);
+            }
+        } else if (previous.calls != calls) {
+            //Drawn differently - the whole sprite is repainted
+            this.markDirty(previous.left, previous.top, previous.right, previous.bottom);
+            for (int i = 0; i < calls * 4; i += 4) {
+                this.markDirty(bounds[i], bounds[i + 1], bounds[i + 2], bounds[i + 3]);
+            }
+        } else {
+            for (int call = 0; call < calls; call++) {
+                int i = call * 4;
+                if (previous.hashes[call] != hashes[call] || previous.bounds[i] != bounds[i]
+                        || previous.bounds[i + 1] != bounds[i + 1] || previous.bounds[i + 2] != bounds[i + 2]
+                        || previous.bounds[i + 3] != bounds[i + 3]) {
+                    this.markDirty(previous.bounds[i], previous.bounds[i + 1],
+                            previous.bounds[i + 2], previous.bounds[i + 3]);
+                    this.markDirty(bounds[i], bounds[i + 1], bounds[i + 2], bounds[i + 3]);
+                }
+            }
+        }
+        previous.set(calls, bounds, hashes);
+        previous.frameNumber = this.frameNumber;
+    }
+
+    /**
+     * Redraws the sprite into the current dirty area, if it draws anything there.
+     */
+    private void repaint(Sprite sprite) {
+        Regions drawn = this.regions.get(sprite);
+        int i = this.areaIndex * 4;
+        //Sprites added since the measuring are drawn on the next frame
+        if (drawn != null && drawn.left < this.dirty[i + 2] && this.dirty[i] < drawn.right
+                && drawn.top < this.dirty[i + 3] && this.dirty[i + 1] < drawn.bottom) {
+            sprite.drawOn(this.scratch, this.alpha);
+        }
+    }
+
+    /**
+     * Adds an area to the dirty areas, merging it with the areas it overlaps.
+     */
+    private void markDirty(int left, int top, int right, int bottom) {
+        left = Math.max(left, 0);
+        top = Math.max(top, 0);
+        right = Math.min(right, this.width);
+        bottom = Math.min(bottom, this.height);
+        if (left >= right || top >= bottom) {
+            return;
+        }
+        int i = 0;
+        while (i < this.dirtyAreas * 4) {
+            if (left <= this.dirty[i + 2] && this.dirty[i] <= right
+                    && top <= this.dirty[i + 3] && this.dirty[i + 1] <= bottom) {
+                //Taking the area out, and merging it into the new one, which may now overlap areas that were before it
+                left = Math.min(left, this.dirty[i]);
+                top = Math.min(top, this.dirty[i + 1]);
+                right = Math.max(right, this.dirty[i + 2]);
+                bottom = Math.max(bottom, this.dirty[i + 3]);
+                this.dirtyAreas--;
+                System.arraycopy(this.dirty, this.dirtyAreas * 4, this.dirty, i, 4);
+                i = 0;
+            } else {
+                i += 4;
+            }
+        }
+        int end = this.dirtyAreas * 4;
+        this.dirty[end] = left;
+        this.dirty[end + 1] = top;
+        this.dirty[end + 2] = right;
+        this.dirty[end + 3] = bottom;
+        this.dirtyAreas++;
+        if (this.dirtyAreas > MAX_DIRTY_AREAS) {
+            for (int j = 4; j < this.dirtyAreas * 4; j += 4) {
+                this.dirty[0] = Math.min(this.dirty[0], this.dirty[j]);
+                this.dirty[1] = Math.min(this.dirty[1], this.dirty[j + 1]);
+                this.dirty[2] = Math.max(this.dirty[2], this.dirty[j + 2]);
+                this.dirty[3] = Math.max(this.dirty[3], this.dirty[j + 3]);
+            }
+            this.dirtyAreas = 1;
+        }
+    }
+
+    /**
+     * The surface the dirty areas are redrawn on. Images are only copied inside the current area, since they are
+     * copied exactly and are usually large (like the background), and everything else is drawn whole - unless it is
+     * entirely outside the area, in which case it is skipped.
+     */
+    private static final class RepaintSurface extends ImageDrawSurface {
+        //The same margin as the measured bounds of the calls
+        private static final int MARGIN = 2;
+        private int left;
+        private int top;
+        private int right;
+        private int bottom;
+
+        private RepaintSurface(int width, int height) {
+            super(width, height, true);
+        }
+
+        private void setArea(int areaLeft, int areaTop, int areaRight, int areaBottom) {
+            this.left = areaLeft;
+            this.top = areaTop;
+            this.right = areaRight;
+            this.bottom = areaBottom;
+        }
+
+        private boolean touches(int x, int y, int w, int h) {
+            return x - MARGIN < this.right && this.left < x + w + MARGIN
+                    && y - MARGIN < this.bottom && this.top < y + h + MARGIN;
+        }
+
+        @Override
+        public void drawLine(int x1, int y1, int x2, int y2) {
+            if (this.touches(Math.min(x1, x2), Math.min(y1, y2), Math.abs(x2 - x1), Math.abs(y2 - y1))) {
+                super.drawLine(x1, y1, x2, y2);
+            }
+        }
+
+        @Override
+        public void drawOval(int x, int y, int w, int h) {
+            if (this.touches(x, y, w, h)) {
+                super.drawOval(x, y, w, h);
+            }
+        }
+
+        @Override
+        public void fillOval(int x, int y, int w, int h) {
+            if (this.touches(x, y, w, h)) {
+                super.fillOval(x, y, w, h);
+            }
+        }
+
+        @Override
+        public void drawRectangle(int x, int y, int w, int h) {
+            if (this.touches(x, y, w, h)) {
+                super.drawRectangle(x, y, w, h);
+            }
+        }
+
+        @Override
+        public void fillRectangle(int x, int y, int w, int h) {
+            if (this.touches(x, y, w, h)) {
+                super.fillRectangle(x, y, w, h);
+            }
+        }
+
+        @Override
+        public void drawCircle(int x, int y, int r) {
+            if (this.touches(x - r, y - r, 2 * r, 2 * r)) {
+                super.drawCircle(x, y, r);
+            }
+        }
+
+        @Override
+        public void fillCircle(int x, int y, int r) {
+            if (this.touches(x - r, y - r, 2 * r, 2 * r)) {
+                super.fillCircle(x, y, r);
+            }
+        }
+
+        @Override
+        public void drawText(int x, int y, String text, int fontSize) {
+            if (this.touches(x, y - fontSize, text.length() * fontSize, fontSize + fontSize / 2)) {
+                super.drawText(x, y, text, fontSize);
+            }
+        }
+
+        @Override
+        public void drawImage(int x, int y, Image image) {
+            int fromX = Math.max(this.left, x);
+            int fromY = Math.max(this.top, y);
+            int toX = Math.min(this.right, x + image.getWidth(null));
+            int toY = Math.min(this.bottom, y + image.getHeight(null));
+            if (fromX < toX && fromY < toY) {
+                this.getGraphics().drawImage(image, fromX, fromY, toX, toY,
+                        fromX - x, fromY - y, toX - x, toY - y, null);
+            }
+        }
+    }
+
+    /**
+     * What a sprite drew in the last frame.
+     */
+    private static final class Regions {
+        private int[] bounds = new int[0];
+        private long[] hashes = new long[0];
+        private int calls;
+        //The bounding box of all the calls
+        private int left;
+        private int top;
+        private int right;
+        private int bottom;
+        private int frameNumber;
+
+        private void set(int newCalls, int[] newBounds, long[] newHashes) {
+            if (this.hashes.length < newCalls) {
+                this.hashes = new long[newCalls];
+                this.bounds = new int[newCalls * 4];
+            }
+            System.arraycopy(newBounds, 0, this.bounds, 0, newCalls * 4);
+            System.arraycopy(newHashes, 0, this.hashes, 0, newCalls);
+            this.calls = newCalls;
+            this.left = Integer.MAX_VALUE;
+            this.top = Integer.MAX_VALUE;
+            this.right = Integer.MIN_VALUE;
+            this.bottom = Integer.MIN_VALUE;
+            for (int i = 0; i < newCalls * 4; i += 4) {
+                this.left = Math.min(this.left, this.bounds[i]);
+                this.top = Math.min(this.top, this.bounds[i + 1]);
+                this.right = Math.max(this.right, this.bounds[i + 2]);
+                this.bottom = Math.max(this.bottom, this.bounds[i + 3]);
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package game.gui;
 
 import biuoop.DrawSurface;
 import game.geometry.Point;
+import game.geometry.Transform;
 
 import java.awt.Color;
 
@@ -31,6 +32,22 @@ public class DoubleText implements Sprite {
         this.text.drawOn(d);
     }
 
+    @Override
+    public void drawOn(DrawSurface d, Transform transform) {
+        this.text.drawOn(d, transform, this.offset, this.shadowColor);
+        this.text.drawOn(d, transform);
+    }
+
+    /**
+     * Text does not change by itself, so it is static.
+     *
+     * @return true
+     */
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
+
     @Override
     public void timePassed() {
     }
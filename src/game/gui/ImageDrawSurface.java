@@ -0,0 +1,155 @@
+package game.gui;
+
+import biuoop.AlphaChannelNotSupportedException;
+import biuoop.DrawSurface;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.Polygon;
+import java.awt.image.BufferedImage;
+
+/**
+ * A {@link DrawSurface} that draws into an image instead of the screen.
+ *
+ * <p>Every call draws exactly what the GUI would draw for it, with the same restrictions (colors may not be
+ * transparent), so whatever is drawn on the image looks the same as if it had been drawn directly.
+ */
+public class ImageDrawSurface implements DrawSurface {
+    private static final int OPAQUE = 255;
+    private final BufferedImage image;
+    private final Graphics2D graphics;
+
+    /**
+     * Instantiates a new surface that draws into a new transparent image of the given size.
+     *
+     * @param width  the width
+     * @param height the height
+     */
+    public ImageDrawSurface(int width, int height) {
+        this(width, height, false);
+    }
+
+    /**
+     * Instantiates a new surface that draws into a new image of the given size. An opaque image starts black, and
+     * is faster to draw on the screen. A transparent image keeps its colors premultiplied by their alpha, which is
+     * faster to draw on other images, and looks the same since every pixel is either fully opaque or fully
+     * transparent.
+     *
+     * @param width  the width
+     * @param height the height
+     * @param opaque whether the image is opaque
+     */
+    public ImageDrawSurface(int width, int height, boolean opaque) {
+        this.image = new BufferedImage(width, height,
+                opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE);
+        this.graphics = this.image.createGraphics();
+        //Like the GUI, which starts drawing in black
+        this.graphics.setColor(Color.BLACK);
+    }
+
+    /**
+     * Returns the image that is drawn into.
+     *
+     * @return the image
+     */
+    public BufferedImage getImage() {
+        return this.image;
+    }
+
+    /**
+     * Returns the graphics that draw into the image.
+     *
+     * @return the graphics
+     */
+    protected Graphics2D getGraphics() {
+        return this.graphics;
+    }
+
+    /**
+     * Releases the resources used for drawing, and returns the image. Nothing can be drawn afterwards.
+     *
+     * @return the image
+     */
+    public BufferedImage finish() {
+        this.graphics.dispose();
+        return this.image;
+    }
+
+    @Override
+    public int getWidth() {
+        return this.image.getWidth();
+    }
+
+    @Override
+    public int getHeight() {
+        return this.image.getHeight();
+    }
+
+    @Override
+    public void setColor(Color color) {
+        if (color.getAlpha() != OPAQUE) {
+            throw new AlphaChannelNotSupportedException(
+                    "Alpha may not be used, the color provided had an alpha value of " + color.getAlpha());
+        }
+        this.graphics.setColor(color);
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        this.graphics.drawLine(x1, y1, x2, y2);
+    }
+
+    @Override
+    public void drawOval(int x, int y, int width, int height) {
+        this.graphics.drawOval(x, y, width, height);
+    }
+
+    @Override
+    public void fillOval(int x, int y, int width, int height) {
+        this.graphics.fillOval(x, y, width, height);
+    }
+
+    @Override
+    public void drawRectangle(int x, int y, int width, int height) {
+        this.graphics.drawRect(x, y, width, height);
+    }
+
+    @Override
+    public void fillRectangle(int x, int y, int width, int height) {
+        this.graphics.fillRect(x, y, width, height);
+    }
+
+    @Override
+    public void drawImage(int x, int y, Image img) {
+        this.graphics.drawImage(img, x, y, null);
+    }
+
+    @Override
+    public void drawCircle(int x, int y, int r) {
+        this.graphics.drawOval(x - r, y - r, r * 2, r * 2);
+    }
+
+    @Override
+    public void fillCircle(int x, int y, int r) {
+        this.graphics.fillOval(x - r, y - r, r * 2, r * 2);
+    }
+
+    @Override
+    public void drawText(int x, int y, String text, int fontSize) {
+        Font font = this.graphics.getFont();
+        this.graphics.setFont(new Font(font.getFontName(), font.getStyle(), fontSize));
+        this.graphics.drawString(text, x, y);
+    }
+
+    @Override
+    public void drawPolygon(Polygon polygon) {
+        this.graphics.drawPolygon(polygon);
+    }
+
+    @Override
+    public void fillPolygon(Polygon polygon) {
+        this.graphics.fillPolygon(polygon);
+    }
+}
@@ -2,8 +2,10 @@ package game.gui;
 
 import biuoop.DrawSurface;
 import game.geometry.Point;
+import game.geometry.Transform;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class MultiSprite implements Sprite {
@@ -26,6 +28,37 @@ public class MultiSprite implements Sprite {
         }
     }
 
+    @Override
+    public void drawOn(DrawSurface d, Transform transform) {
+        for (Sprite sprite : this.sprites) {
+            sprite.drawOn(d, transform);
+        }
+    }
+
+    /**
+     * Returns the sprites, in the order they are drawn.
+     *
+     * @return the sprites
+     */
+    public List<Sprite> getSprites() {
+        return Collections.unmodifiableList(this.sprites);
+    }
+
+    /**
+     * A multi-sprite is static if all its sprites are static.
+     *
+     * @return whether all the sprites are static
+     */
+    @Override
+    public boolean isStatic() {
+        for (Sprite sprite : this.sprites) {
+            if (!sprite.isStatic()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public MultiSprite getCurrentSpriteFrame() {
         List<Sprite> currentSprites = new ArrayList<>();
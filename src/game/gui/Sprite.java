@@ -2,6 +2,7 @@ package game.gui;
 
 import biuoop.DrawSurface;
 import game.geometry.Point;
+import game.geometry.Transform;
 
 /**
  * Objects that can be displayed and moved on a screen.
@@ -14,6 +15,47 @@ public interface Sprite {
      */
     void drawOn(DrawSurface d);
 
+    /**
+     * Draws the sprite on the given {@link DrawSurface}, between its state before the last call to
+     * {@link #timePassed()} (alpha = 0) and its current state (alpha = 1). Sprites that do not move smoothly just
+     * draw their current state.
+     *
+     * @param d     the surface
+     * @param alpha the proportion between the previous state and the current one
+     */
+    default void drawOn(DrawSurface d, double alpha) {
+        drawOn(d);
+    }
+
+    /**
+     * Draws the current frame of the sprite on the given {@link DrawSurface} as if it had been scaled and moved by
+     * the given transform, without changing it. Used by animations, so they do not have to create a moved or scaled
+     * copy of the sprite every frame.
+     *
+     * <p>Sprites that do not draw themselves with a transform create a transformed copy, and draw it.
+     *
+     * @param d         the surface
+     * @param transform the transform
+     */
+    default void drawOn(DrawSurface d, Transform transform) {
+        Sprite frame = this.getCurrentSpriteFrame();
+        if (transform.getScale() != 1) {
+            frame = frame.scale(transform.getScale(), new Point(0, 0));
+        }
+        frame.moveX(transform.getDx()).moveY(transform.getDy()).drawOn(d);
+    }
+
+    /**
+     * Returns whether the sprite always looks the same - it does not move or animate by itself as time passes.
+     * Static sprites can be drawn once and reused, for example in a {@link BakedBackground}.
+     * Sprites are not static unless they say so.
+     *
+     * @return whether the sprite is static
+     */
+    default boolean isStatic() {
+        return false;
+    }
+
     /**
      * Notifies the sprite that time has passed - the sprite will move according to its implementation.
      */
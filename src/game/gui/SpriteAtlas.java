@@ -0,0 +1,103 @@
+package game.gui;
+
+import biuoop.DrawSurface;
+import game.geometry.Transform;
+import game.logic.DoubleMethods;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Images of a static sprite at many scales, drawn once and then reused, so a sprite made of many shapes can be drawn
+ * with a single {@link DrawSurface#drawImage} call.
+ *
+ * <p>Scales are grouped into buckets one pixel apart - two scales share an image if the sprite reaches the same
+ * whole number of pixels from its center at both. The image of a bucket is drawn the first time it is needed, so an
+ * animation that scales the sprite up and down fills the buckets it passes through once, and then only reuses them.
+ * Scales past the largest bucket are drawn at the largest bucket, so a huge scale cannot allocate a huge image.
+ */
+public class SpriteAtlas {
+    //Room around the sprite for outlines drawn past its edges
+    private static final int MARGIN = 2;
+    //The largest bucket, whose image is about 1000 pixels wide
+    private static final int MAX_BUCKET = 512;
+    private final Sprite sprite;
+    private final double extent;
+    //The image of each bucket, by its size in pixels
+    private final List<BufferedImage> images;
+
+    /**
+     * Instantiates a new atlas of a static sprite centered on (0, 0).
+     *
+     * @param sprite the sprite
+     * @param extent the farthest the sprite reaches from (0, 0) on either axis, at a scale of 1, at least 0
+     */
+    public SpriteAtlas(Sprite sprite, double extent) {
+        if (!(extent >= 0)) {
+            throw new IllegalArgumentException("extent must be at least 0, not " + extent);
+        }
+        this.sprite = sprite;
+        this.extent = extent;
+        this.images = new ArrayList<>();
+    }
+
+    /**
+     * Draws the sprite scaled by the given factor, with its center at the given coordinates.
+     *
+     * @param d     the surface
+     * @param x     the x coordinate of the center
+     * @param y     the y coordinate of the center
+     * @param scale the scale factor
+     */
+    public void drawOn(DrawSurface d, double x, double y, double scale) {
+        BufferedImage image = this.getImage(scale);
+        int half = image.getWidth() / 2;
+        d.drawImage(DoubleMethods.round(x) - half, DoubleMethods.round(y) - half, image);
+    }
+
+    /**
+     * Returns the image of the bucket of the given scale, with the center of the sprite in the middle of the image.
+     *
+     * @param scale the scale factor
+     * @return the image
+     */
+    public synchronized BufferedImage getImage(double scale) {
+        int bucket = DoubleMethods.round(Math.min(MAX_BUCKET, Math.max(0, scale * this.extent)));
+        while (this.images.size() <= bucket) {
+            this.images.add(null);
+        }
+        BufferedImage image = this.images.get(bucket);
+        if (image == null) {
+            image = this.drawBucket(bucket);
+            this.images.set(bucket, image);
+        }
+        return image;
+    }
+
+    /**
+     * Returns the number of images that have been drawn so far.
+     *
+     * @return the number of images
+     */
+    public synchronized int getNumberOfImages() {
+        int count = 0;
+        for (BufferedImage image : this.images) {
+            if (image != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private BufferedImage drawBucket(int bucket) {
+        int half = bucket + MARGIN;
+        ImageDrawSurface surface = new ImageDrawSurface(2 * half + 1, 2 * half + 1);
+        Transform transform = new Transform();
+        //A sprite that reaches nowhere from its center looks the same at every scale
+        transform.scale(this.extent == 0 ? 1 : bucket / this.extent, 0, 0);
+        transform.translate(half, half);
+        this.sprite.drawOn(surface, transform);
+        return surface.finish();
+    }
+}
@@ -2,33 +2,76 @@ package game.gui;
 
 import biuoop.DrawSurface;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * A collection of {@link Sprite} objects.
+ *
+ * <p>The sprites are kept in a dense array, in the order they were added (which is also the order they are drawn).
+ * Removing a sprite only leaves an empty slot (a tombstone) behind, so it takes constant time and can safely happen
+ * while the sprites are being notified or drawn. The empty slots are squeezed out later, once there are enough of
+ * them, without changing the order of the remaining sprites.
  */
 public class SpriteCollection {
-    private final List<Sprite> sprites;
+    private static final int INITIAL_CAPACITY = 16;
+    //Compacting once at least this proportion of the slots are empty
+    private static final double COMPACT_RATIO = 0.25;
+    //Small collections are not worth compacting
+    private static final int MIN_COMPACT_SLOTS = 32;
+    private Sprite[] sprites;
+    private Handle[] handles;
+    //The number of used slots, including empty ones
+    private int slots;
+    //The number of sprites
+    private int size;
+    //Finds the handle of a sprite that is removed by reference
+    private final Map<Sprite, Handle> handlesBySprite;
+    //Greater than 0 while the sprites are being iterated, when compacting would move them under the iteration
+    private int iterating;
 
     /**
      * Instantiates a new Sprite collection.
      */
     public SpriteCollection() {
-        this.sprites = new LinkedList<>();
+        this.sprites = new Sprite[INITIAL_CAPACITY];
+        this.handles = new Handle[INITIAL_CAPACITY];
+        this.handlesBySprite = new IdentityHashMap<>();
     }
 
     /**
      * Adds a sprite to the collection.
      *
      * @param s the s
+     * @return the handle of the sprite, or null if it could not be added
      */
-    public void addSprite(Sprite s) {
-        if (s != null) {
-            this.sprites.add(s);
-        } else {
+    public Handle addSprite(Sprite s) {
+        if (s == null) {
             System.out.println("Warning: attempted to add null to SpriteCollection");
+            return null;
         }
+        Handle existing = this.handlesBySprite.get(s);
+        if (existing != null) {
+            System.out.println("Warning: attempted to add a sprite to SpriteCollection twice");
+            return existing;
+        }
+        if (this.slots == this.sprites.length) {
+            if (this.iterating == 0 && this.shouldCompact()) {
+                this.compact();
+            } else {
+                this.sprites = Arrays.copyOf(this.sprites, this.sprites.length * 2);
+                this.handles = Arrays.copyOf(this.handles, this.handles.length * 2);
+            }
+        }
+        Handle handle = new Handle(s, this.slots);
+        this.sprites[this.slots] = s;
+        this.handles[this.slots] = handle;
+        this.slots++;
+        this.size++;
+        this.handlesBySprite.put(s, handle);
+        return handle;
     }
 
     /**
@@ -37,17 +80,61 @@ public class SpriteCollection {
      * @param s the sprite
      */
     public void removeSprite(Sprite s) {
-        this.sprites.remove(s);
+        Handle handle = this.handlesBySprite.get(s);
+        if (handle != null) {
+            this.removeSprite(handle);
+        }
+    }
+
+    /**
+     * Removes the sprite of a handle. Does nothing if it has already been removed, or is of another collection.
+     *
+     * @param handle the handle
+     */
+    public void removeSprite(Handle handle) {
+        //A handle of another collection may point past the end of this one
+        if (!handle.isValid() || handle.index >= this.handles.length || this.handles[handle.index] != handle) {
+            return;
+        }
+        this.sprites[handle.index] = null;
+        this.handles[handle.index] = null;
+        handle.index = -1;
+        this.size--;
+        this.handlesBySprite.remove(handle.sprite);
+        if (this.iterating == 0 && this.shouldCompact()) {
+            this.compact();
+        }
+    }
+
+    /**
+     * Returns the number of sprites in the collection.
+     *
+     * @return the number of sprites
+     */
+    public int size() {
+        return this.size;
     }
 
     /**
      * call {@link Sprite#timePassed()} on all sprites.
+     * Sprites added during the call are first notified on the next call, and sprites removed during the call are not
+     * notified.
      */
     public void notifyAllTimePassed() {
-        List<Sprite> sprites = new LinkedList<>(this.sprites);
-
-        for (Sprite sprite : sprites) {
-            sprite.timePassed();
+        this.iterating++;
+        try {
+            int end = this.slots;
+            for (int i = 0; i < end; i++) {
+                Sprite sprite = this.sprites[i];
+                if (sprite != null) {
+                    sprite.timePassed();
+                }
+            }
+        } finally {
+            this.iterating--;
+        }
+        if (this.iterating == 0 && this.shouldCompact()) {
+            this.compact();
         }
     }
 
@@ -57,17 +144,126 @@ public class SpriteCollection {
      * @param d the draw surface
      */
     public void drawAllOn(DrawSurface d) {
-        for (Sprite sprite : this.sprites) {
-            sprite.drawOn(d);
+        this.iterating++;
+        try {
+            int end = this.slots;
+            for (int i = 0; i < end; i++) {
+                Sprite sprite = this.sprites[i];
+                if (sprite != null) {
+                    sprite.drawOn(d);
+                }
+            }
+        } finally {
+            this.iterating--;
+        }
+    }
+
+    /**
+     * call {@link Sprite#drawOn(DrawSurface, double)} on all sprites.
+     *
+     * @param d     the draw surface
+     * @param alpha the proportion between the previous state of the sprites and the current one
+     */
+    public void drawAllOn(DrawSurface d, double alpha) {
+        this.iterating++;
+        try {
+            int end = this.slots;
+            for (int i = 0; i < end; i++) {
+                Sprite sprite = this.sprites[i];
+                if (sprite != null) {
+                    sprite.drawOn(d, alpha);
+                }
+            }
+        } finally {
+            this.iterating--;
         }
     }
 
+    /**
+     * Performs an action on all sprites, in the order they are drawn.
+     *
+     * @param action the action
+     */
+    public void forEach(Consumer<Sprite> action) {
+        this.iterating++;
+        try {
+            int end = this.slots;
+            for (int i = 0; i < end; i++) {
+                Sprite sprite = this.sprites[i];
+                if (sprite != null) {
+                    action.accept(sprite);
+                }
+            }
+        } finally {
+            this.iterating--;
+        }
+    }
+
+    private boolean shouldCompact() {
+        int empty = this.slots - this.size;
+        return this.slots >= MIN_COMPACT_SLOTS && empty >= this.slots * COMPACT_RATIO;
+    }
+
+    /**
+     * Moves the sprites over the empty slots, keeping their order, and updates their handles.
+     */
+    private void compact() {
+        int to = 0;
+        for (int from = 0; from < this.slots; from++) {
+            Sprite sprite = this.sprites[from];
+            if (sprite != null) {
+                Handle handle = this.handles[from];
+                this.sprites[to] = sprite;
+                this.handles[to] = handle;
+                handle.index = to;
+                to++;
+            }
+        }
+        Arrays.fill(this.sprites, to, this.slots, null);
+        Arrays.fill(this.handles, to, this.slots, null);
+        this.slots = to;
+    }
+
     @Override
     public String toString() {
         String sb = "";
-        for (Sprite sprite : this.sprites) {
-            sb += sprite + "\n";
+        for (int i = 0; i < this.slots; i++) {
+            if (this.sprites[i] != null) {
+                sb += this.sprites[i] + "\n";
+            }
         }
         return sb;
     }
-}
\ No newline at end of file
+
+    /**
+     * Identifies a sprite in a {@link SpriteCollection}, so it can be removed without searching for it.
+     */
+    public static final class Handle {
+        private final Sprite sprite;
+        //The slot of the sprite, or -1 once it has been removed
+        private int index;
+
+        private Handle(Sprite sprite, int index) {
+            this.sprite = sprite;
+            this.index = index;
+        }
+
+        /**
+         * Returns the sprite.
+         *
+         * @return the sprite
+         */
+        public Sprite sprite() {
+            return this.sprite;
+        }
+
+        /**
+         * Returns whether the sprite is still in the collection.
+         *
+         * @return whether the sprite is still in the collection
+         */
+        public boolean isValid() {
+            return this.index >= 0;
+        }
+    }
+}
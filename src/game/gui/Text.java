@@ -2,6 +2,7 @@ package game.gui;
 
 import biuoop.DrawSurface;
 import game.geometry.Point;
+import game.geometry.Transform;
 import game.geometry.shapes.Line;
 import game.geometry.shapes.Rectangle;
 import game.logic.DoubleMethods;
@@ -75,6 +76,39 @@ public class Text implements Sprite {
         d.drawText(x, y, this.text, textSize);
     }
 
+    @Override
+    public void drawOn(DrawSurface d, Transform transform) {
+        this.drawOn(d, transform, 0, this.color);
+    }
+
+    /**
+     * Draws the text moved by the given offset on both axes, in the given color, and then scaled and moved by the
+     * given transform.
+     *
+     * @param d         the surface
+     * @param transform the transform
+     * @param offset    the offset
+     * @param textColor the color
+     */
+    void drawOn(DrawSurface d, Transform transform, double offset, Color textColor) {
+        double textSize = transform.applyLength(this.size);
+        int x = DoubleMethods.round(transform.applyX(this.position.getX() + offset));
+        int y = DoubleMethods.round(transform.applyY(this.position.getY() + offset) + textSize);
+
+        d.setColor(textColor);
+        d.drawText(x, y, this.text, DoubleMethods.round(textSize * SCALE_FIX));
+    }
+
+    /**
+     * Text does not change by itself, so it is static.
+     *
+     * @return true
+     */
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
+
     @Override
     public void timePassed() {
     }
@@ -1,5 +1,6 @@
 package game.gui.animated_sprites.animation_types;
 
+import game.geometry.Transform;
 import game.gui.Sprite;
 
 public class MoveXAnimation extends SpriteAnimation {
@@ -11,4 +12,9 @@ public class MoveXAnimation extends SpriteAnimation {
     protected Sprite applyAnimation(Sprite currentSprite, double position) {
         return currentSprite.moveX(position);
     }
+
+    @Override
+    protected void applyAnimation(Transform currentTransform, double position, double centerX, double centerY) {
+        currentTransform.translate(position, 0);
+    }
 }
@@ -1,5 +1,6 @@
 package game.gui.animated_sprites.animation_types;
 
+import game.geometry.Transform;
 import game.gui.Sprite;
 
 public class MoveYAnimation extends SpriteAnimation {
@@ -11,4 +12,9 @@ public class MoveYAnimation extends SpriteAnimation {
     protected Sprite applyAnimation(Sprite currentSprite, double position) {
         return currentSprite.moveY(position);
     }
+
+    @Override
+    protected void applyAnimation(Transform currentTransform, double position, double centerX, double centerY) {
+        currentTransform.translate(0, position);
+    }
 }
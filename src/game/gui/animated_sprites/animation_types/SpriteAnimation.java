@@ -2,8 +2,10 @@ package game.gui.animated_sprites.animation_types;
 
 import biuoop.DrawSurface;
 import game.geometry.Point;
+import game.geometry.Transform;
 import game.gui.Sprite;
 import game.gui.animated_sprites.phases.AnimationPhase;
+import game.gui.animated_sprites.phases.PhaseTable;
 
 public abstract class SpriteAnimation implements Sprite {
     //Number of milliseconds in a second
@@ -15,6 +17,15 @@ public abstract class SpriteAnimation implements Sprite {
     private long offset;
     private final int fps;
     private AnimationPhase phase;
+    //The positions of the phase at every frame, and the number of frames in one run of it
+    private PhaseTable table;
+    private long animationFrames;
+    //The transform of the current frame, including the animations of the animated sprite, and the transform it is
+    //drawn with - reused every frame
+    private final Transform transform;
+    private final Transform drawTransform;
+    //The center of the sprite that is animated (under all the animations), which does not change
+    private Point baseCenter;
 
     public SpriteAnimation(Sprite sprite, int fps) {
         this.sprite = sprite;
@@ -22,10 +33,24 @@ public abstract class SpriteAnimation implements Sprite {
         this.repeat = false;
         this.fps = fps;
         this.offset = 0;
+        this.transform = new Transform();
+        this.drawTransform = new Transform();
     }
 
     protected abstract Sprite applyAnimation(Sprite currentSprite, double position);
 
+    /**
+     * Applies the animation to the transform of the current frame of the animated sprite, like
+     * {@link #applyAnimation(Sprite, double)} applies it to the sprite itself.
+     *
+     * @param currentTransform the transform of the current frame of the animated sprite
+     * @param position         the position in the animation
+     * @param centerX          the x coordinate of the center of the current frame of the animated sprite
+     * @param centerY          the y coordinate of the center of the current frame of the animated sprite
+     */
+    protected abstract void applyAnimation(Transform currentTransform, double position, double centerX,
+                                           double centerY);
+
     protected Sprite getSprite() {
         return this.sprite;
     }
@@ -36,7 +61,7 @@ public abstract class SpriteAnimation implements Sprite {
 
     public void enableRepeat(AnimationPhase phase) {
         this.repeat = true;
-        this.phase = phase;
+        this.setPhase(phase);
     }
 
     public void disableRepeat() {
@@ -50,7 +75,15 @@ public abstract class SpriteAnimation implements Sprite {
     public void beginAnimation(AnimationPhase phase) {
         running = true;
         currentFrame = 0;
-        this.phase = phase;
+        this.setPhase(phase);
+    }
+
+    private void setPhase(AnimationPhase phase) {
+        if (phase != this.phase) {
+            this.phase = phase;
+            this.table = PhaseTable.compile(phase, this.fps);
+            this.animationFrames = this.table.getAnimationFrames();
+        }
     }
 
     public boolean isRunning() {
@@ -70,26 +103,86 @@ public abstract class SpriteAnimation implements Sprite {
         if (running) {
             currentFrame++;
 
-            long numberOfAnimationFrames = (long) this.fps * this.phase.getAnimationTime() / MS_IN_SECOND;
             //Finished an animation loop
-            if (currentFrame == numberOfAnimationFrames) {
+            if (currentFrame == this.animationFrames) {
                 running = false;
             }
         }
     }
 
+    /**
+     * Draws the current frame. The sprite under the animations is drawn with their combined transform, so no copy
+     * of it is created - unless it is animated by itself, in which case its current frame is copied and animated.
+     *
+     * @param d the surface
+     */
     @Override
     public void drawOn(DrawSurface d) {
-        Sprite currentSprite = this.getCurrentSpriteFrame();
-        currentSprite.drawOn(d);
+        Sprite base = this.getBaseSprite();
+        if (!base.isStatic()) {
+            this.getCurrentSpriteFrame().drawOn(d);
+            return;
+        }
+        base.drawOn(d, this.getCurrentTransform());
+    }
+
+    @Override
+    public void drawOn(DrawSurface d, Transform outer) {
+        Sprite base = this.getBaseSprite();
+        if (!base.isStatic()) {
+            Sprite.super.drawOn(d, outer);
+            return;
+        }
+        this.drawTransform.setCombined(outer, this.getCurrentTransform());
+        base.drawOn(d, this.drawTransform);
     }
 
     @Override
     public Sprite getCurrentSpriteFrame() {
-        long timePassed = (long) MS_IN_SECOND * (this.currentFrame + offset) / this.fps;
-        double position = this.phase.getPosition(timePassed % (this.phase.getAnimationTime() + 1000 / this.fps + 1));
         Sprite subSpriteFrame = this.sprite.getCurrentSpriteFrame();
-        return this.applyAnimation(subSpriteFrame, position);
+        return this.applyAnimation(subSpriteFrame, this.getPosition());
+    }
+
+    /**
+     * Returns the transform of the current frame - of this animation and all the animations under it - relative to
+     * the sprite under all of them. Only valid while that sprite is static.
+     *
+     * @return the transform, which is changed by the next call
+     */
+    protected Transform getCurrentTransform() {
+        if (this.sprite instanceof SpriteAnimation) {
+            this.transform.set(((SpriteAnimation) this.sprite).getCurrentTransform());
+        } else {
+            this.transform.setIdentity();
+        }
+        Point center = this.getBaseCenter();
+        this.applyAnimation(this.transform, this.getPosition(),
+                this.transform.applyX(center.getX()), this.transform.applyY(center.getY()));
+        return this.transform;
+    }
+
+    /**
+     * Returns the sprite under all the animations.
+     *
+     * @return the sprite
+     */
+    private Sprite getBaseSprite() {
+        Sprite base = this.sprite;
+        while (base instanceof SpriteAnimation) {
+            base = ((SpriteAnimation) base).sprite;
+        }
+        return base;
+    }
+
+    private Point getBaseCenter() {
+        if (this.baseCenter == null) {
+            this.baseCenter = this.getBaseSprite().getCenter();
+        }
+        return this.baseCenter;
+    }
+
+    private double getPosition() {
+        return this.table.getPosition(this.currentFrame + this.offset);
     }
 
 
@@ -1,5 +1,11 @@
 package game.gui.animated_sprites.phases;
 
+/**
+ * A curve an animation follows over time.
+ *
+ * <p>The position must only depend on the time passed, since animations look it up in a {@link PhaseTable} computed
+ * in advance. Phases with equal parameters should be equal, so they share a table.
+ */
 public interface AnimationPhase {
     double getPosition(long timePassed);
     long getAnimationTime();
@@ -1,10 +1,12 @@
 package game.gui.animated_sprites.phases;
 
+import java.util.Objects;
+
 public class FadeIn implements AnimationPhase {
     private static final double FACTOR = -6;
-    private double start;
-    private double end;
-    private long animationTime;
+    private final double start;
+    private final double end;
+    private final long animationTime;
 
     public FadeIn(double start, double end, long animationTime) {
         this.start = start;
@@ -28,4 +30,26 @@ public class FadeIn implements AnimationPhase {
     public long getAnimationTime() {
         return this.animationTime;
     }
+
+    /**
+     * Fade-ins are equal if they are of the same class and have the same values, so they can share a
+     * {@link PhaseTable}.
+     *
+     * @param o the other object
+     * @return whether the objects are equal
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || o.getClass() != this.getClass()) {
+            return false;
+        }
+        FadeIn other = (FadeIn) o;
+        return Double.compare(this.start, other.start) == 0 && Double.compare(this.end, other.end) == 0
+                && this.animationTime == other.animationTime;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.getClass(), this.start, this.end, this.animationTime);
+    }
 }
@@ -0,0 +1,156 @@
+package game.gui.animated_sprites.phases;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The positions of an {@link AnimationPhase} at every frame of an animation running at a fixed number of frames per
+ * second, computed once and looked up by the frame number.
+ *
+ * <p>Tables are shared by all the animations with equal phases and the same frames per second, so many sprites
+ * animated the same way (like twinkling stars) compute the curve only once.
+ *
+ * <p>The positions repeat with the animation time, so the table only holds a single cycle of frames, and a later
+ * frame is looked up in the cycle - whatever the offset into the animation, the table stays the same size. The table
+ * grows as later frames of the cycle are needed. Negative frames, and phases whose cycle is longer than
+ * {@link #MAX_FRAMES}, are computed by the phase itself.
+ */
+public final class PhaseTable {
+    //Number of milliseconds in a second
+    private static final int MS_IN_SECOND = 1000;
+    private static final int INITIAL_SIZE = 64;
+    //The most frames a table holds
+    private static final int MAX_FRAMES = 1 << 20;
+    private static final Map<Key, PhaseTable> TABLES = new ConcurrentHashMap<>();
+    private final AnimationPhase phase;
+    private final int fps;
+    //The animation time repeats after this many milliseconds
+    private final long period;
+    //The frames repeat after this many frames, or 0 if the cycle is longer than MAX_FRAMES
+    private final int cycle;
+    private volatile double[] positions;
+
+    private PhaseTable(AnimationPhase phase, int fps) {
+        this.phase = phase;
+        this.fps = fps;
+        this.period = phase.getAnimationTime() + MS_IN_SECOND / fps + 1;
+        this.cycle = cycleOf(fps, this.period);
+        this.positions = new double[0];
+    }
+
+    /**
+     * Returns the number of frames after which the positions repeat. Frame f is at (MS_IN_SECOND * f / fps) % period
+     * milliseconds into the phase, which comes back to the same time once MS_IN_SECOND * f has grown by a multiple of
+     * both fps and fps * period - that is, after fps * period / gcd(MS_IN_SECOND, fps * period) frames.
+     *
+     * @return the number of frames, or 0 if it is more than {@link #MAX_FRAMES}
+     */
+    private static int cycleOf(int fps, long period) {
+        if (fps <= 0 || period <= 0 || period > MAX_FRAMES * (long) MS_IN_SECOND) {
+            return 0;
+        }
+        long framesTimesMs = fps * period;
+        long cycle = framesTimesMs / gcd(MS_IN_SECOND, framesTimesMs);
+        return cycle > MAX_FRAMES ? 0 : (int) cycle;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long remainder = a % b;
+            a = b;
+            b = remainder;
+        }
+        return a;
+    }
+
+    /**
+     * Returns the table of the given phase at the given number of frames per second, creating it if no equal phase
+     * has been compiled at that rate before.
+     *
+     * @param phase the phase
+     * @param fps   the frames per second
+     * @return the table
+     */
+    public static PhaseTable compile(AnimationPhase phase, int fps) {
+        return TABLES.computeIfAbsent(new Key(phase, fps), key -> new PhaseTable(key.phase, key.fps));
+    }
+
+    /**
+     * Returns the number of frames one run of the animation takes.
+     *
+     * @return the number of frames
+     */
+    public long getAnimationFrames() {
+        return (long) this.fps * this.phase.getAnimationTime() / MS_IN_SECOND;
+    }
+
+    /**
+     * Returns the position of the phase at the given frame, exactly as the phase itself would compute it.
+     *
+     * @param frame the frame number, counted from the start of the animation
+     * @return the position
+     */
+    public double getPosition(long frame) {
+        if (frame < 0 || this.cycle == 0) {
+            return this.phase.getPosition(this.timeAt(frame));
+        }
+        int index = (int) (frame % this.cycle);
+        double[] current = this.positions;
+        if (index < current.length) {
+            return current[index];
+        }
+        return this.grow(index)[index];
+    }
+
+    private long timeAt(long frame) {
+        return (long) MS_IN_SECOND * frame / this.fps % this.period;
+    }
+
+    private synchronized double[] grow(int index) {
+        double[] current = this.positions;
+        if (index < current.length) {
+            return current;
+        }
+        //The cycle is at most MAX_FRAMES, so doubling up to it never overflows
+        int size = Math.max(INITIAL_SIZE, current.length);
+        while (size <= index) {
+            size *= 2;
+        }
+        size = Math.min(size, this.cycle);
+        double[] grown = Arrays.copyOf(current, size);
+        for (int i = current.length; i < size; i++) {
+            grown[i] = this.phase.getPosition(this.timeAt(i));
+        }
+        this.positions = grown;
+        return grown;
+    }
+
+    /**
+     * Identifies a table by its phase and frames per second.
+     */
+    private static final class Key {
+        private final AnimationPhase phase;
+        private final int fps;
+
+        private Key(AnimationPhase phase, int fps) {
+            this.phase = phase;
+            this.fps = fps;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return this.fps == other.fps && this.phase.equals(other.phase);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.phase, this.fps);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package game.gui.animated_sprites.phases;
 
+import java.util.Objects;
+
 public class Sine implements AnimationPhase {
 
     private final double amplitude;
@@ -21,4 +23,26 @@ public class Sine implements AnimationPhase {
     public long getAnimationTime() {
         return this.animationTime;
     }
+
+    /**
+     * Sines are equal if they are of the same class and have the same values, so they can share a
+     * {@link PhaseTable}.
+     *
+     * @param o the other object
+     * @return whether the objects are equal
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || o.getClass() != this.getClass()) {
+            return false;
+        }
+        Sine other = (Sine) o;
+        return Double.compare(this.amplitude, other.amplitude) == 0 && Double.compare(this.start, other.start) == 0
+                && this.animationTime == other.animationTime;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.getClass(), this.amplitude, this.start, this.animationTime);
+    }
 }
@@ -3,9 +3,12 @@ package game.gui.rectangular_objects;
 import biuoop.DrawSurface;
 import game.animations.GameLevel;
 import game.geometry.Point;
+import game.geometry.Transform;
 import game.geometry.shapes.Rectangle;
 import game.gui.Ball;
+import game.logic.DoubleMethods;
 import game.logic.physics.Collidable;
+import game.logic.physics.MutableVelocity;
 import game.logic.physics.Velocity;
 import game.logic.physics.hit_event.HitListener;
 import game.logic.physics.hit_event.HitNotifier;
@@ -22,8 +25,11 @@ import java.util.List;
  */
 public class Block extends RectSprite implements Collidable, HitNotifier {
     private static final Color DEFAULT_EDGE_COLOR = Color.BLACK;
+    private static final HitListener[] NO_LISTENERS = new HitListener[0];
     private Color edgeColor;
     private final List<HitListener> hitListeners;
+    //A copy of the listeners, made whenever they change, so notifying them does not copy them again
+    private HitListener[] notifiedListeners;
 
 
     /**
@@ -37,6 +43,7 @@ public class Block extends RectSprite implements Collidable, HitNotifier {
         super(rect, color);
         this.edgeColor = edgeColor;
         hitListeners = new ArrayList<>();
+        notifiedListeners = NO_LISTENERS;
     }
 
     /**
@@ -59,6 +66,7 @@ public class Block extends RectSprite implements Collidable, HitNotifier {
         super(rect);
         this.edgeColor = DEFAULT_EDGE_COLOR;
         hitListeners = new ArrayList<>();
+        notifiedListeners = NO_LISTENERS;
     }
 
     /**
@@ -155,15 +163,22 @@ public class Block extends RectSprite implements Collidable, HitNotifier {
 
     @Override
     public Velocity hit(Ball hitter, Point collisionPoint, Velocity currentVelocity) {
+        MutableVelocity velocity = new MutableVelocity(currentVelocity);
+        this.hit(hitter, collisionPoint.getX(), collisionPoint.getY(), velocity);
+        return velocity.toVelocity();
+    }
+
+    @Override
+    public void hit(Ball hitter, double pointX, double pointY, MutableVelocity velocity) {
         Rectangle rect = getRect();
-        double dx = currentVelocity.getDx();
-        double dy = currentVelocity.getDy();
+        double dx = velocity.getDx();
+        double dy = velocity.getDy();
 
         //Checking which lines the point is on
-        boolean upper = rect.getUpperLine().contains(collisionPoint);
-        boolean left = rect.getLeftLine().contains(collisionPoint);
-        boolean right = rect.getRightLine().contains(collisionPoint);
-        boolean lower = rect.getLowerLine().contains(collisionPoint);
+        boolean upper = isOnSide(pointX, pointY, rect.getLeft(), rect.getRight(), rect.getTop());
+        boolean left = isOnSide(pointY, pointX, rect.getTop(), rect.getBottom(), rect.getLeft());
+        boolean right = isOnSide(pointY, pointX, rect.getTop(), rect.getBottom(), rect.getRight());
+        boolean lower = isOnSide(pointX, pointY, rect.getLeft(), rect.getRight(), rect.getBottom());
         notifyHit(hitter);
 
         /*
@@ -176,18 +191,30 @@ public class Block extends RectSprite implements Collidable, HitNotifier {
          * impossible for an object to hit the upper side with a negative y velocity.
          */
         if (upper && dy > 0) {
-            return new Velocity(dx, -Math.abs(dy));
-        }
-        if (left && dx > 0) {
-            return new Velocity(-Math.abs(dx), dy);
+            velocity.set(dx, -Math.abs(dy));
+        } else if (left && dx > 0) {
+            velocity.set(-Math.abs(dx), dy);
+        } else if (right && dx < 0) {
+            velocity.set(Math.abs(dx), dy);
+        } else if (lower && dy < 0) {
+            velocity.set(dx, Math.abs(dy));
         }
-        if (right && dx < 0) {
-            return new Velocity(Math.abs(dx), dy);
-        }
-        if (lower && dy < 0) {
-            return new Velocity(dx, Math.abs(dy));
-        }
-        return currentVelocity;
+    }
+
+    /**
+     * Returns whether a point is on a horizontal or a vertical side of the rectangle, without creating the side's
+     * {@link game.geometry.shapes.Line}.
+     *
+     * @param along  the coordinate of the point along the side
+     * @param across the coordinate of the point across the side
+     * @param from   where the side starts
+     * @param to     where the side ends
+     * @param side   the coordinate of the side
+     * @return whether the point is on the side
+     */
+    protected static boolean isOnSide(double along, double across, double from, double to, double side) {
+        return DoubleMethods.equals(across, side)
+                && DoubleMethods.greaterOrEquals(along, from) && DoubleMethods.greaterOrEquals(to, along);
     }
 
     //Sprite methods
@@ -203,6 +230,45 @@ public class Block extends RectSprite implements Collidable, HitNotifier {
         super.drawEdges(d, this.edgeColor);
     }
 
+    /**
+     * Draws the block on a given {@link DrawSurface}, moved horizontally by the given offset, without moving it.
+     *
+     * @param d       the draw surface
+     * @param offsetX the horizontal offset
+     */
+    protected void drawMovedOn(DrawSurface d, double offsetX) {
+        Rectangle rect = super.getRect();
+        int x = DoubleMethods.round(rect.getLeft() + offsetX);
+        int y = DoubleMethods.round(rect.getTop());
+        int width = DoubleMethods.round(rect.getWidth());
+        int height = DoubleMethods.round(rect.getHeight());
+
+        d.setColor(super.getColor());
+        d.fillRectangle(x, y, width, height);
+        d.setColor(this.edgeColor);
+        d.drawRectangle(x, y, width, height);
+    }
+
+    /**
+     * Draws the block on a given {@link DrawSurface}, scaled and moved by the given transform.
+     *
+     * @param d         the draw surface
+     * @param transform the transform
+     */
+    @Override
+    public void drawOn(DrawSurface d, Transform transform) {
+        Rectangle rect = super.getRect();
+        int x = DoubleMethods.round(transform.applyX(rect.getLeft()));
+        int y = DoubleMethods.round(transform.applyY(rect.getTop()));
+        int width = DoubleMethods.round(transform.applyLength(rect.getWidth()));
+        int height = DoubleMethods.round(transform.applyLength(rect.getHeight()));
+
+        d.setColor(super.getColor());
+        d.fillRectangle(x, y, width, height);
+        d.setColor(this.edgeColor);
+        d.drawRectangle(x, y, width, height);
+    }
+
     /**
      * Blocks do not change after they have been created => Empty implementation.
      */
@@ -210,10 +276,20 @@ public class Block extends RectSprite implements Collidable, HitNotifier {
     public void timePassed() {
     }
 
+    /**
+     * Blocks do not change by themselves, so they are static.
+     *
+     * @return true
+     */
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
+
     //HitNotifier methods
     private void notifyHit(Ball hitter) {
-        // Make a copy of the hitListeners before iterating over them.
-        List<HitListener> listeners = new ArrayList<HitListener>(this.hitListeners);
+        // Use the copy of the hitListeners, so listeners can be added or removed while iterating over them.
+        HitListener[] listeners = this.notifiedListeners;
         // Notify all listeners about a hit event:
         for (HitListener hl : listeners) {
             hl.hitEvent(this, hitter);
@@ -224,12 +300,15 @@ public class Block extends RectSprite implements Collidable, HitNotifier {
     public void addHitListener(HitListener hl) {
         if (!this.hitListeners.contains(hl)) {
             this.hitListeners.add(hl);
+            this.notifiedListeners = this.hitListeners.toArray(NO_LISTENERS);
         }
     }
 
     @Override
     public void removeHitListener(HitListener hl) {
-        this.hitListeners.remove(hl);
+        if (this.hitListeners.remove(hl)) {
+            this.notifiedListeners = this.hitListeners.toArray(NO_LISTENERS);
+        }
     }
 
 
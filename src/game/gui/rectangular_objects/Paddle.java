@@ -3,10 +3,10 @@ package game.gui.rectangular_objects;
 import biuoop.DrawSurface;
 import biuoop.KeyboardSensor;
 import game.animations.GameLevel;
-import game.geometry.Point;
+import game.geometry.shapes.MutableRectangle;
 import game.geometry.shapes.Rectangle;
 import game.gui.Ball;
-import game.logic.physics.Velocity;
+import game.logic.physics.MutableVelocity;
 
 import java.awt.Color;
 
@@ -27,6 +27,12 @@ public class Paddle extends Block {
     private final double movingSpeed;
     private double leftBorder;
     private double rightBorder;
+    //The game the paddle was added to, notified whenever the paddle moves
+    private GameLevel game;
+    //The left of the paddle before the last move, for drawing between moves
+    private double previousLeft;
+    //Moved in place, so moving the paddle does not create a new rectangle every frame
+    private final MutableRectangle bounds;
 
     /**
      * Instantiates a new Paddle from a rectangle, moving speed, color, left and right borders, and a keyboard sensor.
@@ -41,10 +47,13 @@ public class Paddle extends Block {
     public Paddle(Rectangle rect, double movingSpeed, Color color, KeyboardSensor keyboard, double leftBorder,
                   double rightBorder) {
         super(rect, color);
+        this.bounds = new MutableRectangle(rect);
+        super.setRect(this.bounds);
         this.movingSpeed = movingSpeed;
         this.keyboard = keyboard;
         this.leftBorder = leftBorder;
         this.rightBorder = rightBorder;
+        this.previousLeft = rect.getLeft();
     }
 
     /**
@@ -59,10 +68,13 @@ public class Paddle extends Block {
      */
     public Paddle(Rectangle rect, KeyboardSensor keyboard, double leftBorder, double rightBorder) {
         super(rect);
+        this.bounds = new MutableRectangle(rect);
+        super.setRect(this.bounds);
         this.movingSpeed = DEFAULT_MOVE_SPEED;
         this.keyboard = keyboard;
         this.leftBorder = leftBorder;
         this.rightBorder = rightBorder;
+        this.previousLeft = rect.getLeft();
     }
 
     /**
@@ -71,25 +83,34 @@ public class Paddle extends Block {
      * @param rect the rectangle
      */
     public void setRectangle(Rectangle rect) {
-        super.setRect(rect);
+        this.bounds.setTo(rect);
+        this.moved();
     }
 
     /**
      * Moves the paddle left.
      */
     public void moveLeft() {
-        double x = getRect().getLeft();
+        double x = this.bounds.getLeft();
         double movingDistance = -Math.min(this.movingSpeed, x - this.leftBorder);
-        this.setRectangle(getRect().moveX(movingDistance));
+        this.bounds.moveBy(movingDistance, 0);
+        this.moved();
     }
 
     /**
      * Moves the paddle right.
      */
     public void moveRight() {
-        double x = getRect().getRight();
+        double x = this.bounds.getRight();
         double movingDistance = Math.min(this.movingSpeed, this.rightBorder - x);
-        this.setRectangle(getRect().moveX(movingDistance));
+        this.bounds.moveBy(movingDistance, 0);
+        this.moved();
+    }
+
+    private void moved() {
+        if (this.game != null) {
+            this.game.updateCollidable(this);
+        }
     }
 
     /**
@@ -113,6 +134,7 @@ public class Paddle extends Block {
      */
     @Override
     public void timePassed() {
+        this.previousLeft = getRect().getLeft();
         boolean left = this.keyboard.isPressed(KeyboardSensor.LEFT_KEY);
         boolean right = this.keyboard.isPressed(KeyboardSensor.RIGHT_KEY);
 
@@ -134,6 +156,32 @@ public class Paddle extends Block {
         super.drawOn(d);
     }
 
+    /**
+     * Draws the paddle between its position before the last move (alpha = 0) and its current position (alpha = 1).
+     *
+     * @param d     the draw surface
+     * @param alpha the proportion between the previous position and the current one
+     */
+    @Override
+    public void drawOn(DrawSurface d, double alpha) {
+        double offset = (this.previousLeft - getRect().getLeft()) * (1 - alpha);
+        if (offset == 0) {
+            super.drawOn(d);
+            return;
+        }
+        super.drawMovedOn(d, offset);
+    }
+
+    /**
+     * The paddle moves, so it is not static.
+     *
+     * @return false
+     */
+    @Override
+    public boolean isStatic() {
+        return false;
+    }
+
     //Collidable methods
     @Override
     public Rectangle getCollisionRectangle() {
@@ -141,7 +189,7 @@ public class Paddle extends Block {
     }
 
     /**
-     * Returns the new velocity of a ball that has collided with the paddle.
+     * Changes the velocity of a ball that has collided with the paddle.
      *
      * <p>If the collision is on the sides, the new velocity a normal collision.
      * If the collision is on the top, the new velocity depends on which section the collision occurred -
@@ -150,21 +198,21 @@ public class Paddle extends Block {
      * If the section is in the middle, the new velocity is a normal collision (the return angle is the same).
      * Bottom collisions are not handled, and the new velocity is the same as the old one.
      *
-     * @param hitter          the hitting ball
-     * @param collisionPoint  the collision point
-     * @param currentVelocity the current velocity
-     * @return the new velocity
+     * @param hitter   the hitting ball
+     * @param pointX   the x coordinate of the collision point
+     * @param pointY   the y coordinate of the collision point
+     * @param velocity the current velocity, which is set to the new velocity
      */
     @Override
-    public Velocity hit(Ball hitter, Point collisionPoint, Velocity currentVelocity) {
+    public void hit(Ball hitter, double pointX, double pointY, MutableVelocity velocity) {
         Rectangle rect = getRect();
-        double dx = currentVelocity.getDx();
-        double dy = currentVelocity.getDy();
+        double dx = velocity.getDx();
+        double dy = velocity.getDy();
 
         //Checking which lines the point is on
-        boolean upper = rect.getUpperLine().contains(collisionPoint);
-        boolean left = rect.getLeftLine().contains(collisionPoint);
-        boolean right = rect.getRightLine().contains(collisionPoint);
+        boolean upper = isOnSide(pointX, pointY, rect.getLeft(), rect.getRight(), rect.getTop());
+        boolean left = isOnSide(pointY, pointX, rect.getTop(), rect.getBottom(), rect.getLeft());
+        boolean right = isOnSide(pointY, pointX, rect.getTop(), rect.getBottom(), rect.getRight());
 
         /*
          * To deal with rectangle corner collision, we can check the sign of the components of the velocity:
@@ -176,7 +224,7 @@ public class Paddle extends Block {
          * impossible for an object to hit the upper side with a negative y velocity.
          */
         if (upper && dy > 0) {
-            double collisionOnRectX = collisionPoint.getX() - rect.getLeft();
+            double collisionOnRectX = pointX - rect.getLeft();
             double sectionLength = rect.getWidth() / NUMBER_OF_SECTIONS;
             int sectionNum = (int) (collisionOnRectX / sectionLength);
 
@@ -188,18 +236,15 @@ public class Paddle extends Block {
             int newAngle = MIN_ANGLE + angleDifference * sectionNum;
 
             if (newAngle != UP_ANGLE) {
-                return Velocity.fromAngleAndSpeed(newAngle, currentVelocity.getSpeed());
+                velocity.setFromAngleAndSpeed(newAngle, velocity.getSpeed());
             } else {
-                return new Velocity(dx, -Math.abs(dy));
+                velocity.set(dx, -Math.abs(dy));
             }
+        } else if (left && dx > 0) {
+            velocity.set(-Math.abs(dx), dy);
+        } else if (right && dx < 0) {
+            velocity.set(Math.abs(dx), dy);
         }
-        if (left && dx > 0) {
-            return new Velocity(-Math.abs(dx), dy);
-        }
-        if (right && dx < 0) {
-            return new Velocity(Math.abs(dx), dy);
-        }
-        return currentVelocity;
     }
 
     /**
@@ -210,6 +255,18 @@ public class Paddle extends Block {
     @Override
     public void addToGame(GameLevel g) {
         super.addToGame(g);
+        this.game = g;
+    }
+
+    /**
+     * Remove the paddle from the game.
+     *
+     * @param g the game
+     */
+    @Override
+    public void removeFromGame(GameLevel g) {
+        super.removeFromGame(g);
+        this.game = null;
     }
 
     @Override
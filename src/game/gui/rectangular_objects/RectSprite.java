@@ -99,9 +99,8 @@ public abstract class RectSprite implements Sprite {
     @Override
     public void drawOn(DrawSurface d) {
         //Saving and converting values to int
-        Point upperLeft = this.rect.getUpperLeft();
-        int x = DoubleMethods.round(upperLeft.getX());
-        int y = DoubleMethods.round(upperLeft.getY());
+        int x = DoubleMethods.round(this.rect.getLeft());
+        int y = DoubleMethods.round(this.rect.getTop());
         int width = DoubleMethods.round(this.rect.getWidth());
         int height = DoubleMethods.round(this.rect.getHeight());
 
@@ -112,9 +111,8 @@ public abstract class RectSprite implements Sprite {
 
     protected void drawEdges(DrawSurface d, Color edgeColor) {
         //Saving and converting values to int
-        Point upperLeft = this.rect.getUpperLeft();
-        int x = DoubleMethods.round(upperLeft.getX());
-        int y = DoubleMethods.round(upperLeft.getY());
+        int x = DoubleMethods.round(this.rect.getLeft());
+        int y = DoubleMethods.round(this.rect.getTop());
         int width = DoubleMethods.round(this.rect.getWidth());
         int height = DoubleMethods.round(this.rect.getHeight());
 
@@ -5,11 +5,14 @@ import game.animations.GameLevel;
 import game.geometry.shapes.Rectangle;
 import game.gui.Text;
 import game.logic.Counter;
+import game.logic.CounterListener;
 
 import java.awt.Color;
 
 /**
  * A sprite which displays a score count in the middle.
+ *
+ * <p>While it is in a game, it listens to the score, and the text is only laid out again when the score changes.
  */
 public class ScoreIndicator extends RectSprite {
     private static final Color DEFAULT_BACKGROUND_COLOR = Color.WHITE;
@@ -17,6 +20,10 @@ public class ScoreIndicator extends RectSprite {
     public static final double PADDING_RATIO = 14d / 15;
     private final Counter score;
     private final Color foregroundColor;
+    //The text of the current score, or null if it has to be laid out again
+    private Text text;
+    private final CounterListener scoreListener;
+    private boolean listening;
 
     /**
      * Instantiates a new Block from a given rectangle and color.
@@ -30,6 +37,7 @@ public class ScoreIndicator extends RectSprite {
         super(rect, backgroundColor);
         this.score = score;
         this.foregroundColor = foregroundColor;
+        this.scoreListener = (counter, oldValue, newValue) -> this.text = null;
     }
 
     /**
@@ -43,9 +51,28 @@ public class ScoreIndicator extends RectSprite {
         this(rect, score, DEFAULT_BACKGROUND_COLOR, DEFAULT_FOREROUND_COLOR);
     }
 
+    /**
+     * Adds the score indicator to the given game, and starts listening to the score.
+     *
+     * @param g the game
+     */
     @Override
     public void addToGame(GameLevel g) {
         super.addToGame(g);
+        this.score.addListener(this.scoreListener);
+        this.listening = true;
+    }
+
+    /**
+     * Removes the score indicator from the given game, and stops listening to the score.
+     *
+     * @param g the game
+     */
+    @Override
+    public void removeFromGame(GameLevel g) {
+        super.removeFromGame(g);
+        this.score.removeListener(this.scoreListener);
+        this.listening = false;
     }
 
     @Override
@@ -60,9 +87,12 @@ public class ScoreIndicator extends RectSprite {
     public void drawOn(DrawSurface d) {
         super.drawOn(d);
 
-        String text = "Score: " + score.getValue();
-        Text textBox = Text.fromRectangle(text, super.getRect().scale(PADDING_RATIO), this.foregroundColor);
-        textBox.drawOn(d);
+        //Without listening to the score, it may have changed at any time
+        if (this.text == null || !this.listening) {
+            String scoreText = "Score: " + score.getValue();
+            this.text = Text.fromRectangle(scoreText, super.getRect().scale(PADDING_RATIO), this.foregroundColor);
+        }
+        this.text.drawOn(d);
     }
 
     @Override
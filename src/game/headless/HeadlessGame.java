@@ -0,0 +1,108 @@
+package game.headless;
+
+import biuoop.KeyboardSensor;
+import game.GameFlow;
+import game.GameOptions;
+import game.animations.frame_stats.FrameStats;
+import game.replay.InputLog;
+import game.replay.RecordingKeyboard;
+import game.replay.Replay;
+
+/**
+ * Plays the game without a screen, as fast as possible, and reports the frames per second achieved.
+ * The paddle is moved left and right by a script, and the space key is tapped so the end screens close.
+ * The levels are made for the same ticks per second as in the game, and each frame is a single tick of them.
+ *
+ * <p>Run with {@code ant headless -Dargs="..."}.
+ */
+public class HeadlessGame {
+    private static final String FRAMES_ARG = "frames";
+    private static final long DEFAULT_MAX_FRAMES = 100000;
+    //The paddle changes direction every this many frames
+    private static final long PADDLE_PERIOD = 97;
+    //The space key is held for this many frames, then released for the same number
+    private static final long SPACE_PERIOD = 2;
+
+    /**
+     * Runs the game.
+     *
+     * @param args the options of {@link GameOptions#parseArgument(String)} (a replay plays the recorded input instead
+     *             of the script), and "frames=N" for the most frames a single level (or screen) can run
+     */
+    public static void main(String[] args) {
+        GameOptions options = new GameOptions();
+        long maxFrames = DEFAULT_MAX_FRAMES;
+        for (String arg : args) {
+            try {
+                if (arg.startsWith(FRAMES_ARG + "=")) {
+                    maxFrames = Long.parseLong(arg.substring(FRAMES_ARG.length() + 1));
+                } else if (!options.parseArgument(arg)) {
+                    System.out.println("Warning: ignoring argument " + arg);
+                }
+            } catch (NumberFormatException e) {
+                System.out.println("Warning: ignoring argument " + arg);
+            }
+        }
+        if (!options.prepare()) {
+            return;
+        }
+        InputLog log = options.getReplayLog();
+        Replay replay = null;
+        if (log != null) {
+            maxFrames = log.getMaxStepsPerRun();
+            replay = new Replay(log);
+        }
+
+        ScriptedKeyboard script = new ScriptedKeyboard((key, frame) -> {
+            boolean goingLeft = (frame / PADDLE_PERIOD) % 2 == 0;
+            if (key.equals(KeyboardSensor.LEFT_KEY)) {
+                return goingLeft;
+            } else if (key.equals(KeyboardSensor.RIGHT_KEY)) {
+                return !goingLeft;
+            } else if (key.equals(KeyboardSensor.SPACE_KEY)) {
+                return (frame / SPACE_PERIOD) % 2 == 0;
+            }
+            return false;
+        });
+        RecordingDrawSurface surface = new RecordingDrawSurface(GameFlow.WIDTH, GameFlow.HEIGHT);
+        HeadlessRunner runner = new HeadlessRunner(options.getFps(), surface, replay == null ? script : null,
+                maxFrames);
+        if (options.getStatsFile() != null) {
+            runner.setFrameStats(new FrameStats(options.getFps()));
+        }
+        KeyboardSensor keyboard = script;
+        if (replay != null) {
+            runner.setMaxFrames(log.getSteps());
+            keyboard = replay.getKeyboard();
+        }
+        InputLog recording = null;
+        RecordingKeyboard recorder = null;
+        if (options.isRecorded()) {
+            recording = options.newRecording(maxFrames);
+            recorder = new RecordingKeyboard(keyboard, recording);
+            keyboard = recorder;
+        }
+        GameFlow flow = new GameFlow(runner, keyboard, GameFlow.WIDTH, GameFlow.HEIGHT, options.getFps());
+        options.configure(flow);
+        if (replay != null) {
+            replay.attach(runner, flow.getScore());
+        }
+        if (recorder != null) {
+            recorder.attach(runner, flow.getScore());
+        }
+        flow.runLevels(options.getLevels());
+
+        System.out.printf("frames: %d, seconds: %.3f, fps: %.1f, draw calls: %d, draw hash: %016x%n",
+                runner.getFrames(), runner.getSeconds(), runner.getAchievedFramesPerSecond(),
+                surface.getCallCount(), surface.getHash());
+        if (replay != null) {
+            replay.check();
+        }
+        if (recording != null) {
+            options.saveRecording(recording);
+        }
+        if (options.getStatsFile() != null) {
+            runner.getFrameStats().export(options.getStatsFile());
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package game.headless;
+
+import biuoop.DrawSurface;
+import biuoop.GUI;
+import game.animations.Animation;
+import game.animations.AnimationRunner;
+import game.animations.FixedStepAnimation;
+import game.animations.frame_stats.FrameStats;
+
+/**
+ * An {@link AnimationRunner} without a screen. It runs frames back to back on a given surface, without waiting
+ * between them, so the game runs as fast as the computer allows. Each frame is a single tick of fixed step
+ * animations. The frames can also be shown on a {@link GUI}, still without waiting between them.
+ *
+ * <p>The runner measures how many frames it ran and how long they took. Given {@link FrameStats}, it also records
+ * the simulation and drawing time of every frame; there is no showing or sleeping to record.
+ */
+public class HeadlessRunner extends AnimationRunner {
+    private static final double NANOS_IN_SECOND = 1000000000.0;
+    private final DrawSurface surface;
+    private final GUI gui;
+    private final ScriptedKeyboard keyboard;
+    private final long maxFramesPerRun;
+    //The most frames run altogether, after which every run stops
+    private long maxFrames;
+    private long frames;
+    private long nanos;
+    //How many runs are inside each other (such as the pause screen inside a level)
+    private int depth;
+    //Counts the runs that started, to notice when one runs inside a frame of another
+    private long runs;
+
+    /**
+     * Instantiates a new headless runner.
+     *
+     * @param fps             the frames per second the game would have been drawn at, used by animations that are
+     *                        timed in frames
+     * @param surface         the surface to draw on
+     * @param keyboard        the keyboard to move to the next frame after each frame, or null
+     * @param maxFramesPerRun the most frames a single animation is run for, so animations that wait for a key
+     *                        cannot run forever
+     */
+    public HeadlessRunner(int fps, DrawSurface surface, ScriptedKeyboard keyboard, long maxFramesPerRun) {
+        super(null, fps, fps);
+        this.surface = surface;
+        this.gui = null;
+        this.keyboard = keyboard;
+        this.maxFramesPerRun = maxFramesPerRun;
+        this.maxFrames = Long.MAX_VALUE;
+    }
+
+    /**
+     * Instantiates a new runner that shows its frames on a gui, as fast as they are run.
+     *
+     * @param fps             the frames per second the game would have been drawn at, used by animations that are
+     *                        timed in frames
+     * @param gui             the gui
+     * @param maxFramesPerRun the most frames a single animation is run for
+     */
+    public HeadlessRunner(int fps, GUI gui, long maxFramesPerRun) {
+        super(gui, fps, fps);
+        this.surface = null;
+        this.gui = gui;
+        this.keyboard = null;
+        this.maxFramesPerRun = maxFramesPerRun;
+        this.maxFrames = Long.MAX_VALUE;
+    }
+
+    /**
+     * Sets the most frames run altogether. Once they have run, every run stops, including the ones the current run
+     * is inside of.
+     *
+     * @param maxFrames the most frames
+     */
+    public void setMaxFrames(long maxFrames) {
+        this.maxFrames = maxFrames;
+    }
+
+    @Override
+    public void run(Animation animation) {
+        long start = System.nanoTime();
+        this.depth++;
+        this.runs++;
+        long framesInRun = 0;
+        while (!animation.shouldStop() && framesInRun < this.maxFramesPerRun && this.frames < this.maxFrames) {
+            DrawSurface d = this.gui == null ? this.surface : this.gui.getDrawSurface();
+            FrameStats stats = this.getFrameStats();
+            if (stats == null) {
+                animation.doOneFrame(d);
+            } else {
+                this.measureFrame(animation, d, stats);
+            }
+            if (this.gui != null) {
+                this.gui.show(d);
+            }
+            this.notifyStepped();
+            if (this.keyboard != null) {
+                this.keyboard.nextFrame();
+            }
+            framesInRun++;
+            this.frames++;
+        }
+        this.depth--;
+        //Nested runs are already part of the time of the run around them
+        if (this.depth == 0) {
+            this.nanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Runs a single frame and records its phases. A fixed step animation is rendered and then ticked, which is what
+     * its frame consists of.
+     */
+    private void measureFrame(Animation animation, DrawSurface d, FrameStats stats) {
+        long runsBefore = this.runs;
+        long startTime = System.nanoTime();
+        long simulation = 0;
+        long drawing;
+        if (animation instanceof FixedStepAnimation) {
+            FixedStepAnimation fixedStep = (FixedStepAnimation) animation;
+            fixedStep.render(d, 1);
+            this.drawFrameStats(d);
+            long drawnTime = System.nanoTime();
+            fixedStep.tick();
+            drawing = drawnTime - startTime;
+            simulation = System.nanoTime() - drawnTime;
+        } else {
+            animation.doOneFrame(d);
+            this.drawFrameStats(d);
+            drawing = System.nanoTime() - startTime;
+        }
+        if (this.runs == runsBefore) {
+            stats.recordFrame(simulation, drawing, 0, 0);
+        }
+    }
+
+    /**
+     * Returns the number of frames run so far.
+     *
+     * @return the number of frames
+     */
+    public long getFrames() {
+        return this.frames;
+    }
+
+    /**
+     * Returns the time the frames took, in seconds.
+     *
+     * @return the time in seconds
+     */
+    public double getSeconds() {
+        return this.nanos / NANOS_IN_SECOND;
+    }
+
+    /**
+     * Returns the average number of frames run per second.
+     *
+     * @return the frames per second
+     */
+    public double getAchievedFramesPerSecond() {
+        return this.nanos == 0 ? 0 : this.frames / getSeconds();
+    }
+}
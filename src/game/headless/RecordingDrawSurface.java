@@ -0,0 +1,136 @@
+package game.headless;
+
+import java.awt.Color;
+import java.awt.Image;
+import java.awt.Polygon;
+
+/**
+ * A {@link NullDrawSurface} that remembers what was drawn on it as a count of calls and a hash of every call and
+ * its arguments. Two runs that drew exactly the same frames have the same hash, so it can be used to check that a
+ * change or a replay did not change the game, without keeping the frames themselves.
+ */
+public class RecordingDrawSurface extends NullDrawSurface {
+    //Constants of the FNV-1a hash
+    private static final long HASH_START = 0xcbf29ce484222325L;
+    private static final long HASH_PRIME = 0x100000001b3L;
+    private long calls;
+    private long hash;
+
+    /**
+     * Instantiates a new recording draw surface of the given size.
+     *
+     * @param width  the width
+     * @param height the height
+     */
+    public RecordingDrawSurface(int width, int height) {
+        super(width, height);
+        this.reset();
+    }
+
+    /**
+     * Forgets everything that was drawn.
+     */
+    public void reset() {
+        this.calls = 0;
+        this.hash = HASH_START;
+    }
+
+    /**
+     * Returns the number of drawing calls since the last reset.
+     *
+     * @return the number of calls
+     */
+    public long getCallCount() {
+        return this.calls;
+    }
+
+    /**
+     * Returns the hash of all the drawing calls since the last reset.
+     *
+     * @return the hash
+     */
+    public long getHash() {
+        return this.hash;
+    }
+
+    private void record(int operation, int... arguments) {
+        this.calls++;
+        mix(operation);
+        for (int argument : arguments) {
+            mix(argument);
+        }
+    }
+
+    private void mix(long value) {
+        this.hash = (this.hash ^ value) * HASH_PRIME;
+    }
+
+    @Override
+    public void setColor(Color color) {
+        record(0, color.getRGB());
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        record(1, x1, y1, x2, y2);
+    }
+
+    @Override
+    public void drawOval(int x, int y, int width, int height) {
+        record(2, x, y, width, height);
+    }
+
+    @Override
+    public void fillOval(int x, int y, int width, int height) {
+        record(3, x, y, width, height);
+    }
+
+    @Override
+    public void drawRectangle(int x, int y, int width, int height) {
+        record(4, x, y, width, height);
+    }
+
+    @Override
+    public void fillRectangle(int x, int y, int width, int height) {
+        record(5, x, y, width, height);
+    }
+
+    @Override
+    public void drawImage(int x, int y, Image image) {
+        //Only the size of the image, since its identity changes between runs
+        record(6, x, y, image.getWidth(null), image.getHeight(null));
+    }
+
+    @Override
+    public void drawCircle(int x, int y, int r) {
+        record(7, x, y, r);
+    }
+
+    @Override
+    public void fillCircle(int x, int y, int r) {
+        record(8, x, y, r);
+    }
+
+    @Override
+    public void drawText(int x, int y, String text, int fontSize) {
+        record(9, x, y, text.hashCode(), fontSize);
+    }
+
+    @Override
+    public void drawPolygon(Polygon polygon) {
+        record(10, polygon.npoints);
+        for (int i = 0; i < polygon.npoints; i++) {
+            mix(polygon.xpoints[i]);
+            mix(polygon.ypoints[i]);
+        }
+    }
+
+    @Override
+    public void fillPolygon(Polygon polygon) {
+        record(11, polygon.npoints);
+        for (int i = 0; i < polygon.npoints; i++) {
+            mix(polygon.xpoints[i]);
+            mix(polygon.ypoints[i]);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package game.headless;
+
+import biuoop.KeyboardSensor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link KeyboardSensor} whose keys are pressed according to a script instead of a person. The script is given in
+ * frames, and {@link #nextFrame()} is called by the runner after every frame.
+ */
+public class ScriptedKeyboard implements KeyboardSensor {
+    private final Script script;
+    private final List<Press> presses;
+    private long frame;
+
+    /**
+     * Decides which keys are pressed in each frame.
+     */
+    public interface Script {
+        /**
+         * Returns whether the key is pressed in the given frame.
+         *
+         * @param key   the key
+         * @param frame the frame, counted from 0
+         * @return whether the key is pressed
+         */
+        boolean isPressed(String key, long frame);
+    }
+
+    /**
+     * Instantiates a new scripted keyboard where no key is pressed, until presses are added.
+     *
+     * @see #press(String, long, long)
+     */
+    public ScriptedKeyboard() {
+        this((key, frame) -> false);
+    }
+
+    /**
+     * Instantiates a new scripted keyboard that follows the given script, as well as any presses added later.
+     *
+     * @param script the script
+     */
+    public ScriptedKeyboard(Script script) {
+        this.script = script;
+        this.presses = new ArrayList<>();
+        this.frame = 0;
+    }
+
+    /**
+     * Holds a key pressed from one frame until before another.
+     *
+     * @param key  the key
+     * @param from the first frame the key is pressed in
+     * @param to   the first frame the key is released in
+     * @return this keyboard, so presses can be chained
+     */
+    public ScriptedKeyboard press(String key, long from, long to) {
+        this.presses.add(new Press(key, from, to));
+        return this;
+    }
+
+    /**
+     * Moves on to the next frame.
+     */
+    public void nextFrame() {
+        this.frame++;
+    }
+
+    /**
+     * Returns the current frame, counted from 0.
+     *
+     * @return the frame
+     */
+    public long getFrame() {
+        return this.frame;
+    }
+
+    @Override
+    public boolean isPressed(String key) {
+        if (this.script.isPressed(key, this.frame)) {
+            return true;
+        }
+        for (Press press : this.presses) {
+            if (press.key.equals(key) && press.from <= this.frame && this.frame < press.to) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A key held pressed over a range of frames.
+     */
+    private static class Press {
+        private final String key;
+        private final long from;
+        private final long to;
+
+        Press(String key, long from, long to) {
+            this.key = key;
+            this.from = from;
+            this.to = to;
+        }
+    }
+}
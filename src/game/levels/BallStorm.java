@@ -0,0 +1,142 @@
+package game.levels;
+
+import game.gui.Sprite;
+import game.gui.rectangular_objects.Block;
+import game.logic.physics.Velocity;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A level that is identical to another level, except that it starts with a storm of balls, spread evenly between
+ * the directions of the other level's balls. The other level is only asked about its balls once the balls are
+ * needed, so a level that is read lazily stays unread until then.
+ */
+public class BallStorm implements LevelInformation {
+    //Used when the other level has no balls
+    private static final double DEFAULT_MIN_ANGLE = -60;
+    private static final double DEFAULT_MAX_ANGLE = 60;
+    private static final double DEFAULT_SPEED = 5;
+    private final LevelInformation level;
+    private final int numberOfBalls;
+    //Created the first time they are needed
+    private List<Velocity> velocities;
+
+    /**
+     * Instantiates a new ball storm.
+     *
+     * @param level         the level to add the balls to
+     * @param numberOfBalls the number of balls
+     */
+    public BallStorm(LevelInformation level, int numberOfBalls) {
+        this.level = level;
+        this.numberOfBalls = numberOfBalls;
+    }
+
+    private List<Velocity> velocities() {
+        if (this.velocities != null) {
+            return this.velocities;
+        }
+        this.velocities = new ArrayList<>();
+
+        //Finding the range of angles and the speed of the other level's balls
+        double minAngle = DEFAULT_MIN_ANGLE;
+        double maxAngle = DEFAULT_MAX_ANGLE;
+        double speed = DEFAULT_SPEED;
+        List<Velocity> original = this.level.initialBallVelocities();
+        if (!original.isEmpty()) {
+            minAngle = Double.MAX_VALUE;
+            maxAngle = -Double.MAX_VALUE;
+            speed = original.get(0).getSpeed();
+            for (Velocity velocity : original) {
+                //0 degrees is up, like in Velocity.fromAngleAndSpeed
+                double angle = Math.toDegrees(Math.atan2(velocity.getDx(), -velocity.getDy()));
+                minAngle = Math.min(minAngle, angle);
+                maxAngle = Math.max(maxAngle, angle);
+            }
+        }
+
+        for (int i = 0; i < this.numberOfBalls; i++) {
+            double proportion = this.numberOfBalls == 1 ? 0.5 : (double) i / (this.numberOfBalls - 1);
+            double angle = minAngle + (maxAngle - minAngle) * proportion;
+            this.velocities.add(Velocity.fromAngleAndSpeed(angle, speed));
+        }
+        return this.velocities;
+    }
+
+    @Override
+    public int numberOfBalls() {
+        return this.numberOfBalls;
+    }
+
+    @Override
+    public List<Velocity> initialBallVelocities() {
+        return this.velocities();
+    }
+
+    @Override
+    public double paddleSpeed() {
+        return this.level.paddleSpeed();
+    }
+
+    @Override
+    public int paddleWidth() {
+        return this.level.paddleWidth();
+    }
+
+    @Override
+    public String levelName() {
+        return this.level.levelName() + " (Ball Storm)";
+    }
+
+    @Override
+    public Sprite getBackground() {
+        return this.level.getBackground();
+    }
+
+    @Override
+    public List<Block> blocks() {
+        return this.level.blocks();
+    }
+
+    @Override
+    public int numberOfBlocksToRemove() {
+        return this.level.numberOfBlocksToRemove();
+    }
+
+    @Override
+    public List<Block> borders() {
+        return this.level.borders();
+    }
+
+    @Override
+    public int width() {
+        return this.level.width();
+    }
+
+    @Override
+    public int height() {
+        return this.level.height();
+    }
+
+    @Override
+    public int rightBorder() {
+        return this.level.rightBorder();
+    }
+
+    @Override
+    public int leftBorder() {
+        return this.level.leftBorder();
+    }
+
+    @Override
+    public int fps() {
+        return this.level.fps();
+    }
+
+    @Override
+    public Color paddleColor() {
+        return this.level.paddleColor();
+    }
+}
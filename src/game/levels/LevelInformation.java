@@ -14,7 +14,8 @@ public interface LevelInformation {
     // Note that initialBallVelocities().size() == numberOfBalls()
     List<Velocity> initialBallVelocities();
 
-    int paddleSpeed();
+    // The distance the paddle moves in a single tick
+    double paddleSpeed();
 
     int paddleWidth();
 
@@ -41,6 +42,7 @@ public interface LevelInformation {
     int rightBorder();
     int leftBorder();
 
+    // The number of ticks per second - speeds and animations are given per tick
     int fps();
 
     Color paddleColor();
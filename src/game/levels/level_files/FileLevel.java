@@ -0,0 +1,166 @@
+package game.levels.level_files;
+
+import game.gui.MultiSprite;
+import game.gui.Sprite;
+import game.gui.rectangular_objects.Block;
+import game.levels.LevelInformation;
+import game.logic.physics.Velocity;
+
+import java.awt.Color;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A level read from a level file (see {@link LevelDefinition}).
+ *
+ * <p>The file is only read the first time the level is asked about, which is when the game reaches it, and its
+ * definition is kept in a {@link LevelCache} rather than in the level. The blocks and the background are built from
+ * the definition whenever they are asked for, so a level that has been played holds on to nothing.
+ */
+public class FileLevel implements LevelInformation {
+    /**
+     * The extension of level files.
+     */
+    public static final String EXTENSION = ".level";
+    private final String path;
+    private final int ticksPerSecond;
+    private final LevelCache cache;
+
+    /**
+     * Instantiates a new level, without reading its file yet.
+     *
+     * @param path           the path of the level file
+     * @param ticksPerSecond the ticks per second of the game
+     * @param cache          the cache of level definitions
+     */
+    public FileLevel(String path, int ticksPerSecond, LevelCache cache) {
+        this.path = path;
+        this.ticksPerSecond = ticksPerSecond;
+        this.cache = cache;
+    }
+
+    /**
+     * Returns a level for each level file in a directory, in the order of their names. The files are not read yet.
+     *
+     * @param directory      the directory
+     * @param ticksPerSecond the ticks per second of the game
+     * @param cache          the cache of level definitions
+     * @return the levels, which are empty if the directory has no level files
+     */
+    public static List<LevelInformation> fromDirectory(String directory, int ticksPerSecond, LevelCache cache) {
+        File[] files = new File(directory).listFiles((dir, name) ->
+                name.toLowerCase(Locale.ROOT).endsWith(EXTENSION));
+        if (files == null) {
+            return Collections.emptyList();
+        }
+        Arrays.sort(files);
+        List<LevelInformation> levels = new ArrayList<>(files.length);
+        for (File file : files) {
+            levels.add(new FileLevel(file.getPath(), ticksPerSecond, cache));
+        }
+        return levels;
+    }
+
+    /**
+     * Returns the path of the level file.
+     *
+     * @return the path
+     */
+    public String getPath() {
+        return this.path;
+    }
+
+    private LevelDefinition definition() {
+        try {
+            return this.cache.get(this.path);
+        } catch (IOException e) {
+            throw new IllegalStateException("could not read level " + this.path + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int numberOfBalls() {
+        return this.definition().getNumberOfBalls();
+    }
+
+    @Override
+    public List<Velocity> initialBallVelocities() {
+        LevelDefinition definition = this.definition();
+        List<Velocity> velocities = new ArrayList<>(definition.getNumberOfBalls());
+        for (int i = 0; i < definition.getNumberOfBalls(); i++) {
+            velocities.add(Velocity.fromAngleAndSpeed(definition.getBallAngle(i),
+                    definition.getBallSpeed(i) / this.ticksPerSecond));
+        }
+        return velocities;
+    }
+
+    @Override
+    public double paddleSpeed() {
+        return this.definition().getPaddleSpeed() / this.ticksPerSecond;
+    }
+
+    @Override
+    public int paddleWidth() {
+        return this.definition().getPaddleWidth();
+    }
+
+    @Override
+    public String levelName() {
+        return this.definition().getName();
+    }
+
+    @Override
+    public Sprite getBackground() {
+        return new MultiSprite(this.definition().buildBackground(this.ticksPerSecond));
+    }
+
+    @Override
+    public List<Block> blocks() {
+        return this.definition().buildBlocks();
+    }
+
+    @Override
+    public int numberOfBlocksToRemove() {
+        return this.definition().getBlocksToRemove();
+    }
+
+    @Override
+    public List<Block> borders() {
+        return this.definition().buildBorders();
+    }
+
+    @Override
+    public int width() {
+        return this.definition().getWidth();
+    }
+
+    @Override
+    public int height() {
+        return this.definition().getHeight();
+    }
+
+    @Override
+    public int rightBorder() {
+        return this.definition().getRightBound();
+    }
+
+    @Override
+    public int leftBorder() {
+        return this.definition().getLeftBound();
+    }
+
+    @Override
+    public int fps() {
+        return this.ticksPerSecond;
+    }
+
+    @Override
+    public Color paddleColor() {
+        return this.definition().getPaddleColor();
+    }
+}
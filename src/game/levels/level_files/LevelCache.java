@@ -0,0 +1,61 @@
+package game.levels.level_files;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the definitions of the few level files that were used last, so a level that is played again (or was read
+ * ahead of time) is not parsed again, while the memory used stays the same however many levels there are.
+ *
+ * <p>The cache can be used from several threads.
+ */
+public class LevelCache {
+    private final int capacity;
+    //In order of use, the least recently used first
+    private final LinkedHashMap<String, LevelDefinition> definitions;
+
+    /**
+     * Instantiates a new empty cache.
+     *
+     * @param capacity the most definitions kept
+     */
+    public LevelCache(int capacity) {
+        this.capacity = capacity;
+        this.definitions = new LinkedHashMap<>(capacity, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, LevelDefinition> eldest) {
+                return this.size() > LevelCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the definition of a level file, parsing the file if it is not in the cache.
+     *
+     * @param path the path of the file
+     * @return the definition
+     * @throws IOException if the file cannot be read, or is not a valid level
+     */
+    public synchronized LevelDefinition get(String path) throws IOException {
+        LevelDefinition definition = this.definitions.get(path);
+        if (definition == null) {
+            try (BufferedReader reader = new BufferedReader(new FileReader(path))) {
+                definition = LevelDefinition.parse(reader, path);
+            }
+            this.definitions.put(path, definition);
+        }
+        return definition;
+    }
+
+    /**
+     * Returns the number of definitions in the cache.
+     *
+     * @return the number of definitions
+     */
+    public synchronized int size() {
+        return this.definitions.size();
+    }
+}
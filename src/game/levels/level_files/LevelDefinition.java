@@ -0,0 +1,485 @@
+package game.levels.level_files;
+
+import game.geometry.Point;
+import game.geometry.shapes.Rectangle;
+import game.gui.Circle;
+import game.gui.Sprite;
+import game.gui.rectangular_objects.Block;
+import game.levels.lunar.Moon;
+import game.levels.lunar.Orbit;
+import game.levels.lunar.Star;
+import game.levels.solar.Cloud;
+import game.levels.solar.Sun;
+
+import java.awt.Color;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The contents of a level file, parsed into plain values. Nothing is built from them until a level asks for it, so a
+ * definition is small, and the same definition can build the sprites of a level any number of times.
+ *
+ * <p>A level file has a command on each line, followed by its arguments, separated by spaces. Empty lines and lines
+ * starting with '#' are ignored. Colors are either "r,g,b" or the name of one of the colors of {@link Color} (such as
+ * "gray"). Speeds are given per second, and are divided by the ticks per second of the game.
+ * <pre>
+ * name    the name of the level (the rest of the line)
+ * size    width height
+ * bounds  left right                      (how far the paddle can move)
+ * paddle  width speed color
+ * ball    angle speed                     (a line for each ball; 0 degrees is up)
+ * block   x y width height color [edge]   (a block to remove)
+ * border  x y width height color [edge]   (a block that is not removed)
+ * remove  number                          (the blocks to remove to clear the level; all of them by default)
+ * </pre>
+ * Each of these lines adds a layer to the background, which is drawn in the order of the lines:
+ * <pre>
+ * rect    x y width height color [edge]
+ * circle  x y radius color [border]
+ * sun     x y size
+ * cloud   x y size offset color       (offset is the time into its animation, 0 to 60000 milliseconds)
+ * star    x y size
+ * moon    x y size
+ * orbit   x y size
+ * </pre>
+ */
+public class LevelDefinition {
+    private static final String COMMENT = "#";
+    private static final int RECT_VALUES = 4;
+    //The longest time into its animation a cloud can start at, in milliseconds
+    private static final long MAX_CLOUD_OFFSET = 60000;
+    private static final Map<String, Color> NAMED_COLORS = new HashMap<>();
+
+    static {
+        NAMED_COLORS.put("white", Color.WHITE);
+        NAMED_COLORS.put("lightgray", Color.LIGHT_GRAY);
+        NAMED_COLORS.put("gray", Color.GRAY);
+        NAMED_COLORS.put("darkgray", Color.DARK_GRAY);
+        NAMED_COLORS.put("black", Color.BLACK);
+        NAMED_COLORS.put("red", Color.RED);
+        NAMED_COLORS.put("pink", Color.PINK);
+        NAMED_COLORS.put("orange", Color.ORANGE);
+        NAMED_COLORS.put("yellow", Color.YELLOW);
+        NAMED_COLORS.put("green", Color.GREEN);
+        NAMED_COLORS.put("magenta", Color.MAGENTA);
+        NAMED_COLORS.put("cyan", Color.CYAN);
+        NAMED_COLORS.put("blue", Color.BLUE);
+    }
+
+    private String name;
+    private int width;
+    private int height;
+    private int leftBound;
+    private int rightBound;
+    private int paddleWidth;
+    private double paddleSpeed;
+    private Color paddleColor;
+    //Angle and speed of each ball, one after the other
+    private double[] balls;
+    private int numberOfBalls;
+    private final BlockList blocks;
+    private final BlockList borders;
+    private int blocksToRemove;
+    private final List<Layer> background;
+
+    private LevelDefinition() {
+        this.balls = new double[2];
+        this.blocks = new BlockList();
+        this.borders = new BlockList();
+        this.blocksToRemove = -1;
+        this.background = new ArrayList<>();
+    }
+
+    /**
+     * Builds a layer of the background.
+     */
+    private interface Layer {
+        /**
+         * Builds the sprite of the layer.
+         *
+         * @param ticksPerSecond the ticks per second of the game
+         * @return the sprite
+         */
+        Sprite build(int ticksPerSecond);
+    }
+
+    /**
+     * Parses a level file, a line at a time.
+     *
+     * @param reader the reader of the file
+     * @param source the name of the file, for error messages
+     * @return the definition
+     * @throws IOException if the file cannot be read, or is not a valid level
+     */
+    public static LevelDefinition parse(BufferedReader reader, String source) throws IOException {
+        LevelDefinition level = new LevelDefinition();
+        boolean sized = false;
+        boolean paddle = false;
+        int lineNumber = 0;
+        //The line of the remove command, for the error if there are not enough blocks
+        int removeLine = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith(COMMENT)) {
+                continue;
+            }
+            String[] tokens = line.split("\\s+");
+            try {
+                switch (tokens[0]) {
+                    case "name":
+                        level.name = line.substring(tokens[0].length()).trim();
+                        break;
+                    case "size":
+                        arguments(tokens, 2, 2);
+                        level.width = Integer.parseInt(tokens[1]);
+                        level.height = Integer.parseInt(tokens[2]);
+                        sized = true;
+                        break;
+                    case "bounds":
+                        arguments(tokens, 2, 2);
+                        level.leftBound = Integer.parseInt(tokens[1]);
+                        level.rightBound = Integer.parseInt(tokens[2]);
+                        break;
+                    case "paddle":
+                        arguments(tokens, 3, 3);
+                        level.paddleWidth = Integer.parseInt(tokens[1]);
+                        level.paddleSpeed = Double.parseDouble(tokens[2]);
+                        level.paddleColor = color(tokens[3]);
+                        paddle = true;
+                        break;
+                    case "ball":
+                        arguments(tokens, 2, 2);
+                        level.addBall(Double.parseDouble(tokens[1]), Double.parseDouble(tokens[2]));
+                        break;
+                    case "block":
+                        level.blocks.add(tokens);
+                        break;
+                    case "border":
+                        level.borders.add(tokens);
+                        break;
+                    case "remove":
+                        arguments(tokens, 1, 1);
+                        level.blocksToRemove = Integer.parseInt(tokens[1]);
+                        if (level.blocksToRemove < 0) {
+                            throw new IllegalArgumentException("negative number of blocks to remove");
+                        }
+                        removeLine = lineNumber;
+                        break;
+                    default:
+                        level.background.add(layer(tokens));
+                }
+            } catch (NumberFormatException e) {
+                throw new IOException(source + ":" + lineNumber + ": invalid number in \"" + line + "\"");
+            } catch (IllegalArgumentException e) {
+                throw new IOException(source + ":" + lineNumber + ": " + e.getMessage() + " in \"" + line + "\"");
+            }
+        }
+        if (!sized || !paddle) {
+            throw new IOException(source + ": a level needs a size and a paddle");
+        }
+        if (level.name == null) {
+            level.name = source;
+        }
+        if (level.rightBound == 0) {
+            level.rightBound = level.width;
+        }
+        if (level.blocksToRemove < 0) {
+            level.blocksToRemove = level.blocks.size();
+        } else if (level.blocksToRemove > level.blocks.size()) {
+            throw new IOException(source + ":" + removeLine + ": " + level.blocksToRemove
+                    + " blocks to remove, but the level has only " + level.blocks.size());
+        }
+        return level;
+    }
+
+    private static void arguments(String[] tokens, int min, int max) {
+        int count = tokens.length - 1;
+        if (count < min || count > max) {
+            throw new IllegalArgumentException("wrong number of arguments to " + tokens[0]);
+        }
+    }
+
+    private static Color color(String token) {
+        Color named = NAMED_COLORS.get(token.toLowerCase(Locale.ROOT));
+        if (named != null) {
+            return named;
+        }
+        String[] components = token.split(",");
+        if (components.length != 3) {
+            throw new IllegalArgumentException("invalid color " + token);
+        }
+        return new Color(Integer.parseInt(components[0]), Integer.parseInt(components[1]),
+                Integer.parseInt(components[2]));
+    }
+
+    private static Layer layer(String[] tokens) {
+        switch (tokens[0]) {
+            case "rect": {
+                arguments(tokens, 5, 6);
+                double[] values = numbers(tokens, RECT_VALUES);
+                Color color = color(tokens[5]);
+                Color edge = tokens.length > 6 ? color(tokens[6]) : null;
+                return ticksPerSecond -> {
+                    Rectangle rect = new Rectangle(values[0], values[1], values[2], values[3]);
+                    return edge == null ? new Block(rect, color) : new Block(rect, color, edge);
+                };
+            }
+            case "circle": {
+                arguments(tokens, 4, 5);
+                double[] values = numbers(tokens, 3);
+                Color color = color(tokens[4]);
+                Color border = tokens.length > 5 ? color(tokens[5]) : null;
+                return ticksPerSecond -> {
+                    Point center = new Point(values[0], values[1]);
+                    return border == null ? new Circle(center, values[2], color)
+                            : new Circle(center, values[2], color, border);
+                };
+            }
+            case "sun": {
+                arguments(tokens, 3, 3);
+                double[] values = numbers(tokens, 3);
+                return ticksPerSecond -> new Sun(new Point(values[0], values[1]), values[2], ticksPerSecond);
+            }
+            case "cloud": {
+                arguments(tokens, 5, 5);
+                double[] values = numbers(tokens, 3);
+                long offset = Long.parseLong(tokens[4]);
+                if (offset < 0 || offset > MAX_CLOUD_OFFSET) {
+                    throw new IllegalArgumentException("cloud offset must be between 0 and " + MAX_CLOUD_OFFSET);
+                }
+                Color color = color(tokens[5]);
+                return ticksPerSecond -> new Cloud(new Point(values[0], values[1]), values[2], offset, ticksPerSecond,
+                        color);
+            }
+            case "star": {
+                arguments(tokens, 3, 3);
+                double[] values = numbers(tokens, 3);
+                return ticksPerSecond -> new Star(new Point(values[0], values[1]), values[2], ticksPerSecond, true);
+            }
+            case "moon": {
+                arguments(tokens, 3, 3);
+                double[] values = numbers(tokens, 3);
+                return ticksPerSecond -> new Moon(new Point(values[0], values[1]), values[2]);
+            }
+            case "orbit": {
+                arguments(tokens, 3, 3);
+                double[] values = numbers(tokens, 3);
+                return ticksPerSecond -> new Orbit(new Point(values[0], values[1]), values[2], ticksPerSecond);
+            }
+            default:
+                throw new IllegalArgumentException("unknown command " + tokens[0]);
+        }
+    }
+
+    private static double[] numbers(String[] tokens, int count) {
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = Double.parseDouble(tokens[i + 1]);
+        }
+        return values;
+    }
+
+    private void addBall(double angle, double speed) {
+        if (2 * this.numberOfBalls == this.balls.length) {
+            this.balls = Arrays.copyOf(this.balls, this.balls.length * 2);
+        }
+        this.balls[2 * this.numberOfBalls] = angle;
+        this.balls[2 * this.numberOfBalls + 1] = speed;
+        this.numberOfBalls++;
+    }
+
+    /**
+     * Returns the name of the level.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Returns the width of the level.
+     *
+     * @return the width
+     */
+    public int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * Returns the height of the level.
+     *
+     * @return the height
+     */
+    public int getHeight() {
+        return this.height;
+    }
+
+    /**
+     * Returns the leftmost x the paddle can reach.
+     *
+     * @return the x coordinate
+     */
+    public int getLeftBound() {
+        return this.leftBound;
+    }
+
+    /**
+     * Returns the rightmost x the paddle can reach.
+     *
+     * @return the x coordinate
+     */
+    public int getRightBound() {
+        return this.rightBound;
+    }
+
+    /**
+     * Returns the width of the paddle.
+     *
+     * @return the width
+     */
+    public int getPaddleWidth() {
+        return this.paddleWidth;
+    }
+
+    /**
+     * Returns the distance the paddle moves in a second.
+     *
+     * @return the speed
+     */
+    public double getPaddleSpeed() {
+        return this.paddleSpeed;
+    }
+
+    /**
+     * Returns the color of the paddle.
+     *
+     * @return the color
+     */
+    public Color getPaddleColor() {
+        return this.paddleColor;
+    }
+
+    /**
+     * Returns the number of balls.
+     *
+     * @return the number of balls
+     */
+    public int getNumberOfBalls() {
+        return this.numberOfBalls;
+    }
+
+    /**
+     * Returns the angle a ball starts moving at.
+     *
+     * @param ball the ball
+     * @return the angle in degrees, where 0 is up
+     */
+    public double getBallAngle(int ball) {
+        return this.balls[2 * ball];
+    }
+
+    /**
+     * Returns the distance a ball moves in a second.
+     *
+     * @param ball the ball
+     * @return the speed
+     */
+    public double getBallSpeed(int ball) {
+        return this.balls[2 * ball + 1];
+    }
+
+    /**
+     * Returns the number of blocks to remove to clear the level.
+     *
+     * @return the number of blocks
+     */
+    public int getBlocksToRemove() {
+        return this.blocksToRemove;
+    }
+
+    /**
+     * Builds the blocks of the level.
+     *
+     * @return new blocks
+     */
+    public List<Block> buildBlocks() {
+        return this.blocks.build();
+    }
+
+    /**
+     * Builds the borders of the level.
+     *
+     * @return new blocks
+     */
+    public List<Block> buildBorders() {
+        return this.borders.build();
+    }
+
+    /**
+     * Builds the layers of the background, in drawing order.
+     *
+     * @param ticksPerSecond the ticks per second of the game, which animated layers are timed in
+     * @return new sprites
+     */
+    public List<Sprite> buildBackground(int ticksPerSecond) {
+        List<Sprite> layers = new ArrayList<>(this.background.size());
+        for (Layer layer : this.background) {
+            layers.add(layer.build(ticksPerSecond));
+        }
+        return layers;
+    }
+
+    /**
+     * Blocks kept as plain values - the rectangles in one array, and the colors and edge colors in another.
+     */
+    private static class BlockList {
+        private double[] rects;
+        private Color[] colors;
+        private int size;
+
+        BlockList() {
+            this.rects = new double[RECT_VALUES];
+            this.colors = new Color[2];
+        }
+
+        void add(String[] tokens) {
+            arguments(tokens, 5, 6);
+            if (this.size * RECT_VALUES == this.rects.length) {
+                this.rects = Arrays.copyOf(this.rects, this.rects.length * 2);
+                this.colors = Arrays.copyOf(this.colors, this.colors.length * 2);
+            }
+            double[] values = numbers(tokens, RECT_VALUES);
+            System.arraycopy(values, 0, this.rects, this.size * RECT_VALUES, RECT_VALUES);
+            this.colors[2 * this.size] = color(tokens[5]);
+            //No edge color means the default one of Block
+            this.colors[2 * this.size + 1] = tokens.length > 6 ? color(tokens[6]) : null;
+            this.size++;
+        }
+
+        int size() {
+            return this.size;
+        }
+
+        List<Block> build() {
+            List<Block> built = new ArrayList<>(this.size);
+            for (int i = 0; i < this.size; i++) {
+                int at = i * RECT_VALUES;
+                Rectangle rect = new Rectangle(this.rects[at], this.rects[at + 1], this.rects[at + 2],
+                        this.rects[at + 3]);
+                Color color = this.colors[2 * i];
+                Color edge = this.colors[2 * i + 1];
+                built.add(edge == null ? new Block(rect, color) : new Block(rect, color, edge));
+            }
+            return built;
+        }
+    }
+}
@@ -54,7 +54,7 @@ public class Lunar implements LevelInformation {
     private static final int UNADJUSTED_BALL_SPEED = 300;
 
     private static final String NAME = "Lunar";
-    private final int paddleSpeed;
+    private final double paddleSpeed;
     private final double ballSpeed;
     private final int width;
     private final int height;
@@ -75,7 +75,7 @@ public class Lunar implements LevelInformation {
         this.rightBorder = width - BORDER_THICKNESS;
         this.topBorder = TOP_BORDER_THICKNESS;
         this.fps = fps;
-        this.paddleSpeed = UNADJUSTED_PADDLE_SPEED / fps;
+        this.paddleSpeed = (double) UNADJUSTED_PADDLE_SPEED / fps;
         this.ballSpeed = (double) UNADJUSTED_BALL_SPEED / fps;
         this.velocities = new ArrayList<>();
         this.blocks = new ArrayList<>();
@@ -172,7 +172,7 @@ public class Lunar implements LevelInformation {
     }
 
     @Override
-    public int paddleSpeed() {
+    public double paddleSpeed() {
         return this.paddleSpeed;
     }
 
@@ -23,6 +23,16 @@ public class Moon implements Sprite {
         moon.timePassed();
     }
 
+    /**
+     * The moon and its craters do not change, so the moon is static.
+     *
+     * @return true
+     */
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
+
     @Override
     public void drawOn(DrawSurface d) {
         moon.drawOn(d);
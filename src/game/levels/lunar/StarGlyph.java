@@ -0,0 +1,161 @@
+package game.levels.lunar;
+
+import biuoop.DrawSurface;
+import game.geometry.Point;
+import game.geometry.Transform;
+import game.geometry.shapes.Line;
+import game.geometry.shapes.Rectangle;
+import game.gui.MultiSprite;
+import game.gui.Sprite;
+import game.gui.SpriteAtlas;
+import game.gui.rectangular_objects.Block;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The shape of a star, drawn from a {@link SpriteAtlas} shared by all the stars with the same number of rectangles.
+ *
+ * <p>The shape is made of many thin rectangles, so it is only drawn rectangle by rectangle once per size in pixels,
+ * and then copied as an image. Moving and scaling a glyph only changes its center and scale.
+ */
+public class StarGlyph implements Sprite {
+    private static final double THICKNESS = 1.64;
+    private static final double LENGTH = 0.3;
+    private static final Color COLOR = Color.WHITE;
+    //The shapes reach this far from their centers (the length of the rectangle of the smallest angle, rounded up)
+    private static final double EXTENT = 4.5;
+    private static final Map<Integer, SpriteAtlas> ATLASES = new ConcurrentHashMap<>();
+    private final SpriteAtlas atlas;
+    private final int numberOfRects;
+    private final double centerX;
+    private final double centerY;
+    private final double scale;
+
+    /**
+     * Instantiates a new star glyph.
+     *
+     * @param numberOfRects the number of rectangles the shape is made of, besides the ones of the small angles
+     * @param centerX       the x coordinate of the center
+     * @param centerY       the y coordinate of the center
+     * @param scale         the scale of the shape
+     */
+    public StarGlyph(int numberOfRects, double centerX, double centerY, double scale) {
+        this.atlas = ATLASES.computeIfAbsent(numberOfRects, n -> new SpriteAtlas(createShape(n), EXTENT));
+        this.numberOfRects = numberOfRects;
+        this.centerX = centerX;
+        this.centerY = centerY;
+        this.scale = scale;
+    }
+
+    /**
+     * Creates the shape of a star, centered on (0, 0).
+     *
+     * @param numberOfRects the number of rectangles
+     * @return the shape
+     */
+    private static MultiSprite createShape(int numberOfRects) {
+        List<Sprite> rectangles = new ArrayList<>();
+        for (int i = 1; i < numberOfRects; i++) {
+            double theta = i * (Math.PI) / (2 * numberOfRects);
+
+            addRectangle(rectangles, theta);
+        }
+        //Small angles
+        addRectangle(rectangles, 0.01);
+        addRectangle(rectangles, 0.03);
+        addRectangle(rectangles, 0.05);
+        addRectangle(rectangles, 0.08);
+        addRectangle(rectangles, Math.PI / 2 - 0.01);
+        addRectangle(rectangles, Math.PI / 2 - 0.03);
+        addRectangle(rectangles, Math.PI / 2 - 0.05);
+        addRectangle(rectangles, Math.PI / 2 - 0.08);
+        return new MultiSprite(rectangles);
+    }
+
+    private static void addRectangle(List<Sprite> rectangles, double theta) {
+        double x = angleToX(theta);
+
+
+        double y = THICKNESS / (x + LENGTH) - LENGTH;
+        Rectangle rect = new Rectangle(-x, -y, 2 * x, 2 * y);
+        rectangles.add(new Block(rect, COLOR, COLOR));
+    }
+
+    private static double angleToX(double theta) {
+        double a = LENGTH;
+        double b = THICKNESS;
+        return 1d / 2 * (
+                (1 / Math.tan(theta))
+                        * Math.sqrt(
+                        Math.pow(
+                                a * Math.tan(theta) + a,
+                                2
+                        )
+                                - 4 * (a * a - b) * Math.tan(theta)
+                )
+                        + a
+                        * (-(1 / Math.tan(theta)))
+                        - a
+        );
+    }
+
+    @Override
+    public void drawOn(DrawSurface d) {
+        this.atlas.drawOn(d, this.centerX, this.centerY, this.scale);
+    }
+
+    @Override
+    public void drawOn(DrawSurface d, Transform transform) {
+        this.atlas.drawOn(d, transform.applyX(this.centerX), transform.applyY(this.centerY),
+                transform.applyLength(this.scale));
+    }
+
+    /**
+     * A glyph does not change by itself, so it is static.
+     *
+     * @return true
+     */
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
+
+    @Override
+    public void timePassed() {
+    }
+
+    @Override
+    public StarGlyph getCurrentSpriteFrame() {
+        return this;
+    }
+
+    @Override
+    public StarGlyph moveX(double x) {
+        return new StarGlyph(this.numberOfRects, this.centerX + x, this.centerY, this.scale);
+    }
+
+    @Override
+    public StarGlyph moveY(double y) {
+        return new StarGlyph(this.numberOfRects, this.centerX, this.centerY + y, this.scale);
+    }
+
+    @Override
+    public StarGlyph scale(double factor) {
+        return new StarGlyph(this.numberOfRects, this.centerX, this.centerY, this.scale * factor);
+    }
+
+    @Override
+    public StarGlyph scale(double factor, Point p) {
+        Point newCenter = new Line(this.getCenter(), p).getPointFromProportions(factor);
+        return new StarGlyph(this.numberOfRects, newCenter.getX(), newCenter.getY(), this.scale * factor);
+    }
+
+    @Override
+    public Point getCenter() {
+        return new Point(this.centerX, this.centerY);
+    }
+}
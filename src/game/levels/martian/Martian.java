@@ -31,7 +31,7 @@ public class Martian implements LevelInformation {
     private static final Color PADDLE_COLOR = new Color(94, 207, 255);
     private static final String NAME = "Martian";
     public static final Color BACKGROUND_COLOR = new Color(213, 95, 0);
-    private final int paddleSpeed;
+    private final double paddleSpeed;
     private final double ballSpeed;
     private final int width;
     private final int height;
@@ -45,7 +45,7 @@ public class Martian implements LevelInformation {
         this.width = width;
         this.height = height;
         this.fps = fps;
-        paddleSpeed = UNADJUSTED_PADDLE_SPEED / fps;
+        paddleSpeed = (double) UNADJUSTED_PADDLE_SPEED / fps;
         ballSpeed = (double) UNADJUSTED_BALL_SPEED / fps;
         velocities = new ArrayList<>();
         blocks = new ArrayList<>();
@@ -128,7 +128,7 @@ public class Martian implements LevelInformation {
     }
 
     @Override
-    public int paddleSpeed() {
+    public double paddleSpeed() {
         return this.paddleSpeed;
     }
 
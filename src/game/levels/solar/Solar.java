@@ -38,7 +38,7 @@ public class Solar implements LevelInformation {
     private static final Color PADDLE_COLOR = new Color(247, 194, 0);
 
     private static final String NAME = "Solar";
-    private final int paddleSpeed;
+    private final double paddleSpeed;
     private final double ballSpeed;
     private final int width;
     private final int height;
@@ -52,7 +52,7 @@ public class Solar implements LevelInformation {
         this.width = width;
         this.height = height;
         this.fps = fps;
-        paddleSpeed = UNADJUSTED_PADDLE_SPEED / fps;
+        paddleSpeed = (double) UNADJUSTED_PADDLE_SPEED / fps;
         ballSpeed = (double) UNADJUSTED_BALL_SPEED / fps;
         velocities = new ArrayList<>();
         blocks = new ArrayList<>();
@@ -134,7 +134,7 @@ public class Solar implements LevelInformation {
     }
 
     @Override
-    public int paddleSpeed() {
+    public double paddleSpeed() {
         return this.paddleSpeed;
     }
 
@@ -0,0 +1,252 @@
+package game.levels.stress;
+
+import game.geometry.shapes.Rectangle;
+import game.gui.Sprite;
+import game.gui.rectangular_objects.Block;
+import game.levels.LevelInformation;
+import game.logic.physics.Velocity;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A generated level with any number of blocks, for testing how the game scales.
+ *
+ * <p>The blocks are placed in a grid of cells, which is as large as the density requires - at a density of 1 every
+ * cell has a block, at a density of 0.5 half of them (chosen at random) do. The level grows with the grid, keeping
+ * the blocks at their usual size, so the paddle and the balls have room below them. The balls start in random
+ * directions.
+ *
+ * <p>The bottom of the level can be closed with a border below the paddle, so no ball is ever lost and the level keeps
+ * all of its balls for as long as it is played.
+ *
+ * <p>Everything random is drawn from the given seed, so the same arguments always generate the same level. The
+ * blocks are generated again every time they are asked for, so the level itself does not hold on to them.
+ */
+public class StressLevel implements LevelInformation {
+    private static final int CELL_WIDTH = 24;
+    private static final int CELL_HEIGHT = 12;
+    private static final int BLOCK_WIDTH = 20;
+    private static final int BLOCK_HEIGHT = 8;
+    //The proportion of the columns of the grid to its rows, so the grid is about 4:3
+    private static final double COLUMNS_PER_ROW = 4.0 / 3 * CELL_HEIGHT / CELL_WIDTH;
+    private static final Color[] BLOCK_COLORS = {
+            new Color(230, 57, 70),
+            new Color(244, 162, 97),
+            new Color(233, 196, 106),
+            new Color(42, 157, 143),
+            new Color(69, 123, 157)
+    };
+    //The number of rows of blocks in each color
+    private static final int ROWS_PER_COLOR = 4;
+    private static final Color BACKGROUND_COLOR = new Color(20, 20, 40);
+
+    //Size constants
+    private static final int MIN_WIDTH = 800;
+    private static final int MIN_HEIGHT = 600;
+    //The room left below the blocks for the paddle and the balls
+    private static final int FIELD_BOTTOM_GAP = 200;
+
+    //Border constants
+    private static final int BORDER_THICKNESS = 30;
+    private static final int TOP_BORDER_THICKNESS = BORDER_THICKNESS + 10;
+    //The bottom border is below the paddle, which is 30 pixels above the bottom of the level
+    private static final int BOTTOM_BORDER_THICKNESS = 20;
+    private static final Color BORDER_COLOR = Color.GRAY;
+
+    private static final int PADDLE_WIDTH = 100;
+    private static final int UNADJUSTED_PADDLE_SPEED = 600;
+    private static final int UNADJUSTED_BALL_SPEED = 300;
+    private static final Color PADDLE_COLOR = Color.ORANGE;
+    private static final double MIN_BALL_ANGLE = -60;
+    private static final double MAX_BALL_ANGLE = 60;
+
+    private final int numberOfBlocks;
+    private final long blockSeed;
+    private final int columns;
+    private final int rows;
+    private final int width;
+    private final int height;
+    private final int fps;
+    private final double paddleSpeed;
+    private final List<Velocity> velocities;
+    private final List<Block> borders;
+    private boolean closedBottom;
+    private final Sprite background;
+
+    /**
+     * Instantiates a new stress level.
+     *
+     * @param numberOfBlocks the number of blocks
+     * @param density        the proportion of the cells of the grid that have a block, more than 0 and at most 1
+     * @param numberOfBalls  the number of balls
+     * @param seed           the seed everything random is drawn from
+     * @param fps            the ticks per second
+     */
+    public StressLevel(int numberOfBlocks, double density, int numberOfBalls, long seed, int fps) {
+        if (numberOfBlocks < 0 || numberOfBalls < 0) {
+            throw new IllegalArgumentException("negative number of blocks or balls");
+        }
+        if (!(density > 0 && density <= 1)) {
+            throw new IllegalArgumentException("density must be more than 0 and at most 1, not " + density);
+        }
+        this.numberOfBlocks = numberOfBlocks;
+        this.fps = fps;
+        this.paddleSpeed = (double) UNADJUSTED_PADDLE_SPEED / fps;
+
+        //Sizing the grid for the density, then the level for the grid
+        long cells = Math.max(1, (long) Math.ceil(numberOfBlocks / density));
+        if (cells > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("too many cells: " + cells);
+        }
+        this.columns = (int) Math.max(1, Math.ceil(Math.sqrt(cells * COLUMNS_PER_ROW)));
+        this.rows = (int) ((cells + this.columns - 1) / this.columns);
+        this.width = Math.max(MIN_WIDTH, 2 * BORDER_THICKNESS + this.columns * CELL_WIDTH);
+        this.height = Math.max(MIN_HEIGHT, TOP_BORDER_THICKNESS + this.rows * CELL_HEIGHT + FIELD_BOTTOM_GAP);
+
+        Random random = new Random(seed);
+        this.velocities = new ArrayList<>();
+        double ballSpeed = (double) UNADJUSTED_BALL_SPEED / fps;
+        for (int i = 0; i < numberOfBalls; i++) {
+            double angle = MIN_BALL_ANGLE + (MAX_BALL_ANGLE - MIN_BALL_ANGLE) * random.nextDouble();
+            this.velocities.add(Velocity.fromAngleAndSpeed(angle, ballSpeed));
+        }
+        this.blockSeed = random.nextLong();
+
+        this.borders = new ArrayList<>();
+        this.borders.add(new Block(new Rectangle(0, 0, this.width, TOP_BORDER_THICKNESS),
+                BORDER_COLOR, BORDER_COLOR));
+        this.borders.add(new Block(new Rectangle(0, 0, BORDER_THICKNESS, this.height),
+                BORDER_COLOR, BORDER_COLOR));
+        this.borders.add(new Block(new Rectangle(this.width - BORDER_THICKNESS, 0, BORDER_THICKNESS, this.height),
+                BORDER_COLOR, BORDER_COLOR));
+        this.background = new Block(new Rectangle(0, 0, this.width, this.height), BACKGROUND_COLOR);
+    }
+
+    /**
+     * Creates the blocks. The cells that have a block are chosen by selection sampling - each cell is chosen with the
+     * probability that the blocks still needed fill the cells still left, which chooses exactly the number of blocks,
+     * every set of cells being as likely, in a single pass over the cells.
+     *
+     * @return the blocks, from the top row to the bottom one
+     */
+    private List<Block> createBlocks() {
+        Random random = new Random(this.blockSeed);
+        List<Block> blocks = new ArrayList<>(this.numberOfBlocks);
+        //Centering the grid between the side borders
+        double left = (this.width - this.columns * CELL_WIDTH) / 2.0 + (CELL_WIDTH - BLOCK_WIDTH) / 2.0;
+        double top = TOP_BORDER_THICKNESS + (CELL_HEIGHT - BLOCK_HEIGHT) / 2.0;
+        int needed = this.numberOfBlocks;
+        int remaining = this.columns * this.rows;
+        for (int row = 0; row < this.rows && needed > 0; row++) {
+            Color color = BLOCK_COLORS[(row / ROWS_PER_COLOR) % BLOCK_COLORS.length];
+            for (int column = 0; column < this.columns && needed > 0; column++) {
+                if (random.nextInt(remaining) < needed) {
+                    Rectangle rect = new Rectangle(left + column * CELL_WIDTH, top + row * CELL_HEIGHT,
+                            BLOCK_WIDTH, BLOCK_HEIGHT);
+                    blocks.add(new Block(rect, color));
+                    needed--;
+                }
+                remaining--;
+            }
+        }
+        return blocks;
+    }
+
+    /**
+     * Sets whether the bottom of the level is closed with a border, so the balls bounce back instead of being lost.
+     *
+     * @param closedBottom whether the bottom is closed
+     */
+    public void setClosedBottom(boolean closedBottom) {
+        this.closedBottom = closedBottom;
+    }
+
+    @Override
+    public int numberOfBalls() {
+        return this.velocities.size();
+    }
+
+    @Override
+    public List<Velocity> initialBallVelocities() {
+        return this.velocities;
+    }
+
+    @Override
+    public double paddleSpeed() {
+        return this.paddleSpeed;
+    }
+
+    @Override
+    public int paddleWidth() {
+        return PADDLE_WIDTH;
+    }
+
+    @Override
+    public String levelName() {
+        return "Stress " + this.numberOfBlocks;
+    }
+
+    @Override
+    public Sprite getBackground() {
+        return this.background;
+    }
+
+    /**
+     * Generates the blocks. Each call generates new blocks, the same as the blocks of the previous calls.
+     *
+     * @return the blocks
+     */
+    @Override
+    public List<Block> blocks() {
+        return this.createBlocks();
+    }
+
+    @Override
+    public int numberOfBlocksToRemove() {
+        return this.numberOfBlocks;
+    }
+
+    @Override
+    public List<Block> borders() {
+        if (!this.closedBottom) {
+            return this.borders;
+        }
+        List<Block> borders = new ArrayList<>(this.borders);
+        borders.add(new Block(new Rectangle(0, this.height - BOTTOM_BORDER_THICKNESS, this.width,
+                BOTTOM_BORDER_THICKNESS), BORDER_COLOR, BORDER_COLOR));
+        return borders;
+    }
+
+    @Override
+    public int width() {
+        return this.width;
+    }
+
+    @Override
+    public int height() {
+        return this.height;
+    }
+
+    @Override
+    public int rightBorder() {
+        return this.width - BORDER_THICKNESS;
+    }
+
+    @Override
+    public int leftBorder() {
+        return BORDER_THICKNESS;
+    }
+
+    @Override
+    public int fps() {
+        return this.fps;
+    }
+
+    @Override
+    public Color paddleColor() {
+        return PADDLE_COLOR;
+    }
+}
@@ -1,10 +1,20 @@
 package game.logic;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Holds a value that can be shared and changed everywhere.
+ * Listeners are notified whenever the value changes, so whatever shows the value only has to be updated then.
+ * Listeners can be added and removed from any thread (such as one that prepares the next level), while the value is
+ * changed by another.
  */
 public class Counter {
+    private static final CounterListener[] NO_LISTENERS = new CounterListener[0];
     private int counter;
+    private final List<CounterListener> listeners;
+    //A copy of the listeners, made whenever they change, so notifying them does not copy them again
+    private volatile CounterListener[] notifiedListeners;
 
     /**
      * Instantiates a new Counter.
@@ -13,6 +23,8 @@ public class Counter {
      */
     public Counter(int start) {
         this.counter = start;
+        this.listeners = new ArrayList<>();
+        this.notifiedListeners = NO_LISTENERS;
     }
 
     /**
@@ -30,7 +42,7 @@ public class Counter {
      * @param number the number
      */
     public void increase(int number) {
-        this.counter += number;
+        this.setValue(this.counter + number);
     }
 
     /**
@@ -39,7 +51,41 @@ public class Counter {
      * @param number the number
      */
     public void decrease(int number) {
-        this.counter -= number;
+        this.setValue(this.counter - number);
+    }
+
+    private void setValue(int value) {
+        int oldValue = this.counter;
+        this.counter = value;
+        if (oldValue != value) {
+            // Use the copy of the listeners, so listeners can be added or removed while iterating over them.
+            for (CounterListener listener : this.notifiedListeners) {
+                listener.valueChanged(this, oldValue, value);
+            }
+        }
+    }
+
+    /**
+     * Adds a listener, which is notified whenever the value changes.
+     *
+     * @param listener the listener
+     */
+    public synchronized void addListener(CounterListener listener) {
+        if (!this.listeners.contains(listener)) {
+            this.listeners.add(listener);
+            this.notifiedListeners = this.listeners.toArray(NO_LISTENERS);
+        }
+    }
+
+    /**
+     * Removes a listener.
+     *
+     * @param listener the listener
+     */
+    public synchronized void removeListener(CounterListener listener) {
+        if (this.listeners.remove(listener)) {
+            this.notifiedListeners = this.listeners.toArray(NO_LISTENERS);
+        }
     }
 
     /**
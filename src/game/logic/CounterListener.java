@@ -0,0 +1,17 @@
+package game.logic;
+
+/**
+ * An object which listens to the changes of a {@link Counter}. Using the listener design pattern.
+ *
+ * @see Counter#addListener(CounterListener)
+ */
+public interface CounterListener {
+    /**
+     * This method is called whenever the value of the counter changes.
+     *
+     * @param counter  the counter
+     * @param oldValue the value before the change
+     * @param newValue the value after the change
+     */
+    void valueChanged(Counter counter, int oldValue, int newValue);
+}
@@ -0,0 +1,50 @@
+package game.logic;
+
+import java.util.Random;
+
+/**
+ * The source of every random number in the game, so a game can be played again exactly, given its seed.
+ *
+ * <p>Each user of random numbers takes its own {@link Random} from {@link #newRandom()}. Their seeds are drawn, in
+ * turn, from a single generator seeded with the seed of the game, so they only depend on the seed and the order
+ * they are taken in.
+ */
+public final class GameRandom {
+    private static long seed;
+    private static Random seeds;
+
+    static {
+        setSeed(System.nanoTime());
+    }
+
+    private GameRandom() {
+    }
+
+    /**
+     * Starts the random numbers over from a seed.
+     *
+     * @param newSeed the seed
+     */
+    public static synchronized void setSeed(long newSeed) {
+        seed = newSeed;
+        seeds = new Random(newSeed);
+    }
+
+    /**
+     * Returns the seed the random numbers were last started from.
+     *
+     * @return the seed
+     */
+    public static synchronized long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns a new random number generator, seeded with the next seed.
+     *
+     * @return the generator
+     */
+    public static synchronized Random newRandom() {
+        return new Random(seeds.nextLong());
+    }
+}
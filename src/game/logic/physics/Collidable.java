@@ -25,4 +25,19 @@ public interface Collidable {
      * @return the new velocity
      */
     Velocity hit(Ball hitter, Point collisionPoint, Velocity currentVelocity);
+
+    /**
+     * Notifies the object that we collided with it at the given point, and changes the given velocity in place to the
+     * new velocity expected after the hit. Used by the physics step, which does not allocate when the collidable
+     * overrides this method. By default, it calls {@link #hit(Ball, Point, Velocity)}.
+     *
+     * @param hitter   the hitting object
+     * @param pointX   the x coordinate of the collision point
+     * @param pointY   the y coordinate of the collision point
+     * @param velocity the current velocity, which is set to the new velocity
+     */
+    default void hit(Ball hitter, double pointX, double pointY, MutableVelocity velocity) {
+        Velocity newVelocity = this.hit(hitter, new Point(pointX, pointY), velocity.toVelocity());
+        velocity.set(newVelocity.getDx(), newVelocity.getDy());
+    }
 }
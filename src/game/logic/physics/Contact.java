@@ -0,0 +1,112 @@
+package game.logic.physics;
+
+/**
+ * Holds information about the first contact of a moving ball with a {@link Collidable} during a single step.
+ *
+ * <p>Unlike {@link CollisionInfo} it is mutable and made of primitive values, so the same instance can be filled
+ * again every step without allocating.
+ */
+public class Contact {
+    private double time;
+    private double normalX;
+    private double normalY;
+    private double pointX;
+    private double pointY;
+    private Collidable collidable;
+
+    /**
+     * Sets all the values of the contact.
+     *
+     * @param time    the proportion of the step at which the contact happens, between 0 and 1
+     * @param normalX the x component of the unit normal of the surface at the contact
+     * @param normalY the y component of the unit normal of the surface at the contact
+     * @param pointX  the x coordinate of the contact point on the surface
+     * @param pointY  the y coordinate of the contact point on the surface
+     */
+    public void set(double time, double normalX, double normalY, double pointX, double pointY) {
+        this.time = time;
+        this.normalX = normalX;
+        this.normalY = normalY;
+        this.pointX = pointX;
+        this.pointY = pointY;
+    }
+
+    /**
+     * Copies all the values of another contact into this one.
+     *
+     * @param other the other contact
+     */
+    public void copyFrom(Contact other) {
+        this.set(other.time, other.normalX, other.normalY, other.pointX, other.pointY);
+        this.collidable = other.collidable;
+    }
+
+    /**
+     * Sets the collidable involved in the contact.
+     *
+     * @param collidable the collidable
+     */
+    public void setCollidable(Collidable collidable) {
+        this.collidable = collidable;
+    }
+
+    /**
+     * Returns the proportion of the step at which the contact happens, between 0 (the start) and 1 (the end).
+     *
+     * @return the time of impact
+     */
+    public double time() {
+        return this.time;
+    }
+
+    /**
+     * Returns the x component of the unit normal of the surface at the contact, pointing out of the collidable.
+     *
+     * @return the x component
+     */
+    public double normalX() {
+        return this.normalX;
+    }
+
+    /**
+     * Returns the y component of the unit normal of the surface at the contact, pointing out of the collidable.
+     *
+     * @return the y component
+     */
+    public double normalY() {
+        return this.normalY;
+    }
+
+    /**
+     * Returns the x coordinate of the point on the surface of the collidable that is touched.
+     *
+     * @return the x coordinate
+     */
+    public double pointX() {
+        return this.pointX;
+    }
+
+    /**
+     * Returns the y coordinate of the point on the surface of the collidable that is touched.
+     *
+     * @return the y coordinate
+     */
+    public double pointY() {
+        return this.pointY;
+    }
+
+    /**
+     * Returns the collidable involved in the contact.
+     *
+     * @return the collidable
+     */
+    public Collidable collidable() {
+        return this.collidable;
+    }
+
+    @Override
+    public String toString() {
+        return "Contact at t=" + this.time + ", Point: (" + this.pointX + ", " + this.pointY + "), Normal: <"
+                + this.normalX + ", " + this.normalY + ">, Collidable: " + this.collidable;
+    }
+}
@@ -1,24 +1,53 @@
 package game.logic.physics;
 
-import game.geometry.Point;
 import game.geometry.shapes.Line;
-import game.geometry.shapes.Rectangle;
+import game.logic.physics.broad_phase.BroadPhase;
+import game.logic.physics.broad_phase.CollidableEntry;
+import game.logic.physics.broad_phase.CollisionQuery;
+import game.logic.physics.broad_phase.LinearScan;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 
 /**
  * A collection of {@link Collidable} objects.
+ *
+ * <p>The collidables are kept in a {@link BroadPhase}, which decides which collidables are tested against each
+ * trajectory. The closest collision is the same whichever broad phase is used.
  */
 public class GameEnvironment {
-    private final List<Collidable> collidables;
+    private final Map<Collidable, CollidableEntry> entries;
+    private final BroadPhase broadPhase;
+    private final CollisionQuery query;
+    private long nextOrder;
+    //Counts the changes that can create new collisions
+    private long changes;
+    //Counts the collision queries, which may come from several threads at once
+    private final LongAdder queries;
 
     /**
-     * Instantiates a new game environment.
+     * Instantiates a new game environment which tests every collidable against every trajectory.
+     *
+     * @see LinearScan
      */
     public GameEnvironment() {
-        this.collidables = new LinkedList<>();
+        this(new LinearScan());
+    }
+
+    /**
+     * Instantiates a new game environment which uses the given broad phase to find collisions.
+     *
+     * @param broadPhase the broad phase
+     */
+    public GameEnvironment(BroadPhase broadPhase) {
+        this.entries = new LinkedHashMap<>();
+        this.broadPhase = broadPhase;
+        this.query = new CollisionQuery();
+        this.nextOrder = 0;
+        this.changes = 0;
+        this.queries = new LongAdder();
     }
 
     /**
@@ -27,10 +56,13 @@ public class GameEnvironment {
      * @param c the collidable
      */
     public void addCollidable(Collidable c) {
-        if (c != null) {
-            this.collidables.add(c);
-        } else {
+        if (c == null) {
             System.out.println("Warning: attempted to add null to GameEnvironment");
+        } else if (!this.entries.containsKey(c)) {
+            CollidableEntry entry = new CollidableEntry(c, this.nextOrder++);
+            this.entries.put(c, entry);
+            this.broadPhase.add(entry);
+            this.changes++;
         }
     }
 
@@ -40,7 +72,55 @@ public class GameEnvironment {
      * @param c the collidable
      */
     public void removeCollidable(Collidable c) {
-        this.collidables.remove(c);
+        CollidableEntry entry = this.entries.remove(c);
+        if (entry != null) {
+            this.broadPhase.remove(entry);
+        }
+    }
+
+    /**
+     * Notifies the game environment that the collision rectangle of a collidable has changed (for example a moving
+     * paddle). Must be called after every change, otherwise the collidable may not be found by the broad phase.
+     *
+     * @param c the collidable
+     */
+    public void updateCollidable(Collidable c) {
+        CollidableEntry entry = this.entries.get(c);
+        if (entry != null) {
+            this.broadPhase.update(entry);
+            this.changes++;
+        }
+    }
+
+    /**
+     * Returns whether the collidable is in the game environment.
+     *
+     * @param c the collidable
+     * @return whether the collidable is in the game environment
+     */
+    public boolean contains(Collidable c) {
+        return this.entries.containsKey(c);
+    }
+
+    /**
+     * Returns a number that grows every time a collidable is added or moved. Removing a collidable does not change
+     * it, since that can only take away collisions. So a collision found while the number did not change is still the
+     * closest one, as long as its collidable was not removed.
+     *
+     * @return the number of changes
+     */
+    public long changes() {
+        return this.changes;
+    }
+
+    /**
+     * Returns the number of collision queries made so far - calls to {@link #getClosestCollision(Line)} and to
+     * {@link #getClosestContact(double, double, double, double, double, Contact)}.
+     *
+     * @return the number of queries
+     */
+    public long queries() {
+        return this.queries.sum();
     }
 
     /**
@@ -54,40 +134,59 @@ public class GameEnvironment {
      * @see CollisionInfo
      */
     public CollisionInfo getClosestCollision(Line trajectory) {
-        //Initializing values
-        Point closestPoint = null;
-        Collidable closestCollidable = null;
-        double minDistance = Double.MAX_VALUE;
-
-        List<Collidable> collidables = new LinkedList<>(this.collidables);
-
-        //Checking all collisions points and finding the closest
-        for (Collidable collidable : collidables) {
-            Rectangle rect = collidable.getCollisionRectangle();
-            Point collisionPoint = trajectory.closestIntersectionToStartOfLine(rect);
-            if (collisionPoint != null) {
-                double distance = trajectory.start().distance(collisionPoint);
-                if (distance < minDistance) {
-                    closestPoint = collisionPoint;
-                    closestCollidable = collidable;
-                    minDistance = distance;
-                }
-            }
-        }
+        this.queries.increment();
+        this.query.reset(trajectory);
+        this.broadPhase.query(this.query);
+        return this.query.result();
+    }
 
-        if (closestPoint != null) {
-            return new CollisionInfo(closestPoint, closestCollidable);
-        } else {
-            return null;
-        }
+    /**
+     * Assume a ball of the given radius moving from (x, y) to (x + dx, y + dy).
+     * Finds the first collidable the ball touches along the way, and writes the contact into the given
+     * {@link Contact}. Unlike {@link #getClosestCollision(Line)}, the radius of the ball is taken into account and
+     * nothing is allocated.
+     *
+     * @param x       the x coordinate of the center of the ball
+     * @param y       the y coordinate of the center of the ball
+     * @param dx      the change in x during the step
+     * @param dy      the change in y during the step
+     * @param radius  the radius of the ball
+     * @param contact the contact to write the result into
+     * @return whether the ball touches a collidable during the step
+     * @see SweptCircle
+     */
+    public boolean getClosestContact(double x, double y, double dx, double dy, double radius, Contact contact) {
+        return this.getClosestContact(x, y, dx, dy, radius, contact, this.query);
+    }
+
+    /**
+     * Same as {@link #getClosestContact(double, double, double, double, double, Contact)}, but uses the given query
+     * instead of the environment's own. Several threads can search at the same time, each with its own query, as
+     * long as no collidable is added, removed or moved meanwhile.
+     *
+     * @param x       the x coordinate of the center of the ball
+     * @param y       the y coordinate of the center of the ball
+     * @param dx      the change in x during the step
+     * @param dy      the change in y during the step
+     * @param radius  the radius of the ball
+     * @param contact the contact to write the result into
+     * @param query   the query to search with
+     * @return whether the ball touches a collidable during the step
+     */
+    public boolean getClosestContact(double x, double y, double dx, double dy, double radius, Contact contact,
+                                     CollisionQuery query) {
+        this.queries.increment();
+        query.reset(x, y, x + dx, y + dy, radius);
+        this.broadPhase.query(query);
+        return query.result(contact);
     }
 
     @Override
     public String toString() {
         String sb = "";
-        for (Collidable collidable : this.collidables) {
+        for (Collidable collidable : this.entries.keySet()) {
             sb += collidable + "\n";
         }
         return sb;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,110 @@
+package game.logic.physics;
+
+import game.logic.DoubleMethods;
+
+/**
+ * A {@link Velocity} that can be changed in place.
+ *
+ * <p>Used by the physics step, so a ball can bounce without creating a new velocity on every hit. Anything that
+ * keeps a velocity for later should keep the immutable {@link Velocity} returned by {@link #toVelocity()}.
+ */
+public class MutableVelocity {
+    private double dx;
+    private double dy;
+
+    /**
+     * Instantiates a new mutable velocity from given velocity components.
+     *
+     * @param dx the change in x
+     * @param dy the change in y
+     */
+    public MutableVelocity(double dx, double dy) {
+        this.dx = dx;
+        this.dy = dy;
+    }
+
+    /**
+     * Instantiates a new mutable velocity with the components of a {@link Velocity}.
+     *
+     * @param v the velocity
+     */
+    public MutableVelocity(Velocity v) {
+        this(v.getDx(), v.getDy());
+    }
+
+    /**
+     * Sets the velocity components.
+     *
+     * @param dx the change in x
+     * @param dy the change in y
+     */
+    public void set(double dx, double dy) {
+        this.dx = dx;
+        this.dy = dy;
+    }
+
+    /**
+     * Sets the velocity from an angle and a speed (magnitude).
+     *
+     * @param angle the angle
+     * @param speed the speed
+     * @see Velocity#fromAngleAndSpeed(double, double)
+     */
+    public void setFromAngleAndSpeed(double angle, double speed) {
+        angle = Math.toRadians(angle);
+        this.dx = speed * Math.sin(angle);
+        this.dy = -speed * Math.cos(angle);
+    }
+
+    /**
+     * Gets the change in x.
+     *
+     * @return dx
+     */
+    public double getDx() {
+        return this.dx;
+    }
+
+    /**
+     * Gets the change in y.
+     *
+     * @return dy
+     */
+    public double getDy() {
+        return this.dy;
+    }
+
+    /**
+     * Gets the speed value of the velocity - the length of the velocity vector.
+     *
+     * @return the speed
+     */
+    public double getSpeed() {
+        return Math.sqrt(this.dx * this.dx + this.dy * this.dy);
+    }
+
+    /**
+     * Returns whether the velocity equals to the given components.
+     *
+     * @param otherDx the other change in x
+     * @param otherDy the other change in y
+     * @return whether the velocity equals to the components
+     */
+    public boolean equals(double otherDx, double otherDy) {
+        return DoubleMethods.equals(this.dx, otherDx) && DoubleMethods.equals(this.dy, otherDy);
+    }
+
+    /**
+     * Returns an immutable copy of the velocity.
+     *
+     * @return the velocity
+     */
+    public Velocity toVelocity() {
+        return new Velocity(this.dx, this.dy);
+    }
+
+    @Override
+    public String toString() {
+        return "<" + this.dx + ", " + this.dy + ">";
+    }
+}
@@ -0,0 +1,151 @@
+package game.logic.physics;
+
+import game.logic.DoubleMethods;
+
+/**
+ * Finds the time of impact of a moving circle with an axis aligned rectangle, using only primitive values.
+ *
+ * <p>A circle of radius r touches the rectangle exactly when its center touches the rectangle grown by r on every
+ * side, with rounded corners of radius r (the Minkowski sum of the two). So the center is swept as a segment against
+ * the grown rectangle with a slab test, and if the entry happens next to a corner, it is refined against the circle
+ * around that corner.
+ */
+public final class SweptCircle {
+    private static final int NO_AXIS = 0;
+    private static final int X_AXIS = 1;
+    private static final int Y_AXIS = 2;
+
+    private SweptCircle() {
+    }
+
+    /**
+     * Sweeps a circle from (x, y) to (x + dx, y + dy) against a rectangle, and writes the first contact into the
+     * given {@link Contact}. A circle which already overlaps the rectangle at the start does not collide with it, so
+     * it can leave it freely. The collidable of the contact is not changed.
+     *
+     * @param x       the x coordinate of the center at the start of the step
+     * @param y       the y coordinate of the center at the start of the step
+     * @param dx      the change in x during the step
+     * @param dy      the change in y during the step
+     * @param radius  the radius of the circle
+     * @param left    the left of the rectangle
+     * @param top     the top of the rectangle
+     * @param right   the right of the rectangle
+     * @param bottom  the bottom of the rectangle
+     * @param contact the contact to write the result into
+     * @return whether a contact occurs during the step
+     */
+    public static boolean firstContact(double x, double y, double dx, double dy, double radius,
+                                       double left, double top, double right, double bottom, Contact contact) {
+        double expandedLeft = left - radius;
+        double expandedTop = top - radius;
+        double expandedRight = right + radius;
+        double expandedBottom = bottom + radius;
+
+        //Starting inside the grown rectangle - either overlapping, or next to a corner but outside its circle
+        if (DoubleMethods.greater(x, expandedLeft) && DoubleMethods.greater(expandedRight, x)
+                && DoubleMethods.greater(y, expandedTop) && DoubleMethods.greater(expandedBottom, y)) {
+            if ((x < left || x > right) && (y < top || y > bottom)) {
+                return cornerContact(x, y, dx, dy, radius, x < left ? left : right, y < top ? top : bottom,
+                        contact);
+            }
+            return false;
+        }
+
+        //Slab test against the grown rectangle
+        double tEnter = 0;
+        double tExit = 1;
+        int axis = NO_AXIS;
+        if (dx == 0) {
+            if (x < expandedLeft || x > expandedRight) {
+                return false;
+            }
+        } else {
+            double t1 = (expandedLeft - x) / dx;
+            double t2 = (expandedRight - x) / dx;
+            double near = Math.min(t1, t2);
+            if (near > tEnter) {
+                tEnter = near;
+                axis = X_AXIS;
+            }
+            tExit = Math.min(tExit, Math.max(t1, t2));
+        }
+        if (dy == 0) {
+            if (y < expandedTop || y > expandedBottom) {
+                return false;
+            }
+        } else {
+            double t1 = (expandedTop - y) / dy;
+            double t2 = (expandedBottom - y) / dy;
+            double near = Math.min(t1, t2);
+            if (near > tEnter) {
+                tEnter = near;
+                axis = Y_AXIS;
+            }
+            tExit = Math.min(tExit, Math.max(t1, t2));
+        }
+        if (tEnter > tExit) {
+            return false;
+        }
+
+        //Starting on the boundary - only a contact if moving into the rectangle
+        if (axis == NO_AXIS) {
+            if ((dx > 0 && DoubleMethods.equals(x, expandedLeft))
+                    || (dx < 0 && DoubleMethods.equals(x, expandedRight))) {
+                axis = X_AXIS;
+            } else if ((dy > 0 && DoubleMethods.equals(y, expandedTop))
+                    || (dy < 0 && DoubleMethods.equals(y, expandedBottom))) {
+                axis = Y_AXIS;
+            } else {
+                return false;
+            }
+        }
+
+        //Entering next to a corner, where the grown rectangle is rounded
+        double hitX = x + dx * tEnter;
+        double hitY = y + dy * tEnter;
+        if ((hitX < left || hitX > right) && (hitY < top || hitY > bottom)) {
+            return cornerContact(x, y, dx, dy, radius, hitX < left ? left : right, hitY < top ? top : bottom,
+                    contact);
+        }
+
+        //Entering through a side
+        double pointX = Math.min(right, Math.max(left, hitX));
+        double pointY = Math.min(bottom, Math.max(top, hitY));
+        if (axis == X_AXIS) {
+            contact.set(tEnter, -Math.signum(dx), 0, pointX, pointY);
+        } else {
+            contact.set(tEnter, 0, -Math.signum(dy), pointX, pointY);
+        }
+        return true;
+    }
+
+    /**
+     * Sweeps the center against the circle of the given radius around a corner of the rectangle.
+     */
+    private static boolean cornerContact(double x, double y, double dx, double dy, double radius,
+                                         double cornerX, double cornerY, Contact contact) {
+        double fromCornerX = x - cornerX;
+        double fromCornerY = y - cornerY;
+        //Solving |from + d * t| = radius, which is a * t^2 + 2b * t + c = 0
+        double a = dx * dx + dy * dy;
+        double b = fromCornerX * dx + fromCornerY * dy;
+        double c = fromCornerX * fromCornerX + fromCornerY * fromCornerY - radius * radius;
+        //Already overlapping the corner, not moving, or moving away from it
+        if (c < 0 || a == 0 || b >= 0) {
+            return false;
+        }
+        double discriminant = b * b - a * c;
+        if (discriminant < 0) {
+            return false;
+        }
+        double t = Math.max(0, (-b - Math.sqrt(discriminant)) / a);
+        if (t > 1) {
+            return false;
+        }
+        double normalX = (fromCornerX + dx * t) / radius;
+        double normalY = (fromCornerY + dy * t) / radius;
+        contact.set(t, normalX, normalY, cornerX, cornerY);
+        return true;
+    }
+}
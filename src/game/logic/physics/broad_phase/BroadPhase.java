@@ -0,0 +1,39 @@
+package game.logic.physics.broad_phase;
+
+/**
+ * A spatial index over collidables, used by {@link game.logic.physics.GameEnvironment} to find the candidates a
+ * trajectory might hit without testing every collidable.
+ *
+ * <p>Implementations may return more candidates than needed (the query does the exact test), but must never miss a
+ * collidable whose rectangle the trajectory touches.
+ */
+public interface BroadPhase {
+    /**
+     * Adds an entry to the index.
+     *
+     * @param entry the entry
+     */
+    void add(CollidableEntry entry);
+
+    /**
+     * Removes an entry from the index.
+     *
+     * @param entry the entry
+     */
+    void remove(CollidableEntry entry);
+
+    /**
+     * Notifies the index that the collision rectangle of the entry has changed.
+     *
+     * @param entry the entry
+     */
+    void update(CollidableEntry entry);
+
+    /**
+     * Feeds every entry the trajectory of the query might hit into {@link CollisionQuery#test(CollidableEntry)}.
+     * Reading the index is safe from several threads at once, as long as nothing is added, removed or updated.
+     *
+     * @param query the query
+     */
+    void query(CollisionQuery query);
+}
@@ -0,0 +1,103 @@
+package game.logic.physics.broad_phase;
+
+import game.geometry.shapes.Rectangle;
+import game.logic.physics.Collidable;
+
+/**
+ * Wraps a {@link Collidable} that has been registered in a {@link BroadPhase}.
+ *
+ * <p>Each entry remembers the order in which it was added, so that collisions at the exact same distance are always
+ * resolved the same way (the first added collidable wins), no matter which broad phase found them.
+ * It also remembers the bounds it was indexed with, so structures can find it again after the collidable has moved.
+ */
+public class CollidableEntry {
+    private final Collidable collidable;
+    private final long order;
+    //Bounds of the collision rectangle at the time of the last (re)index
+    private double left;
+    private double top;
+    private double right;
+    private double bottom;
+
+    /**
+     * Instantiates a new entry.
+     *
+     * @param collidable the collidable
+     * @param order      the insertion order
+     */
+    public CollidableEntry(Collidable collidable, long order) {
+        this.collidable = collidable;
+        this.order = order;
+        this.refreshBounds();
+    }
+
+    /**
+     * Returns the wrapped collidable.
+     *
+     * @return the collidable
+     */
+    public Collidable collidable() {
+        return this.collidable;
+    }
+
+    /**
+     * Returns the insertion order of the entry. Smaller means added earlier.
+     *
+     * @return the order
+     */
+    public long order() {
+        return this.order;
+    }
+
+    /**
+     * Copies the current bounds of the collision rectangle into the entry.
+     */
+    public void refreshBounds() {
+        Rectangle rect = this.collidable.getCollisionRectangle();
+        this.left = rect.getLeft();
+        this.top = rect.getTop();
+        this.right = rect.getRight();
+        this.bottom = rect.getBottom();
+    }
+
+    /**
+     * Returns the left bound the entry was indexed with.
+     *
+     * @return the x coordinate
+     */
+    public double left() {
+        return this.left;
+    }
+
+    /**
+     * Returns the top bound the entry was indexed with.
+     *
+     * @return the y coordinate
+     */
+    public double top() {
+        return this.top;
+    }
+
+    /**
+     * Returns the right bound the entry was indexed with.
+     *
+     * @return the x coordinate
+     */
+    public double right() {
+        return this.right;
+    }
+
+    /**
+     * Returns the bottom bound the entry was indexed with.
+     *
+     * @return the y coordinate
+     */
+    public double bottom() {
+        return this.bottom;
+    }
+
+    @Override
+    public String toString() {
+        return this.collidable.toString();
+    }
+}
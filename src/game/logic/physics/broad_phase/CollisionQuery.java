@@ -0,0 +1,268 @@
+package game.logic.physics.broad_phase;
+
+import game.geometry.Point;
+import game.geometry.shapes.Line;
+import game.geometry.shapes.Rectangle;
+import game.logic.physics.CollisionInfo;
+import game.logic.physics.Contact;
+import game.logic.physics.SweptCircle;
+
+/**
+ * Collects the closest collision along a trajectory while a {@link BroadPhase} feeds it candidate entries.
+ *
+ * <p>A query either follows a point along a {@link Line} ({@link #reset(Line)}), or sweeps a circle along it
+ * ({@link #reset(double, double, double, double, double)}), in which case the broad phase must also find the entries
+ * within {@link #margin()} of the trajectory.
+ *
+ * <p>The result is independent of the order in which candidates are tested, and testing the same candidate twice is
+ * harmless. Between two collisions at the exact same distance the entry that was added first wins, which is the same
+ * result as a linear scan over all collidables in insertion order.
+ *
+ * <p>A query holds state, so each thread must use its own instance.
+ */
+public class CollisionQuery {
+    //Added to distances compared against the closest collision, so rounding errors never skip a candidate
+    private static final double EPSILON = 0.000001;
+    private Line trajectory;
+    private double startX;
+    private double startY;
+    private double endX;
+    private double endY;
+    private double length;
+    //The radius of the swept circle, or a negative value when following a point along a line
+    private double radius;
+    //The current best collision
+    private Point closestPoint;
+    private CollidableEntry closestEntry;
+    private double minDistance;
+    private final Contact closestContact;
+    private final Contact candidate;
+    //Scratch space for broad phases that walk trees
+    private int[] stack;
+
+    /**
+     * Instantiates a new empty query. Call {@link #reset(Line)} before using it.
+     */
+    public CollisionQuery() {
+        this.minDistance = Double.MAX_VALUE;
+        this.radius = -1;
+        this.closestContact = new Contact();
+        this.candidate = new Contact();
+    }
+
+    /**
+     * Instantiates a new query along the given trajectory.
+     *
+     * @param trajectory the trajectory
+     */
+    public CollisionQuery(Line trajectory) {
+        this();
+        this.reset(trajectory);
+    }
+
+    /**
+     * Clears the query and starts a new one along the given trajectory.
+     *
+     * @param trajectory the trajectory
+     */
+    public void reset(Line trajectory) {
+        this.trajectory = trajectory;
+        this.startX = trajectory.start().getX();
+        this.startY = trajectory.start().getY();
+        this.endX = trajectory.end().getX();
+        this.endY = trajectory.end().getY();
+        this.length = trajectory.length();
+        this.radius = -1;
+        this.clear();
+    }
+
+    /**
+     * Clears the query and starts a new one, sweeping a circle from the start point to the end point.
+     * Does not allocate.
+     *
+     * @param startX the x coordinate of the center at the start
+     * @param startY the y coordinate of the center at the start
+     * @param endX   the x coordinate of the center at the end
+     * @param endY   the y coordinate of the center at the end
+     * @param radius the radius of the circle
+     */
+    public void reset(double startX, double startY, double endX, double endY, double radius) {
+        this.trajectory = null;
+        this.startX = startX;
+        this.startY = startY;
+        this.endX = endX;
+        this.endY = endY;
+        this.length = Math.sqrt((endX - startX) * (endX - startX) + (endY - startY) * (endY - startY));
+        this.radius = radius;
+        this.clear();
+    }
+
+    private void clear() {
+        this.closestPoint = null;
+        this.closestEntry = null;
+        this.minDistance = Double.MAX_VALUE;
+        this.closestContact.setCollidable(null);
+    }
+
+    /**
+     * Tests a candidate entry against the trajectory, and keeps it if it is the closest collision so far.
+     *
+     * @param entry the candidate
+     */
+    public void test(CollidableEntry entry) {
+        if (this.radius >= 0) {
+            this.sweep(entry);
+            return;
+        }
+        Point collisionPoint = this.trajectory.closestIntersectionToStartOfLine(
+                entry.collidable().getCollisionRectangle());
+        if (collisionPoint == null) {
+            return;
+        }
+        double distance = this.trajectory.start().distance(collisionPoint);
+        if (distance < this.minDistance
+                || (distance == this.minDistance && entry.order() < this.closestEntry.order())) {
+            this.closestPoint = collisionPoint;
+            this.closestEntry = entry;
+            this.minDistance = distance;
+        }
+    }
+
+    private void sweep(CollidableEntry entry) {
+        Rectangle rect = entry.collidable().getCollisionRectangle();
+        if (!SweptCircle.firstContact(this.startX, this.startY, this.endX - this.startX, this.endY - this.startY,
+                this.radius, rect.getLeft(), rect.getTop(), rect.getRight(), rect.getBottom(), this.candidate)) {
+            return;
+        }
+        double distance = this.candidate.time() * this.length;
+        if (distance < this.minDistance
+                || (distance == this.minDistance && entry.order() < this.closestEntry.order())) {
+            this.closestContact.copyFrom(this.candidate);
+            this.closestContact.setCollidable(entry.collidable());
+            this.closestEntry = entry;
+            this.minDistance = distance;
+        }
+    }
+
+    /**
+     * Returns the distance from the start of the trajectory to the closest collision found so far.
+     * Returns {@link Double#MAX_VALUE} if none was found.
+     *
+     * @return the distance
+     */
+    public double minDistance() {
+        return this.minDistance;
+    }
+
+    /**
+     * Returns the furthest proportion of the trajectory (between 0 and 1) at which a candidate can still be closer
+     * than the closest collision found so far. Broad phases may skip everything beyond it.
+     *
+     * @return the proportion
+     */
+    public double reach() {
+        if (this.length == 0) {
+            return 1;
+        }
+        return Math.min(1, (this.minDistance + EPSILON) / this.length);
+    }
+
+    /**
+     * Returns how far from the trajectory a candidate can be and still collide - the radius of the swept circle,
+     * or 0 when following a point.
+     *
+     * @return the margin
+     */
+    public double margin() {
+        return Math.max(0, this.radius);
+    }
+
+    /**
+     * Returns the x coordinate of the start of the trajectory.
+     *
+     * @return the x coordinate
+     */
+    public double startX() {
+        return this.startX;
+    }
+
+    /**
+     * Returns the y coordinate of the start of the trajectory.
+     *
+     * @return the y coordinate
+     */
+    public double startY() {
+        return this.startY;
+    }
+
+    /**
+     * Returns the x coordinate of the end of the trajectory.
+     *
+     * @return the x coordinate
+     */
+    public double endX() {
+        return this.endX;
+    }
+
+    /**
+     * Returns the y coordinate of the end of the trajectory.
+     *
+     * @return the y coordinate
+     */
+    public double endY() {
+        return this.endY;
+    }
+
+    /**
+     * Returns the length of the trajectory.
+     *
+     * @return the length
+     */
+    public double length() {
+        return this.length;
+    }
+
+    /**
+     * Returns a scratch array of at least the given size, which a broad phase can use as a stack while it walks
+     * its structure. The array is reused between queries.
+     *
+     * @param capacity the minimum size
+     * @return the array
+     */
+    public int[] stack(int capacity) {
+        if (this.stack == null || this.stack.length < capacity) {
+            this.stack = new int[Math.max(capacity, 2 * (this.stack == null ? 0 : this.stack.length))];
+        }
+        return this.stack;
+    }
+
+    /**
+     * Returns the closest collision found, or null if there is none.
+     *
+     * @return the collision info
+     */
+    public CollisionInfo result() {
+        if (this.closestEntry == null) {
+            return null;
+        }
+        if (this.radius >= 0) {
+            return new CollisionInfo(new Point(this.closestContact.pointX(), this.closestContact.pointY()),
+                    this.closestEntry.collidable());
+        }
+        return new CollisionInfo(this.closestPoint, this.closestEntry.collidable());
+    }
+
+    /**
+     * Copies the closest contact found by a swept query into the given contact, without allocating.
+     *
+     * @param contact the contact to fill
+     * @return whether a contact was found
+     */
+    public boolean result(Contact contact) {
+        if (this.closestEntry == null) {
+            return false;
+        }
+        contact.copyFrom(this.closestContact);
+        return true;
+    }
+}
@@ -0,0 +1,411 @@
+package game.logic.physics.broad_phase;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A {@link BroadPhase} for collidables that move, such as the paddle. The entries are the leaves of a binary tree
+ * of bounding boxes (a bounding volume hierarchy), where each node's box contains the boxes of its children.
+ *
+ * <p>Every leaf box is "fattened" by a margin around the collidable, so small moves stay inside the box and do not
+ * change the tree at all. Only when the collidable leaves its fat box is the leaf removed and inserted again, after
+ * which the boxes of its ancestors are refitted. On the way up, any ancestor whose subtrees differ in height by more
+ * than 1 is rotated (as in an AVL tree), so the tree stays balanced whatever order the entries are added in - even
+ * rows of blocks added one after the other - and both take O(log n).
+ *
+ * <p>The nodes are kept in parallel arrays and reused through a free list, so moving entries does not allocate.
+ */
+public class DynamicTree implements BroadPhase {
+    private static final int NULL_NODE = -1;
+    private static final int INITIAL_CAPACITY = 16;
+    //Leaf boxes are at least slightly bigger than the collidable, so points on its edges are always inside them
+    private static final double EPSILON = 0.000001;
+    private final double margin;
+    private final Map<CollidableEntry, Integer> leaves;
+    private int root;
+    private int freeList;
+    //Node data
+    private double[] minX;
+    private double[] minY;
+    private double[] maxX;
+    private double[] maxY;
+    private int[] parent;
+    private int[] child1;
+    private int[] child2;
+    private int[] height;
+    private CollidableEntry[] entries;
+
+    /**
+     * Instantiates a new dynamic tree.
+     *
+     * @param margin the distance the fat box of each leaf extends around its collidable
+     */
+    public DynamicTree(double margin) {
+        this.margin = margin;
+        this.leaves = new HashMap<>();
+        this.root = NULL_NODE;
+        this.minX = new double[INITIAL_CAPACITY];
+        this.minY = new double[INITIAL_CAPACITY];
+        this.maxX = new double[INITIAL_CAPACITY];
+        this.maxY = new double[INITIAL_CAPACITY];
+        this.parent = new int[INITIAL_CAPACITY];
+        this.child1 = new int[INITIAL_CAPACITY];
+        this.child2 = new int[INITIAL_CAPACITY];
+        this.height = new int[INITIAL_CAPACITY];
+        this.entries = new CollidableEntry[INITIAL_CAPACITY];
+        this.linkFreeNodes(0);
+    }
+
+    @Override
+    public void add(CollidableEntry entry) {
+        if (this.leaves.containsKey(entry)) {
+            return;
+        }
+        int leaf = allocateNode();
+        this.entries[leaf] = entry;
+        fatten(leaf, entry);
+        insertLeaf(leaf);
+        this.leaves.put(entry, leaf);
+    }
+
+    @Override
+    public void remove(CollidableEntry entry) {
+        Integer leaf = this.leaves.remove(entry);
+        if (leaf == null) {
+            return;
+        }
+        removeLeaf(leaf);
+        freeNode(leaf);
+    }
+
+    @Override
+    public void update(CollidableEntry entry) {
+        Integer leaf = this.leaves.get(entry);
+        if (leaf == null) {
+            return;
+        }
+        entry.refreshBounds();
+
+        //Still inside the fat box - nothing to do
+        if (this.minX[leaf] <= entry.left() - EPSILON && this.minY[leaf] <= entry.top() - EPSILON
+                && entry.right() + EPSILON <= this.maxX[leaf] && entry.bottom() + EPSILON <= this.maxY[leaf]) {
+            return;
+        }
+        removeLeaf(leaf);
+        fatten(leaf, entry);
+        insertLeaf(leaf);
+    }
+
+    /**
+     * Returns the height of the tree - the number of edges on the longest path from the root to a leaf.
+     *
+     * @return the height, or -1 if the tree is empty
+     */
+    public int getHeight() {
+        return this.root == NULL_NODE ? -1 : this.height[this.root];
+    }
+
+    /**
+     * Tests every leaf whose box the trajectory crosses (or passes within the margin of the query). Subtrees that are
+     * further away than the closest collision found so far are skipped.
+     *
+     * @param query the query
+     */
+    @Override
+    public void query(CollisionQuery query) {
+        if (this.root == NULL_NODE) {
+            return;
+        }
+        double x0 = query.startX();
+        double y0 = query.startY();
+        double dx = query.endX() - x0;
+        double dy = query.endY() - y0;
+        double extra = query.margin();
+
+        int[] stack = query.stack(this.height[this.root] + 1);
+        int size = 0;
+        stack[size++] = this.root;
+        while (size > 0) {
+            int node = stack[--size];
+
+            if (!segmentOverlaps(node, x0, y0, dx, dy, extra, query.reach())) {
+                continue;
+            }
+            if (this.child1[node] == NULL_NODE) {
+                query.test(this.entries[node]);
+            } else {
+                stack[size++] = this.child1[node];
+                stack[size++] = this.child2[node];
+            }
+        }
+    }
+
+    /**
+     * Returns whether the part of the trajectory between the proportions 0 and reach crosses the box of the node
+     * grown by extra on every side (slab test).
+     */
+    private boolean segmentOverlaps(int node, double x0, double y0, double dx, double dy, double extra,
+                                    double reach) {
+        double tMin = 0;
+        double tMax = reach;
+        double left = this.minX[node] - extra;
+        double top = this.minY[node] - extra;
+        double right = this.maxX[node] + extra;
+        double bottom = this.maxY[node] + extra;
+        if (dx == 0) {
+            if (x0 < left || x0 > right) {
+                return false;
+            }
+        } else {
+            double t1 = (left - x0) / dx;
+            double t2 = (right - x0) / dx;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+        if (dy == 0) {
+            if (y0 < top || y0 > bottom) {
+                return false;
+            }
+        } else {
+            double t1 = (top - y0) / dy;
+            double t2 = (bottom - y0) / dy;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+        return tMin <= tMax;
+    }
+
+    private void fatten(int leaf, CollidableEntry entry) {
+        double extra = this.margin + EPSILON;
+        this.minX[leaf] = entry.left() - extra;
+        this.minY[leaf] = entry.top() - extra;
+        this.maxX[leaf] = entry.right() + extra;
+        this.maxY[leaf] = entry.bottom() + extra;
+    }
+
+    /**
+     * Inserts the leaf next to the sibling that grows the least when merged with it, then refits the ancestors.
+     */
+    private void insertLeaf(int leaf) {
+        if (this.root == NULL_NODE) {
+            this.root = leaf;
+            this.parent[leaf] = NULL_NODE;
+            return;
+        }
+
+        //Choosing the sibling by walking down the cheapest path (perimeter is used as the cost in 2D)
+        int sibling = this.root;
+        while (this.child1[sibling] != NULL_NODE) {
+            int first = this.child1[sibling];
+            int second = this.child2[sibling];
+            double combined = mergedPerimeter(sibling, leaf);
+            //Cost of making a new parent for the node and the leaf here
+            double cost = 2 * combined;
+            //Minimum cost of pushing the leaf further down the tree
+            double inheritance = 2 * (combined - perimeter(sibling));
+            double costFirst = descendCost(first, leaf) + inheritance;
+            double costSecond = descendCost(second, leaf) + inheritance;
+
+            if (cost < costFirst && cost < costSecond) {
+                break;
+            }
+            sibling = costFirst < costSecond ? first : second;
+        }
+
+        //Creating a new parent for the sibling and the leaf
+        int oldParent = this.parent[sibling];
+        int newParent = allocateNode();
+        this.parent[newParent] = oldParent;
+        this.entries[newParent] = null;
+        this.child1[newParent] = sibling;
+        this.child2[newParent] = leaf;
+        this.parent[sibling] = newParent;
+        this.parent[leaf] = newParent;
+        if (oldParent == NULL_NODE) {
+            this.root = newParent;
+        } else if (this.child1[oldParent] == sibling) {
+            this.child1[oldParent] = newParent;
+        } else {
+            this.child2[oldParent] = newParent;
+        }
+        refit(newParent);
+    }
+
+    private double descendCost(int node, int leaf) {
+        if (this.child1[node] == NULL_NODE) {
+            return mergedPerimeter(node, leaf);
+        }
+        return mergedPerimeter(node, leaf) - perimeter(node);
+    }
+
+    /**
+     * Removes the leaf from the tree - its sibling takes the place of their parent.
+     */
+    private void removeLeaf(int leaf) {
+        if (leaf == this.root) {
+            this.root = NULL_NODE;
+            return;
+        }
+        int oldParent = this.parent[leaf];
+        int grandParent = this.parent[oldParent];
+        int sibling = this.child1[oldParent] == leaf ? this.child2[oldParent] : this.child1[oldParent];
+
+        if (grandParent == NULL_NODE) {
+            this.root = sibling;
+            this.parent[sibling] = NULL_NODE;
+        } else {
+            if (this.child1[grandParent] == oldParent) {
+                this.child1[grandParent] = sibling;
+            } else {
+                this.child2[grandParent] = sibling;
+            }
+            this.parent[sibling] = grandParent;
+            refit(grandParent);
+        }
+        freeNode(oldParent);
+    }
+
+    /**
+     * Rebalances and recomputes the boxes and heights from the given node up to the root.
+     */
+    private void refit(int node) {
+        while (node != NULL_NODE) {
+            node = balance(node);
+            fit(node);
+            node = this.parent[node];
+        }
+    }
+
+    /**
+     * Recomputes the box and height of an internal node from its children.
+     */
+    private void fit(int node) {
+        int first = this.child1[node];
+        int second = this.child2[node];
+        this.minX[node] = Math.min(this.minX[first], this.minX[second]);
+        this.minY[node] = Math.min(this.minY[first], this.minY[second]);
+        this.maxX[node] = Math.max(this.maxX[first], this.maxX[second]);
+        this.maxY[node] = Math.max(this.maxY[first], this.maxY[second]);
+        this.height[node] = 1 + Math.max(this.height[first], this.height[second]);
+    }
+
+    /**
+     * Rotates the taller child of the node up into its place if the children differ in height by more than 1. The
+     * lower child of the grandchildren is handed down to the node, and the higher one stays with the raised child.
+     * The children of the node must already be fitted.
+     *
+     * @return the node now in the place of the given node
+     */
+    private int balance(int node) {
+        if (this.child1[node] == NULL_NODE) {
+            return node;
+        }
+        int first = this.child1[node];
+        int second = this.child2[node];
+        int difference = this.height[second] - this.height[first];
+        if (difference > 1) {
+            rotateUp(node, second, false);
+            return second;
+        }
+        if (difference < -1) {
+            rotateUp(node, first, true);
+            return first;
+        }
+        return node;
+    }
+
+    /**
+     * Moves the child up into the place of the node, which becomes the first child of the child. The node keeps its
+     * other child, and takes the lower of the children of the child in place of the child.
+     */
+    private void rotateUp(int node, int child, boolean isFirst) {
+        int grandChild1 = this.child1[child];
+        int grandChild2 = this.child2[child];
+
+        //The child takes the place of the node under its parent
+        int oldParent = this.parent[node];
+        this.parent[child] = oldParent;
+        if (oldParent == NULL_NODE) {
+            this.root = child;
+        } else if (this.child1[oldParent] == node) {
+            this.child1[oldParent] = child;
+        } else {
+            this.child2[oldParent] = child;
+        }
+        this.child1[child] = node;
+        this.parent[node] = child;
+
+        //The higher grandchild stays with the child, the lower one goes to the node
+        int higher = grandChild1;
+        int lower = grandChild2;
+        if (this.height[grandChild2] > this.height[grandChild1]) {
+            higher = grandChild2;
+            lower = grandChild1;
+        }
+        this.child2[child] = higher;
+        if (isFirst) {
+            this.child1[node] = lower;
+        } else {
+            this.child2[node] = lower;
+        }
+        this.parent[lower] = node;
+        fit(node);
+    }
+
+    private double perimeter(int node) {
+        return 2 * (this.maxX[node] - this.minX[node] + this.maxY[node] - this.minY[node]);
+    }
+
+    private double mergedPerimeter(int a, int b) {
+        double width = Math.max(this.maxX[a], this.maxX[b]) - Math.min(this.minX[a], this.minX[b]);
+        double height = Math.max(this.maxY[a], this.maxY[b]) - Math.min(this.minY[a], this.minY[b]);
+        return 2 * (width + height);
+    }
+
+    private int allocateNode() {
+        if (this.freeList == NULL_NODE) {
+            grow();
+        }
+        int node = this.freeList;
+        this.freeList = this.parent[node];
+        this.parent[node] = NULL_NODE;
+        this.child1[node] = NULL_NODE;
+        this.child2[node] = NULL_NODE;
+        this.height[node] = 0;
+        return node;
+    }
+
+    private void freeNode(int node) {
+        this.entries[node] = null;
+        this.parent[node] = this.freeList;
+        this.freeList = node;
+    }
+
+    private void grow() {
+        int oldCapacity = this.parent.length;
+        int capacity = oldCapacity * 2;
+        this.minX = Arrays.copyOf(this.minX, capacity);
+        this.minY = Arrays.copyOf(this.minY, capacity);
+        this.maxX = Arrays.copyOf(this.maxX, capacity);
+        this.maxY = Arrays.copyOf(this.maxY, capacity);
+        this.parent = Arrays.copyOf(this.parent, capacity);
+        this.child1 = Arrays.copyOf(this.child1, capacity);
+        this.child2 = Arrays.copyOf(this.child2, capacity);
+        this.height = Arrays.copyOf(this.height, capacity);
+        this.entries = Arrays.copyOf(this.entries, capacity);
+        linkFreeNodes(oldCapacity);
+    }
+
+    /**
+     * Links all the nodes from the given index to the end of the arrays into the free list (the parent array holds
+     * the next free node).
+     */
+    private void linkFreeNodes(int from) {
+        for (int i = from; i < this.parent.length - 1; i++) {
+            this.parent[i] = i + 1;
+        }
+        this.parent[this.parent.length - 1] = NULL_NODE;
+        this.freeList = from;
+    }
+}
@@ -0,0 +1,64 @@
+package game.logic.physics.broad_phase;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A {@link BroadPhase} that keeps static collidables and moving collidables in two different structures, and queries
+ * both.
+ *
+ * <p>Every entry starts as static. The first time an entry is updated it is considered moving, and is moved from the
+ * static structure to the dynamic one for good. This way blocks that never move stay in a structure that is cheap to
+ * query (such as a {@link UniformGrid}), and only the few that do move pay for a structure that is cheap to update
+ * (such as a {@link DynamicTree}).
+ */
+public class HybridBroadPhase implements BroadPhase {
+    private final BroadPhase staticPhase;
+    private final BroadPhase dynamicPhase;
+    private final Set<CollidableEntry> moving;
+
+    /**
+     * Instantiates a new hybrid broad phase.
+     *
+     * @param staticPhase  the structure for collidables that do not move
+     * @param dynamicPhase the structure for collidables that move
+     */
+    public HybridBroadPhase(BroadPhase staticPhase, BroadPhase dynamicPhase) {
+        this.staticPhase = staticPhase;
+        this.dynamicPhase = dynamicPhase;
+        this.moving = new HashSet<>();
+    }
+
+    @Override
+    public void add(CollidableEntry entry) {
+        this.staticPhase.add(entry);
+    }
+
+    @Override
+    public void remove(CollidableEntry entry) {
+        if (this.moving.remove(entry)) {
+            this.dynamicPhase.remove(entry);
+        } else {
+            this.staticPhase.remove(entry);
+        }
+    }
+
+    @Override
+    public void update(CollidableEntry entry) {
+        if (this.moving.contains(entry)) {
+            this.dynamicPhase.update(entry);
+            return;
+        }
+        //First move - from now on the entry is handled by the dynamic structure
+        this.staticPhase.remove(entry);
+        entry.refreshBounds();
+        this.moving.add(entry);
+        this.dynamicPhase.add(entry);
+    }
+
+    @Override
+    public void query(CollisionQuery query) {
+        this.staticPhase.query(query);
+        this.dynamicPhase.query(query);
+    }
+}
@@ -0,0 +1,41 @@
+package game.logic.physics.broad_phase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The simplest {@link BroadPhase} - every entry is a candidate for every query.
+ * Good enough for a handful of collidables, and used as the reference the other broad phases are compared to.
+ */
+public class LinearScan implements BroadPhase {
+    private final List<CollidableEntry> entries;
+
+    /**
+     * Instantiates a new linear scan.
+     */
+    public LinearScan() {
+        this.entries = new ArrayList<>();
+    }
+
+    @Override
+    public void add(CollidableEntry entry) {
+        this.entries.add(entry);
+    }
+
+    @Override
+    public void remove(CollidableEntry entry) {
+        this.entries.remove(entry);
+    }
+
+    @Override
+    public void update(CollidableEntry entry) {
+        entry.refreshBounds();
+    }
+
+    @Override
+    public void query(CollisionQuery query) {
+        for (CollidableEntry entry : this.entries) {
+            query.test(entry);
+        }
+    }
+}
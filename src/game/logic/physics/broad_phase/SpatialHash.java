@@ -0,0 +1,280 @@
+package game.logic.physics.broad_phase;
+
+import java.util.Arrays;
+
+/**
+ * Finds the pairs of points that may be close to each other, such as the centers of balls that may touch, without
+ * testing every point against every other point.
+ *
+ * <p>The plane is split into square cells, and each point is put in the bucket its cell hashes to. Two points that
+ * are at most a cell apart are in the same cell or in neighboring cells, so only the points in the 9 buckets around
+ * a point have to be tested against it. Cells that hash to the same bucket only add candidates, never lose them.
+ *
+ * <p>The hash is meant to be built again every step, which takes linear time and does not allocate once its arrays
+ * are large enough: the points are counted into buckets, and then sorted by bucket (a counting sort) into a single
+ * array.
+ *
+ * <p>Points can be put in groups whose pairs are never visited, such as balls that cannot bounce off each other.
+ * The points of a group that are in the same bucket are skipped at once rather than one by one, so a crowd of points
+ * of a single group costs as little as a single point - if the points are given in the order of their groups, which
+ * keeps the points of each group next to each other within every bucket.
+ */
+public class SpatialHash {
+    private static final int INITIAL_CAPACITY = 16;
+    //Large primes, so cells next to each other end up in unrelated buckets
+    private static final int X_PRIME = 73856093;
+    private static final int Y_PRIME = 19349663;
+    //The group of points that are in no group
+    private static final int NO_GROUP = -1;
+    private int count;
+    //The cell and the bucket of each point
+    private int[] cellsX;
+    private int[] cellsY;
+    private int[] buckets;
+    //The points of bucket b are sorted[bucketStarts[b]] up to (not including) sorted[bucketStarts[b + 1]]
+    private int[] bucketStarts;
+    private int[] sorted;
+    //The groups of the points, or null if they are in no groups
+    private int[] groups;
+    //sorted[s] up to (not including) sorted[groupEnds[s]] are in the same bucket and group
+    private int[] groupEnds;
+    private int bucketMask;
+    //The buckets around the current point, without repeats
+    private final int[] neighborBuckets;
+
+    /**
+     * A visitor of pairs of points.
+     */
+    public interface PairVisitor {
+        /**
+         * Visits a pair of points that may be close to each other.
+         *
+         * @param i the index of a point
+         * @param j the index of the other point, larger than i
+         */
+        void visit(int i, int j);
+    }
+
+    /**
+     * A condition on pairs of points.
+     */
+    public interface PairCondition {
+        /**
+         * Returns whether the condition holds for a pair of points.
+         *
+         * @param i the index of a point
+         * @param j the index of the other point
+         * @return whether the condition holds
+         */
+        boolean holds(int i, int j);
+    }
+
+    /**
+     * Instantiates a new empty spatial hash.
+     */
+    public SpatialHash() {
+        this.cellsX = new int[INITIAL_CAPACITY];
+        this.cellsY = new int[INITIAL_CAPACITY];
+        this.buckets = new int[INITIAL_CAPACITY];
+        this.sorted = new int[INITIAL_CAPACITY];
+        this.groupEnds = new int[INITIAL_CAPACITY];
+        this.bucketStarts = new int[2 * INITIAL_CAPACITY + 1];
+        this.bucketMask = 2 * INITIAL_CAPACITY - 1;
+        this.neighborBuckets = new int[9];
+    }
+
+    /**
+     * Builds the hash from the given points, replacing the points it had.
+     *
+     * @param x        the x coordinates of the points
+     * @param y        the y coordinates of the points
+     * @param count    the number of points, the first ones in the arrays
+     * @param cellSize the size of a cell - pairs of points that are further apart than it may not be visited
+     */
+    public void build(double[] x, double[] y, int count, double cellSize) {
+        this.build(x, y, null, count, cellSize);
+    }
+
+    /**
+     * Builds the hash from the given points, replacing the points it had. Pairs of points in the same group are not
+     * visited.
+     *
+     * @param x        the x coordinates of the points
+     * @param y        the y coordinates of the points
+     * @param groups   the groups of the points, a negative group for a point in no group, or null if no point is in
+     *                 a group. Points in the same group are best given next to each other
+     * @param count    the number of points, the first ones in the arrays
+     * @param cellSize the size of a cell - pairs of points that are further apart than it may not be visited
+     */
+    public void build(double[] x, double[] y, int[] groups, int count, double cellSize) {
+        this.ensureCapacity(count);
+        this.count = count;
+        this.groups = groups;
+        double cellsPerUnit = 1 / cellSize;
+        int[] starts = this.bucketStarts;
+        int numberOfBuckets = this.bucketMask + 1;
+        Arrays.fill(starts, 0, numberOfBuckets + 1, 0);
+
+        //Counting the points of each bucket, one slot ahead so the sums below give the starts
+        for (int i = 0; i < count; i++) {
+            int cellX = (int) Math.floor(x[i] * cellsPerUnit);
+            int cellY = (int) Math.floor(y[i] * cellsPerUnit);
+            int bucket = this.bucketOf(cellX, cellY);
+            this.cellsX[i] = cellX;
+            this.cellsY[i] = cellY;
+            this.buckets[i] = bucket;
+            starts[bucket + 1]++;
+        }
+        for (int b = 0; b < numberOfBuckets; b++) {
+            starts[b + 1] += starts[b];
+        }
+        //Placing the points, in the order of their indices within each bucket
+        for (int i = 0; i < count; i++) {
+            int bucket = this.buckets[i];
+            this.sorted[starts[bucket]++] = i;
+        }
+        //Placing moved each start to the start of the next bucket, so moving them back
+        for (int b = numberOfBuckets; b > 0; b--) {
+            starts[b] = starts[b - 1];
+        }
+        starts[0] = 0;
+        if (groups != null) {
+            this.findGroupEnds();
+        }
+    }
+
+    /**
+     * Finds where the run of points of the same bucket and group that each sorted point starts ends, from the last
+     * point to the first.
+     */
+    private void findGroupEnds() {
+        for (int s = this.count - 1; s >= 0; s--) {
+            int next = s + 1;
+            boolean sameRun = next < this.count && this.buckets[this.sorted[next]] == this.buckets[this.sorted[s]]
+                    && this.groups[this.sorted[next]] == this.groups[this.sorted[s]];
+            this.groupEnds[s] = sameRun ? this.groupEnds[next] : next;
+        }
+    }
+
+    /**
+     * Visits every pair of points that are at most a cell apart (and possibly some that are further apart) exactly
+     * once, except for pairs of points in the same group. The pairs are visited in the same order every time the
+     * hash is built from the same points.
+     *
+     * @param visitor the visitor
+     */
+    public void forEachPair(PairVisitor visitor) {
+        for (int i = 0; i < this.count; i++) {
+            int group = this.groups == null ? NO_GROUP : this.groups[i];
+            int neighbors = this.findNeighborBuckets(this.cellsX[i], this.cellsY[i]);
+            for (int n = 0; n < neighbors; n++) {
+                int bucket = this.neighborBuckets[n];
+                int s = this.bucketStarts[bucket];
+                while (s < this.bucketStarts[bucket + 1]) {
+                    int j = this.sorted[s];
+                    if (group >= 0 && this.groups[j] == group) {
+                        s = this.groupEnds[s];
+                        continue;
+                    }
+                    if (j > i) {
+                        visitor.visit(i, j);
+                    }
+                    s++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns whether the condition holds for a point and another point of its group that is at most a cell away
+     * from it (or possibly further away). The points of other groups are skipped, and the search starts with the
+     * bucket of the point, where the closest points usually are, and stops at the first point the condition holds
+     * for.
+     *
+     * @param i         the index of the point
+     * @param condition the condition
+     * @return whether the condition holds for the point and another point of its group, or false if the point is in
+     *         no group
+     */
+    public boolean anyInGroupNear(int i, PairCondition condition) {
+        int group = this.groups == null ? NO_GROUP : this.groups[i];
+        if (group < 0) {
+            return false;
+        }
+        int ownBucket = this.buckets[i];
+        if (this.anyInGroup(i, group, ownBucket, condition)) {
+            return true;
+        }
+        int neighbors = this.findNeighborBuckets(this.cellsX[i], this.cellsY[i]);
+        for (int n = 0; n < neighbors; n++) {
+            int bucket = this.neighborBuckets[n];
+            if (bucket != ownBucket && this.anyInGroup(i, group, bucket, condition)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean anyInGroup(int i, int group, int bucket, PairCondition condition) {
+        int s = this.bucketStarts[bucket];
+        while (s < this.bucketStarts[bucket + 1]) {
+            int j = this.sorted[s];
+            if (this.groups[j] != group) {
+                s = this.groupEnds[s];
+                continue;
+            }
+            if (j != i && condition.holds(i, j)) {
+                return true;
+            }
+            s++;
+        }
+        return false;
+    }
+
+    /**
+     * Finds the buckets of the cell and the 8 cells around it, leaving out buckets that repeat (when cells hash to
+     * the same bucket), so no pair is visited twice.
+     *
+     * @return the number of buckets found
+     */
+    private int findNeighborBuckets(int cellX, int cellY) {
+        int found = 0;
+        for (int offsetX = -1; offsetX <= 1; offsetX++) {
+            for (int offsetY = -1; offsetY <= 1; offsetY++) {
+                int bucket = this.bucketOf(cellX + offsetX, cellY + offsetY);
+                boolean repeated = false;
+                for (int n = 0; n < found && !repeated; n++) {
+                    repeated = this.neighborBuckets[n] == bucket;
+                }
+                if (!repeated) {
+                    this.neighborBuckets[found++] = bucket;
+                }
+            }
+        }
+        return found;
+    }
+
+    private int bucketOf(int cellX, int cellY) {
+        return ((cellX * X_PRIME) ^ (cellY * Y_PRIME)) & this.bucketMask;
+    }
+
+    /**
+     * Grows the arrays to fit the given number of points, with at least twice as many buckets as points.
+     */
+    private void ensureCapacity(int points) {
+        if (points <= this.sorted.length) {
+            return;
+        }
+        int capacity = this.sorted.length;
+        while (capacity < points) {
+            capacity *= 2;
+        }
+        this.cellsX = new int[capacity];
+        this.cellsY = new int[capacity];
+        this.buckets = new int[capacity];
+        this.sorted = new int[capacity];
+        this.groupEnds = new int[capacity];
+        this.bucketStarts = new int[2 * capacity + 1];
+        this.bucketMask = 2 * capacity - 1;
+    }
+}
@@ -0,0 +1,289 @@
+package game.logic.physics.broad_phase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link BroadPhase} that divides a region of the screen into equal square cells. Each entry is kept in every cell
+ * its rectangle overlaps, and a query only tests the entries in the cells the trajectory crosses.
+ *
+ * <p>Entries that are not completely inside the region (for example the death block below the screen) are kept in a
+ * separate list which is tested by every query.
+ */
+public class UniformGrid implements BroadPhase {
+    //Entries are indexed slightly bigger than they are, so points that are on an edge up to rounding errors are found
+    private static final double EPSILON = 0.000001;
+    private final double minX;
+    private final double minY;
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+    private final List<CollidableEntry>[] cells;
+    private final List<CollidableEntry> outside;
+    //The cell range each entry was indexed with: {minColumn, minRow, maxColumn, maxRow}, or null if outside
+    private final Map<CollidableEntry, int[]> ranges;
+
+    /**
+     * Instantiates a new uniform grid covering the given region.
+     *
+     * @param x        the x coordinate of the upper left corner of the region
+     * @param y        the y coordinate of the upper left corner of the region
+     * @param width    the width of the region
+     * @param height   the height of the region
+     * @param cellSize the size of each (square) cell
+     */
+    public UniformGrid(double x, double y, double width, double height, double cellSize) {
+        this.minX = x;
+        this.minY = y;
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (int) Math.ceil(width / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(height / cellSize));
+        this.cells = newCells(this.columns * this.rows);
+        this.outside = new ArrayList<>();
+        this.ranges = new HashMap<>();
+    }
+
+    /**
+     * Creates the array of cells. Arrays of a generic type cannot be created directly, so an array of unknown lists
+     * is created and cast - it only ever holds lists of entries.
+     */
+    @SuppressWarnings("unchecked")
+    private static List<CollidableEntry>[] newCells(int count) {
+        return (List<CollidableEntry>[]) new List<?>[count];
+    }
+
+    private int column(double x) {
+        return (int) Math.floor((x - this.minX) / this.cellSize);
+    }
+
+    private int row(double y) {
+        return (int) Math.floor((y - this.minY) / this.cellSize);
+    }
+
+    /**
+     * Returns the cell range covered by the entry, or null if it is not completely inside the grid.
+     */
+    private int[] rangeOf(CollidableEntry entry) {
+        int minColumn = column(entry.left() - EPSILON);
+        int minRow = row(entry.top() - EPSILON);
+        int maxColumn = column(entry.right() + EPSILON);
+        int maxRow = row(entry.bottom() + EPSILON);
+        if (minColumn < 0 || minRow < 0 || maxColumn >= this.columns || maxRow >= this.rows) {
+            return null;
+        }
+        return new int[]{minColumn, minRow, maxColumn, maxRow};
+    }
+
+    private void insert(CollidableEntry entry, int[] range) {
+        if (range == null) {
+            this.outside.add(entry);
+            return;
+        }
+        for (int row = range[1]; row <= range[3]; row++) {
+            for (int column = range[0]; column <= range[2]; column++) {
+                int index = row * this.columns + column;
+                if (this.cells[index] == null) {
+                    this.cells[index] = new ArrayList<>();
+                }
+                this.cells[index].add(entry);
+            }
+        }
+    }
+
+    private void erase(CollidableEntry entry, int[] range) {
+        if (range == null) {
+            this.outside.remove(entry);
+            return;
+        }
+        for (int row = range[1]; row <= range[3]; row++) {
+            for (int column = range[0]; column <= range[2]; column++) {
+                this.cells[row * this.columns + column].remove(entry);
+            }
+        }
+    }
+
+    @Override
+    public void add(CollidableEntry entry) {
+        if (this.ranges.containsKey(entry)) {
+            return;
+        }
+        int[] range = rangeOf(entry);
+        this.ranges.put(entry, range);
+        insert(entry, range);
+    }
+
+    @Override
+    public void remove(CollidableEntry entry) {
+        if (!this.ranges.containsKey(entry)) {
+            return;
+        }
+        erase(entry, this.ranges.remove(entry));
+    }
+
+    @Override
+    public void update(CollidableEntry entry) {
+        if (!this.ranges.containsKey(entry)) {
+            return;
+        }
+        int[] oldRange = this.ranges.get(entry);
+        entry.refreshBounds();
+        int[] newRange = rangeOf(entry);
+
+        //Only re-bucketing if the entry has moved to different cells
+        boolean sameCells = oldRange == null ? newRange == null
+                : newRange != null && Arrays.equals(oldRange, newRange);
+        if (!sameCells) {
+            erase(entry, oldRange);
+            insert(entry, newRange);
+            this.ranges.put(entry, newRange);
+        }
+    }
+
+    /**
+     * Tests the entries in the cells the trajectory crosses, in the order the trajectory crosses them, and stops
+     * as soon as the next cell is further away than the closest collision found so far.
+     * A swept query tests every cell in the bounding box of the swept circle instead.
+     *
+     * @param query the query
+     */
+    @Override
+    public void query(CollisionQuery query) {
+        for (CollidableEntry entry : this.outside) {
+            query.test(entry);
+        }
+        if (query.margin() > 0) {
+            querySwept(query);
+            return;
+        }
+
+        double x0 = query.startX();
+        double y0 = query.startY();
+        double dx = query.endX() - x0;
+        double dy = query.endY() - y0;
+
+        //Clipping the trajectory to the grid (t is the proportion of the trajectory, between 0 and 1)
+        double gridRight = this.minX + this.columns * this.cellSize;
+        double gridBottom = this.minY + this.rows * this.cellSize;
+        double tStart = 0;
+        double tEnd = 1;
+        if (dx == 0) {
+            if (x0 < this.minX || x0 > gridRight) {
+                return;
+            }
+        } else {
+            double t1 = (this.minX - x0) / dx;
+            double t2 = (gridRight - x0) / dx;
+            tStart = Math.max(tStart, Math.min(t1, t2));
+            tEnd = Math.min(tEnd, Math.max(t1, t2));
+        }
+        if (dy == 0) {
+            if (y0 < this.minY || y0 > gridBottom) {
+                return;
+            }
+        } else {
+            double t1 = (this.minY - y0) / dy;
+            double t2 = (gridBottom - y0) / dy;
+            tStart = Math.max(tStart, Math.min(t1, t2));
+            tEnd = Math.min(tEnd, Math.max(t1, t2));
+        }
+        if (tStart > tEnd) {
+            return;
+        }
+
+        //Walking the cells along the trajectory (Amanatides & Woo)
+        int column = clampColumn(column(x0 + dx * tStart));
+        int row = clampRow(row(y0 + dy * tStart));
+        int stepColumn = (int) Math.signum(dx);
+        int stepRow = (int) Math.signum(dy);
+        double tMaxX = nextBoundary(x0, dx, this.minX + column * this.cellSize);
+        double tMaxY = nextBoundary(y0, dy, this.minY + row * this.cellSize);
+        double tDeltaX = dx == 0 ? Double.POSITIVE_INFINITY : this.cellSize / Math.abs(dx);
+        double tDeltaY = dy == 0 ? Double.POSITIVE_INFINITY : this.cellSize / Math.abs(dy);
+        double tEnter = tStart;
+
+        while (tEnter <= query.reach()) {
+            List<CollidableEntry> cell = this.cells[row * this.columns + column];
+            if (cell != null) {
+                for (CollidableEntry entry : cell) {
+                    query.test(entry);
+                }
+            }
+
+            if (tMaxX < tMaxY) {
+                if (tMaxX > tEnd) {
+                    return;
+                }
+                tEnter = tMaxX;
+                tMaxX += tDeltaX;
+                column += stepColumn;
+            } else {
+                if (tMaxY > tEnd) {
+                    return;
+                }
+                tEnter = tMaxY;
+                tMaxY += tDeltaY;
+                row += stepRow;
+            }
+            if (column < 0 || column >= this.columns || row < 0 || row >= this.rows) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Tests the entries in every cell the swept circle's bounding box overlaps. Balls move a few pixels per step,
+     * so this is only a handful of cells.
+     */
+    private void querySwept(CollisionQuery query) {
+        double extra = query.margin() + EPSILON;
+        int minColumn = column(Math.min(query.startX(), query.endX()) - extra);
+        int minRow = row(Math.min(query.startY(), query.endY()) - extra);
+        int maxColumn = column(Math.max(query.startX(), query.endX()) + extra);
+        int maxRow = row(Math.max(query.startY(), query.endY()) + extra);
+        if (maxColumn < 0 || maxRow < 0 || minColumn >= this.columns || minRow >= this.rows) {
+            return;
+        }
+        minColumn = clampColumn(minColumn);
+        minRow = clampRow(minRow);
+        maxColumn = clampColumn(maxColumn);
+        maxRow = clampRow(maxRow);
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                List<CollidableEntry> cell = this.cells[row * this.columns + column];
+                if (cell != null) {
+                    for (CollidableEntry entry : cell) {
+                        query.test(entry);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the proportion of the trajectory at which it reaches the next cell boundary on one axis.
+     *
+     * @param start     the start coordinate
+     * @param delta     the change in the coordinate along the whole trajectory
+     * @param cellStart the lower coordinate of the current cell on that axis
+     * @return the proportion, or infinity if the trajectory does not move on that axis
+     */
+    private double nextBoundary(double start, double delta, double cellStart) {
+        if (delta > 0) {
+            return (cellStart + this.cellSize - start) / delta;
+        } else if (delta < 0) {
+            return (cellStart - start) / delta;
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    private int clampColumn(int column) {
+        return Math.min(this.columns - 1, Math.max(0, column));
+    }
+
+    private int clampRow(int row) {
+        return Math.min(this.rows - 1, Math.max(0, row));
+    }
+}
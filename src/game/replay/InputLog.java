@@ -0,0 +1,386 @@
+package game.replay;
+
+import biuoop.KeyboardSensor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Everything needed to play a game session again exactly: the settings the game was started with (including the
+ * directory its levels were read from), the seed of its random numbers, and the keys that were held in each step (see
+ * {@link game.animations.StepListener}). The score after every change is kept as well, so a replay can check that it
+ * reached the same states.
+ *
+ * <p>The keys of a step are a bit for each of the {@link #KEYS}, and consecutive steps with the same keys are kept
+ * as a single run, so a log takes a few bytes for each time the keys change. It is written in a compact binary
+ * format.
+ *
+ * <p>A log may be saved by another thread (such as one that saves it when the program exits) while the game is still
+ * adding to it, so adding and saving are synchronized.
+ */
+public class InputLog {
+    /**
+     * The keys that are recorded. The game does not use any other keys.
+     */
+    public static final String[] KEYS = {KeyboardSensor.LEFT_KEY, KeyboardSensor.RIGHT_KEY, KeyboardSensor.SPACE_KEY,
+            "p"};
+    //"ARKL"
+    private static final int MAGIC = 0x41524b4c;
+    private static final int VERSION = 1;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int VARINT_BITS = 7;
+    private static final int VARINT_MORE = 0x80;
+    private final long seed;
+    private final int fps;
+    private final int ticksPerSecond;
+    private final int stormBalls;
+    private final boolean ballCollisions;
+    private final int[] levels;
+    private final String levelDirectory;
+    private final long maxStepsPerRun;
+    //The keys held in each run of steps, and the number of steps in it
+    private byte[] runKeys;
+    private long[] runLengths;
+    private int runs;
+    private long steps;
+    //The step each score change happened in, and the score after it
+    private long[] scoreSteps;
+    private int[] scores;
+    private int scoreChanges;
+
+    /**
+     * Instantiates a new log without any steps.
+     *
+     * @param seed           the seed of the random numbers of the game
+     * @param fps            the frames per second animations that are timed in frames were run at
+     * @param ticksPerSecond the ticks per second the levels were made for
+     * @param stormBalls     the number of balls in ball storm mode, or 0 if it was not used
+     * @param ballCollisions whether the balls collided with each other
+     * @param levels         the numbers of the levels that were played, counted from 1
+     * @param levelDirectory the directory the level files were read from, or null if the built-in levels were played
+     * @param maxStepsPerRun the most steps a single animation was run for, or {@link Long#MAX_VALUE} if the
+     *                       animations ran until they ended
+     */
+    public InputLog(long seed, int fps, int ticksPerSecond, int stormBalls, boolean ballCollisions, int[] levels,
+                    String levelDirectory, long maxStepsPerRun) {
+        this.seed = seed;
+        this.fps = fps;
+        this.ticksPerSecond = ticksPerSecond;
+        this.stormBalls = stormBalls;
+        this.ballCollisions = ballCollisions;
+        this.levels = levels.clone();
+        this.levelDirectory = levelDirectory;
+        this.maxStepsPerRun = maxStepsPerRun;
+        this.runKeys = new byte[INITIAL_CAPACITY];
+        this.runLengths = new long[INITIAL_CAPACITY];
+        this.scoreSteps = new long[INITIAL_CAPACITY];
+        this.scores = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Returns the bit that stands for a key in the keys of a step.
+     *
+     * @param key the key
+     * @return the bit, or 0 if the key is not recorded
+     */
+    public static int bitOf(String key) {
+        for (int i = 0; i < KEYS.length; i++) {
+            if (KEYS[i].equals(key)) {
+                return 1 << i;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Adds a step.
+     *
+     * @param keys the keys held in the step, a bit for each of the {@link #KEYS}
+     */
+    public synchronized void addStep(int keys) {
+        this.addSteps(keys, 1);
+    }
+
+    private void addSteps(int keys, long length) {
+        if (this.runs > 0 && this.runKeys[this.runs - 1] == (byte) keys) {
+            this.runLengths[this.runs - 1] += length;
+        } else {
+            if (this.runs == this.runKeys.length) {
+                this.runKeys = Arrays.copyOf(this.runKeys, this.runs * 2);
+                this.runLengths = Arrays.copyOf(this.runLengths, this.runs * 2);
+            }
+            this.runKeys[this.runs] = (byte) keys;
+            this.runLengths[this.runs] = length;
+            this.runs++;
+        }
+        this.steps += length;
+    }
+
+    /**
+     * Adds a change of the score.
+     *
+     * @param step  the step the score changed in, counted from 0
+     * @param score the score after the change
+     */
+    public synchronized void addScore(long step, int score) {
+        if (this.scoreChanges == this.scores.length) {
+            this.scoreSteps = Arrays.copyOf(this.scoreSteps, this.scoreChanges * 2);
+            this.scores = Arrays.copyOf(this.scores, this.scoreChanges * 2);
+        }
+        this.scoreSteps[this.scoreChanges] = step;
+        this.scores[this.scoreChanges] = score;
+        this.scoreChanges++;
+    }
+
+    /**
+     * Compares the score changes of this log with the ones of another log, such as the log of a replay.
+     *
+     * @param other the other log
+     * @return the index of the first change that differs, or -1 if they are all the same
+     */
+    public int firstScoreMismatch(InputLog other) {
+        int common = Math.min(this.scoreChanges, other.scoreChanges);
+        for (int i = 0; i < common; i++) {
+            if (this.scoreSteps[i] != other.scoreSteps[i] || this.scores[i] != other.scores[i]) {
+                return i;
+            }
+        }
+        return this.scoreChanges == other.scoreChanges ? -1 : common;
+    }
+
+    /**
+     * Returns the seed of the random numbers of the game.
+     *
+     * @return the seed
+     */
+    public long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * Returns the frames per second animations that are timed in frames were run at.
+     *
+     * @return the frames per second
+     */
+    public int getFps() {
+        return this.fps;
+    }
+
+    /**
+     * Returns the ticks per second the levels were made for.
+     *
+     * @return the ticks per second
+     */
+    public int getTicksPerSecond() {
+        return this.ticksPerSecond;
+    }
+
+    /**
+     * Returns the number of balls in ball storm mode.
+     *
+     * @return the number of balls, or 0 if it was not used
+     */
+    public int getStormBalls() {
+        return this.stormBalls;
+    }
+
+    /**
+     * Returns whether the balls collided with each other.
+     *
+     * @return whether the balls collided with each other
+     */
+    public boolean hasBallCollisions() {
+        return this.ballCollisions;
+    }
+
+    /**
+     * Returns the numbers of the levels that were played.
+     *
+     * @return the numbers, counted from 1
+     */
+    public int[] getLevels() {
+        return this.levels.clone();
+    }
+
+    /**
+     * Returns the directory the level files were read from.
+     *
+     * @return the directory, or null if the built-in levels were played
+     */
+    public String getLevelDirectory() {
+        return this.levelDirectory;
+    }
+
+    /**
+     * Returns the most steps a single animation was run for.
+     *
+     * @return the most steps, or {@link Long#MAX_VALUE} if the animations ran until they ended
+     */
+    public long getMaxStepsPerRun() {
+        return this.maxStepsPerRun;
+    }
+
+    /**
+     * Returns the number of steps.
+     *
+     * @return the number of steps
+     */
+    public long getSteps() {
+        return this.steps;
+    }
+
+    /**
+     * Returns the number of runs of steps with the same keys.
+     *
+     * @return the number of runs
+     */
+    public int getRuns() {
+        return this.runs;
+    }
+
+    /**
+     * Returns the keys held in a run of steps.
+     *
+     * @param run the run
+     * @return the keys, a bit for each of the {@link #KEYS}
+     */
+    public int getRunKeys(int run) {
+        return this.runKeys[run];
+    }
+
+    /**
+     * Returns the number of steps in a run.
+     *
+     * @param run the run
+     * @return the number of steps
+     */
+    public long getRunLength(int run) {
+        return this.runLengths[run];
+    }
+
+    /**
+     * Returns the number of times the score changed.
+     *
+     * @return the number of changes
+     */
+    public int getScoreChanges() {
+        return this.scoreChanges;
+    }
+
+    /**
+     * Returns the score at the end of the log.
+     *
+     * @return the score
+     */
+    public int getFinalScore() {
+        return this.scoreChanges == 0 ? 0 : this.scores[this.scoreChanges - 1];
+    }
+
+    /**
+     * Writes the log to a file.
+     *
+     * @param path the path of the file
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void save(String path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(this.seed);
+            out.writeInt(this.fps);
+            out.writeInt(this.ticksPerSecond);
+            out.writeInt(this.stormBalls);
+            out.writeBoolean(this.ballCollisions);
+            out.writeInt(this.levels.length);
+            for (int level : this.levels) {
+                out.writeInt(level);
+            }
+            //The built-in levels are written as an empty directory
+            out.writeUTF(this.levelDirectory == null ? "" : this.levelDirectory);
+            out.writeLong(this.maxStepsPerRun);
+            out.writeInt(this.runs);
+            for (int i = 0; i < this.runs; i++) {
+                out.writeByte(this.runKeys[i]);
+                writeVarLong(out, this.runLengths[i]);
+            }
+            out.writeInt(this.scoreChanges);
+            long previousStep = 0;
+            for (int i = 0; i < this.scoreChanges; i++) {
+                //The steps only grow, so the gaps between them are small
+                writeVarLong(out, this.scoreSteps[i] - previousStep);
+                previousStep = this.scoreSteps[i];
+                out.writeInt(this.scores[i]);
+            }
+        }
+    }
+
+    /**
+     * Reads a log from a file.
+     *
+     * @param path the path of the file
+     * @return the log
+     * @throws IOException if the file cannot be read, or is not a log
+     */
+    public static InputLog load(String path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(path + " is not an input log");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("unsupported input log version " + version);
+            }
+            long seed = in.readLong();
+            int fps = in.readInt();
+            int ticksPerSecond = in.readInt();
+            int stormBalls = in.readInt();
+            boolean ballCollisions = in.readBoolean();
+            int[] levels = new int[in.readInt()];
+            for (int i = 0; i < levels.length; i++) {
+                levels[i] = in.readInt();
+            }
+            String levelDirectory = in.readUTF();
+            long maxStepsPerRun = in.readLong();
+            InputLog log = new InputLog(seed, fps, ticksPerSecond, stormBalls, ballCollisions, levels,
+                    levelDirectory.isEmpty() ? null : levelDirectory, maxStepsPerRun);
+            int runs = in.readInt();
+            for (int i = 0; i < runs; i++) {
+                int keys = in.readByte();
+                log.addSteps(keys, readVarLong(in));
+            }
+            int scoreChanges = in.readInt();
+            long step = 0;
+            for (int i = 0; i < scoreChanges; i++) {
+                step += readVarLong(in);
+                log.addScore(step, in.readInt());
+            }
+            return log;
+        }
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~(VARINT_MORE - 1)) != 0) {
+            out.writeByte((int) (value & (VARINT_MORE - 1)) | VARINT_MORE);
+            value >>>= VARINT_BITS;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            value |= (long) (b & (VARINT_MORE - 1)) << shift;
+            shift += VARINT_BITS;
+        } while ((b & VARINT_MORE) != 0);
+        return value;
+    }
+}
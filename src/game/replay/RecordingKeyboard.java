@@ -0,0 +1,75 @@
+package game.replay;
+
+import biuoop.KeyboardSensor;
+import game.animations.AnimationRunner;
+import game.animations.StepListener;
+import game.logic.Counter;
+
+/**
+ * A {@link KeyboardSensor} that passes on another one, and records the keys it reports into an {@link InputLog}.
+ *
+ * <p>A key is read from the other keyboard the first time it is asked for in a step, and the same answer is given
+ * for the rest of the step, so the game sees exactly what a {@link ReplayKeyboard} will show it later. Keys that
+ * are not in {@link InputLog#KEYS} are never pressed.
+ */
+public class RecordingKeyboard implements KeyboardSensor, StepListener {
+    private final KeyboardSensor keyboard;
+    private final InputLog log;
+    //The keys that were read in the current step, and the ones among them that were pressed
+    private int readKeys;
+    private int pressedKeys;
+
+    /**
+     * Instantiates a new recording keyboard.
+     *
+     * @param keyboard the keyboard to pass on
+     * @param log      the log to record into
+     */
+    public RecordingKeyboard(KeyboardSensor keyboard, InputLog log) {
+        this.keyboard = keyboard;
+        this.log = log;
+    }
+
+    /**
+     * Connects the recording to the game - the keys are recorded with the steps of the runner, and the changes of
+     * the score are recorded as well.
+     *
+     * @param runner the runner the game is run with
+     * @param score  the score of the game
+     */
+    public void attach(AnimationRunner runner, Counter score) {
+        runner.addStepListener(this);
+        score.addListener((counter, oldValue, newValue) -> this.log.addScore(this.getStep(), newValue));
+    }
+
+    @Override
+    public boolean isPressed(String key) {
+        int bit = InputLog.bitOf(key);
+        if ((this.readKeys & bit) == 0) {
+            this.readKeys |= bit;
+            if (this.keyboard.isPressed(key)) {
+                this.pressedKeys |= bit;
+            }
+        }
+        return (this.pressedKeys & bit) != 0;
+    }
+
+    /**
+     * Records the keys of the step that ended.
+     */
+    @Override
+    public void stepped() {
+        this.log.addStep(this.pressedKeys);
+        this.readKeys = 0;
+        this.pressedKeys = 0;
+    }
+
+    /**
+     * Returns the current step, counted from 0.
+     *
+     * @return the step
+     */
+    public long getStep() {
+        return this.log.getSteps();
+    }
+}
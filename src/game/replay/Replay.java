@@ -0,0 +1,66 @@
+package game.replay;
+
+import biuoop.KeyboardSensor;
+import game.animations.AnimationRunner;
+import game.logic.Counter;
+
+/**
+ * Plays the input of an {@link InputLog} back into a game, and checks that the game reaches the same scores at the
+ * same steps as the recorded one. The game has to be started with the settings and the random seed of the log.
+ */
+public class Replay {
+    private final InputLog log;
+    private final ReplayKeyboard keyboard;
+    //The scores the replay reached
+    private final InputLog replayed;
+
+    /**
+     * Instantiates a new replay.
+     *
+     * @param log the log to play back
+     */
+    public Replay(InputLog log) {
+        this.log = log;
+        this.keyboard = new ReplayKeyboard(log);
+        this.replayed = new InputLog(log.getSeed(), log.getFps(), log.getTicksPerSecond(), log.getStormBalls(),
+                log.hasBallCollisions(), log.getLevels(), log.getLevelDirectory(), log.getMaxStepsPerRun());
+    }
+
+    /**
+     * Returns the keyboard the game should read its keys from.
+     *
+     * @return the keyboard
+     */
+    public KeyboardSensor getKeyboard() {
+        return this.keyboard;
+    }
+
+    /**
+     * Connects the replay to the game - the keys move on with the steps of the runner, and the changes of the score
+     * are kept for {@link #check()}.
+     *
+     * @param runner the runner the game is run with
+     * @param score  the score of the game
+     */
+    public void attach(AnimationRunner runner, Counter score) {
+        runner.addStepListener(this.keyboard);
+        score.addListener((counter, oldValue, newValue) -> this.replayed.addScore(this.keyboard.getStep(), newValue));
+    }
+
+    /**
+     * Prints whether the replay reached the same scores at the same steps as the recorded game.
+     *
+     * @return whether the scores are the same
+     */
+    public boolean check() {
+        int mismatch = this.log.firstScoreMismatch(this.replayed);
+        if (mismatch >= 0) {
+            System.out.println("Warning: the replay diverged from the recording at score change " + mismatch + " of "
+                    + this.log.getScoreChanges());
+            return false;
+        }
+        System.out.println("Replay matches the recording: " + this.keyboard.getStep() + " steps, "
+                + this.log.getScoreChanges() + " score changes, final score " + this.log.getFinalScore());
+        return true;
+    }
+}
@@ -0,0 +1,67 @@
+package game.replay;
+
+import biuoop.KeyboardSensor;
+import game.animations.StepListener;
+
+/**
+ * A {@link KeyboardSensor} that presses the keys recorded in an {@link InputLog}, step by step. Once the log has
+ * ended, no key is pressed.
+ */
+public class ReplayKeyboard implements KeyboardSensor, StepListener {
+    private final InputLog log;
+    private int run;
+    //The steps of the current run that have already passed
+    private long stepInRun;
+    private long step;
+
+    /**
+     * Instantiates a new replay keyboard, at the first step of the log.
+     *
+     * @param log the log
+     */
+    public ReplayKeyboard(InputLog log) {
+        this.log = log;
+    }
+
+    @Override
+    public boolean isPressed(String key) {
+        if (this.isFinished()) {
+            return false;
+        }
+        return (this.log.getRunKeys(this.run) & InputLog.bitOf(key)) != 0;
+    }
+
+    /**
+     * Moves on to the next step.
+     */
+    @Override
+    public void stepped() {
+        if (this.isFinished()) {
+            return;
+        }
+        this.step++;
+        this.stepInRun++;
+        if (this.stepInRun == this.log.getRunLength(this.run)) {
+            this.run++;
+            this.stepInRun = 0;
+        }
+    }
+
+    /**
+     * Returns the current step, counted from 0.
+     *
+     * @return the step
+     */
+    public long getStep() {
+        return this.step;
+    }
+
+    /**
+     * Returns whether all the steps of the log have passed.
+     *
+     * @return whether the log has ended
+     */
+    public boolean isFinished() {
+        return this.run >= this.log.getRuns();
+    }
+}
@@ -1,56 +1,103 @@
 import biuoop.GUI;
+import biuoop.KeyboardSensor;
 import game.GameFlow;
+import game.GameOptions;
 import game.animations.AnimationRunner;
-import game.levels.LevelInformation;
-import game.levels.lunar.Lunar;
-import game.levels.martian.Martian;
-import game.levels.solar.Solar;
-
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import game.animations.frame_stats.FrameStats;
+import game.headless.HeadlessRunner;
+import game.replay.InputLog;
+import game.replay.RecordingKeyboard;
+import game.replay.Replay;
 
 /**
  * A program that runs a game of Arkanoid.
  */
 public class main {
-    private static final int FPS = 60;
-    private static final int WIDTH = 800;
-    private static final int HEIGHT = 600;
-    private static final LevelInformation[] LEVELS = {
-            new Martian(WIDTH, HEIGHT, FPS),
-            new Solar(WIDTH, HEIGHT, FPS),
-            new Lunar(WIDTH, HEIGHT, FPS)
-    };
+    private static final String OVERLAY_ARG = "overlay";
 
     /**
      * The entry point of the program.
      *
-     * @param args the input arguments (not used)
+     * @param args the options of {@link GameOptions#parseArgument(String)}, and "overlay" to show the time the phases
+     *             of the frames took on the screen. The levels are read from their files only when the game reaches
+     *             them, and a replay is played as fast as possible
      */
     public static void main(String[] args) {
-        List<LevelInformation> levels = new ArrayList<>();
+        GameOptions options = new GameOptions();
+        boolean overlay = false;
         for (String arg : args) {
-            try {
-                int levelNumber = Integer.parseInt(arg);
-                //In the level range
-                if (1 <= levelNumber && levelNumber <= LEVELS.length) {
-                    levels.add(LEVELS[levelNumber - 1]);
-                }
-            } catch (NumberFormatException e) {
-                //String is not a number, ignoring.
+            if (arg.equals(OVERLAY_ARG)) {
+                overlay = true;
+            } else if (!options.parseArgument(arg)) {
+                System.out.println("Warning: ignoring argument " + arg);
             }
         }
-        if (levels.size() == 0) {
-            levels = Arrays.asList(LEVELS);
+        if (!options.prepare()) {
+            return;
+        }
+        InputLog log = options.getReplayLog();
+
+        GUI gui = new GUI("Arkanoid", GameFlow.WIDTH, GameFlow.HEIGHT);
+        AnimationRunner runner;
+        KeyboardSensor keyboard = gui.getKeyboardSensor();
+        Replay replay = null;
+        if (log != null) {
+            //Every frame is a single step, so the replay runs as fast as it can be drawn
+            HeadlessRunner replayRunner = new HeadlessRunner(options.getFps(), gui, log.getMaxStepsPerRun());
+            replayRunner.setMaxFrames(log.getSteps());
+            runner = replayRunner;
+            replay = new Replay(log);
+            keyboard = replay.getKeyboard();
+        } else {
+            runner = new AnimationRunner(gui, GameFlow.FPS, GameFlow.TICKS_PER_SECOND);
+        }
+        if (options.getStatsFile() != null) {
+            runner.setFrameStats(new FrameStats(options.getFps()));
         }
+        runner.setFrameStatsShown(overlay);
 
+        InputLog recording = null;
+        RecordingKeyboard recorder = null;
+        Thread saveOnExit = null;
+        if (options.isRecorded()) {
+            recording = options.newRecording(Long.MAX_VALUE);
+            recorder = new RecordingKeyboard(keyboard, recording);
+            keyboard = recorder;
+            //Closing the window ends the program in the middle of the game, so the recording is saved on exit too
+            saveOnExit = saveOnExit(options, recording);
+        }
 
-        GUI gui = new GUI("Arkanoid", WIDTH, HEIGHT);
-        AnimationRunner runner = new AnimationRunner(gui, FPS);
-        GameFlow gf = new GameFlow(runner , gui.getKeyboardSensor(), WIDTH, HEIGHT, FPS);
+        GameFlow gf = new GameFlow(runner, keyboard, GameFlow.WIDTH, GameFlow.HEIGHT, options.getFps());
+        options.configure(gf);
+        if (replay != null) {
+            replay.attach(runner, gf.getScore());
+        }
+        if (recorder != null) {
+            recorder.attach(runner, gf.getScore());
+        }
 
-        gf.runLevels(levels);
+        gf.runLevels(options.getLevels());
+        if (recording != null) {
+            options.saveRecording(recording);
+            Runtime.getRuntime().removeShutdownHook(saveOnExit);
+        }
         gui.close();
+        if (replay != null) {
+            replay.check();
+        }
+        if (options.getStatsFile() != null) {
+            runner.getFrameStats().export(options.getStatsFile());
+        }
+    }
+
+    /**
+     * Saves the recording when the program exits before the game ends.
+     *
+     * @return the thread that saves it, which is registered as a shutdown hook
+     */
+    private static Thread saveOnExit(GameOptions options, InputLog recording) {
+        Thread hook = new Thread(() -> options.saveRecording(recording));
+        Runtime.getRuntime().addShutdownHook(hook);
+        return hook;
     }
 }